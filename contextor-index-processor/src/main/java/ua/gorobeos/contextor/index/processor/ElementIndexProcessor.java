@@ -0,0 +1,133 @@
+package ua.gorobeos.contextor.index.processor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+@SupportedAnnotationTypes("*")
+public class ElementIndexProcessor extends AbstractProcessor {
+
+  public static final String INDEX_LOCATION = "META-INF/contextor/elements.idx";
+  public static final String ELEMENT_ANNOTATION = "ua.gorobeos.contextor.context.annotations.Element";
+
+  private final Set<String> indexedElements = new TreeSet<>();
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    if (roundEnv.processingOver()) {
+      writeIndex();
+      return false;
+    }
+    for (Element rootElement : roundEnv.getRootElements()) {
+      collectElements(rootElement);
+    }
+    return false;
+  }
+
+  private void collectElements(Element element) {
+    if (!(element instanceof TypeElement typeElement)) {
+      return;
+    }
+    if (typeElement.getKind() != ElementKind.ANNOTATION_TYPE && isElement(typeElement)) {
+      indexedElements.add(processingEnv.getElementUtils().getBinaryName(typeElement).toString());
+    }
+    typeElement.getEnclosedElements().forEach(this::collectElements);
+  }
+
+  // Mirrors ReflectionUtils.isAnnotationPresentFullCheck: annotations of the type, its supertypes and meta-annotations
+  private boolean isElement(TypeElement typeElement) {
+    Set<String> visited = new HashSet<>();
+    Deque<TypeElement> toVisit = new ArrayDeque<>();
+    toVisit.push(typeElement);
+
+    while (!toVisit.isEmpty()) {
+      TypeElement current = toVisit.pop();
+      if (!visited.add(current.getQualifiedName().toString())) {
+        continue;
+      }
+      if (ELEMENT_ANNOTATION.contentEquals(current.getQualifiedName())) {
+        return true;
+      }
+      for (AnnotationMirror annotationMirror : current.getAnnotationMirrors()) {
+        toVisit.push((TypeElement) annotationMirror.getAnnotationType().asElement());
+      }
+      pushIfDeclared(current.getSuperclass(), toVisit);
+      current.getInterfaces().forEach(type -> pushIfDeclared(type, toVisit));
+    }
+    return false;
+  }
+
+  private static void pushIfDeclared(TypeMirror type, Deque<TypeElement> toVisit) {
+    if (type.getKind() == TypeKind.DECLARED) {
+      toVisit.push((TypeElement) ((DeclaredType) type).asElement());
+    }
+  }
+
+  private void writeIndex() {
+    Set<String> elements = new TreeSet<>(indexedElements);
+    elements.addAll(readPreviousIndex());
+    if (elements.isEmpty()) {
+      return;
+    }
+    try {
+      FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION);
+      try (Writer writer = index.openWriter()) {
+        writer.write("# contextor element index, generated by " + getClass().getSimpleName() + System.lineSeparator());
+        for (String element : elements) {
+          writer.write(element + System.lineSeparator());
+        }
+      }
+    } catch (IOException e) {
+      processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Failed to write " + INDEX_LOCATION + ": " + e.getMessage());
+    }
+  }
+
+  // Incremental builds only compile changed sources, so entries of untouched element types are carried over
+  private Set<String> readPreviousIndex() {
+    Set<String> previous = new TreeSet<>();
+    try {
+      FileObject index = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION);
+      try (var reader = new BufferedReader(new InputStreamReader(index.openInputStream(), StandardCharsets.UTF_8))) {
+        reader.lines()
+            .map(String::trim)
+            .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+            .filter(this::isStillElement)
+            .forEach(previous::add);
+      }
+    } catch (IOException | IllegalArgumentException e) {
+      // no previous index
+    }
+    return previous;
+  }
+
+  private boolean isStillElement(String binaryName) {
+    TypeElement typeElement = processingEnv.getElementUtils().getTypeElement(binaryName.replace('$', '.'));
+    return typeElement != null && isElement(typeElement);
+  }
+}
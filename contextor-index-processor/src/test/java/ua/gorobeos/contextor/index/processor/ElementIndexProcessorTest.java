@@ -0,0 +1,106 @@
+package ua.gorobeos.contextor.index.processor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ElementIndexProcessorTest {
+
+  private static final Map<String, String> SOURCES = Map.of(
+      "ua/gorobeos/contextor/context/annotations/Element.java", """
+          package ua.gorobeos.contextor.context.annotations;
+          import java.lang.annotation.*;
+          @Retention(RetentionPolicy.RUNTIME)
+          @Target(ElementType.TYPE)
+          public @interface Element { String value() default ""; }
+          """,
+      "ua/gorobeos/contextor/context/annotations/ContextConfig.java", """
+          package ua.gorobeos.contextor.context.annotations;
+          import java.lang.annotation.*;
+          @Retention(RetentionPolicy.RUNTIME)
+          @Target(ElementType.TYPE)
+          @Element
+          public @interface ContextConfig { }
+          """,
+      "com/acme/PlainElement.java", """
+          package com.acme;
+          @ua.gorobeos.contextor.context.annotations.Element
+          public class PlainElement {
+            @ua.gorobeos.contextor.context.annotations.Element
+            public static class NestedElement { }
+          }
+          """,
+      "com/acme/Config.java", """
+          package com.acme;
+          @ua.gorobeos.contextor.context.annotations.ContextConfig
+          public class Config { }
+          """,
+      "com/acme/InheritedElement.java", """
+          package com.acme;
+          public class InheritedElement extends PlainElement { }
+          """,
+      "com/acme/NotAnElement.java", """
+          package com.acme;
+          public class NotAnElement { }
+          """
+  );
+
+  @TempDir
+  Path workDir;
+
+  @Test
+  void shouldWriteIndexWithDirectMetaAndInheritedElements() throws IOException {
+    var index = compile();
+
+    assertThat(index)
+        .filteredOn(line -> !line.startsWith("#"))
+        .containsExactly(
+            "com.acme.Config",
+            "com.acme.InheritedElement",
+            "com.acme.PlainElement",
+            "com.acme.PlainElement$NestedElement");
+  }
+
+  @Test
+  void shouldKeepEntriesOfPreviousCompilation() throws IOException {
+    compile();
+    var index = compile("com/acme/NotAnElement.java");
+
+    assertThat(index)
+        .contains("com.acme.Config", "com.acme.PlainElement")
+        .doesNotContain("com.acme.NotAnElement");
+  }
+
+  private List<String> compile(String... onlySources) throws IOException {
+    Path sourceDir = workDir.resolve("src");
+    Path outputDir = workDir.resolve("classes");
+    Files.createDirectories(outputDir);
+    for (var source : SOURCES.entrySet()) {
+      Path file = sourceDir.resolve(source.getKey());
+      Files.createDirectories(file.getParent());
+      Files.writeString(file, source.getValue());
+    }
+
+    var toCompile = onlySources.length == 0
+        ? SOURCES.keySet().stream().map(sourceDir::resolve).toList()
+        : List.of(onlySources).stream().map(sourceDir::resolve).toList();
+
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    try (var fileManager = compiler.getStandardFileManager(null, null, null)) {
+      var task = compiler.getTask(null, fileManager, null,
+          List.of("-d", outputDir.toString(), "-classpath", outputDir.toString(), "-sourcepath", sourceDir.toString()),
+          null, fileManager.getJavaFileObjectsFromPaths(toCompile));
+      task.setProcessors(List.of(new ElementIndexProcessor()));
+      assertThat(task.call()).isTrue();
+    }
+    return Files.readAllLines(outputDir.resolve(ElementIndexProcessor.INDEX_LOCATION));
+  }
+}
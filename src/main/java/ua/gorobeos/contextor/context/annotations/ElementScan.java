@@ -1,5 +1,6 @@
 package ua.gorobeos.contextor.context.annotations;
 
+import java.lang.annotation.Annotation;
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
@@ -10,4 +11,12 @@ import java.lang.annotation.Target;
 public @interface ElementScan {
 
   String[] basePackages() default {};
+
+  String[] excludePackages() default {};
+
+  // regular expressions matched against fully qualified class names
+  String[] excludeClassNamePatterns() default {};
+
+  // when set, only elements carrying one of these annotations (directly or as meta-annotation) are registered
+  Class<? extends Annotation>[] includeAnnotations() default {};
 }
@@ -0,0 +1,16 @@
+package ua.gorobeos.contextor.context.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Element is registered only when one of the profiles is active (contextor.profiles.active); "!name" negates a profile.
+// Evaluated on class file metadata while scanning, before the class is loaded
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Profile {
+
+  String[] value();
+
+}
@@ -0,0 +1,247 @@
+package ua.gorobeos.contextor.context.aot;
+
+import static ua.gorobeos.contextor.context.element.ElementDefinition.PROTOTYPE_SCOPE;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import javax.tools.ToolProvider;
+import lombok.extern.slf4j.Slf4j;
+import ua.gorobeos.contextor.context.annotations.conditions.ConditionalOnLinux;
+import ua.gorobeos.contextor.context.dependencies.SimpleDependencyResolver;
+import ua.gorobeos.contextor.context.dependencies.checker.TarjanDependencyCircularChecker;
+import ua.gorobeos.contextor.context.element.ElementDefinition;
+import ua.gorobeos.contextor.context.element.MethodDefinedElementDefinition;
+import ua.gorobeos.contextor.context.exceptions.ContainerInitException;
+import ua.gorobeos.contextor.context.readers.ElementDefinitionReaderFacadeImpl;
+import ua.gorobeos.contextor.context.scanner.ClasspathElementScanner;
+import ua.gorobeos.contextor.context.storage.DefaultElementDefinitionHolder;
+import ua.gorobeos.contextor.context.utils.ReflectionUtils;
+
+// Build step that runs scanning, definition reading, dependency resolution and the circular dependency check over the
+// compiled classes, then writes and compiles an AotContextInitializer next to the init class. ContextHolder picks it up
+// and skips all of that at startup. Conditions of singletons and active profiles are evaluated at build time.
+// Run after compilation with the compile class path, e.g. exec-maven-plugin in process-classes:
+//   java -cp <classes>:<dependencies> ua.gorobeos.contextor.context.aot.AotContextGenerator <init class> <classes dir> [<sources dir>]
+@Slf4j
+public class AotContextGenerator {
+
+  private static final String CONDITIONS_PACKAGE = ConditionalOnLinux.class.getPackageName();
+
+  public static void main(String[] args) throws ClassNotFoundException {
+    if (args.length < 2) {
+      throw new IllegalArgumentException("Usage: AotContextGenerator <init class> <classes directory> [<sources directory>]");
+    }
+    var classesDirectory = Path.of(args[1]);
+    var sourcesDirectory = args.length > 2
+        ? Path.of(args[2])
+        : classesDirectory.resolveSibling("generated-sources").resolve("contextor-aot");
+    generate(Class.forName(args[0]), classesDirectory, sourcesDirectory);
+  }
+
+  public static Path generate(Class<?> initClazz, Path classesDirectory, Path sourcesDirectory) {
+    var elementDefinitionHolder = new DefaultElementDefinitionHolder();
+    var elementDefinitionReader = new ElementDefinitionReaderFacadeImpl(elementDefinitionHolder);
+    var dependencyResolver = new SimpleDependencyResolver(elementDefinitionHolder);
+    var dependencyCircularChecker = new TarjanDependencyCircularChecker(dependencyResolver);
+
+    ClasspathElementScanner.scanPackages(initClazz).forEach(elementDefinitionReader::addElementDefinition);
+    // checked in name order, so the generated order stays the same between builds
+    var dependencyOrder = dependencyCircularChecker.orderDependenciesFirst(elementDefinitionHolder.getElementDefinitions().stream()
+        .sorted(Comparator.comparing(ElementDefinition::getName))
+        .toList());
+    var orderedDefinitions = dependencyOrder.getDefinitions();
+
+    // the config element of a method defined element comes first, as ContextHolder passes it as the owner
+    Map<String, List<String>> dependencyNames = new LinkedHashMap<>();
+    for (int position = 0; position < orderedDefinitions.size(); position++) {
+      dependencyNames.put(orderedDefinitions.get(position).getName(), Arrays.stream(dependencyOrder.getDependencies()[position])
+          .mapToObj(dependency -> orderedDefinitions.get(dependency).getName())
+          .toList());
+    }
+
+    var initializerName = initClazz.getName() + AotContextInitializer.CLASS_NAME_SUFFIX;
+    var source = new InitializerSource(initClazz.getPackageName(), initializerName).write(orderedDefinitions, dependencyNames);
+
+    var sourceFile = sourcesDirectory.resolve(initializerName.replace('.', '/') + ".java");
+    try {
+      Files.createDirectories(sourceFile.getParent());
+      Files.writeString(sourceFile, source);
+    } catch (IOException e) {
+      throw new ContainerInitException("Failed to write generated initializer " + sourceFile, e);
+    }
+    compile(sourceFile, classesDirectory);
+    log.info("Generated {} with {} element definitions", initializerName, orderedDefinitions.size());
+    return sourceFile;
+  }
+
+  private static void compile(Path sourceFile, Path classesDirectory) {
+    var compiler = ToolProvider.getSystemJavaCompiler();
+    if (compiler == null) {
+      throw new ContainerInitException("AOT generation needs a JDK, no system Java compiler is available");
+    }
+    var classPath = classesDirectory + File.pathSeparator + System.getProperty("java.class.path");
+    int result = compiler.run(null, null, null, "-proc:none", "-nowarn", "-d", classesDirectory.toString(),
+        "-classpath", classPath, sourceFile.toString());
+    if (result != 0) {
+      throw new ContainerInitException("Failed to compile generated initializer " + sourceFile);
+    }
+  }
+
+  private static final class InitializerSource {
+
+    private final String packageName;
+    private final String simpleName;
+    private final StringBuilder source = new StringBuilder();
+
+    private InitializerSource(String packageName, String className) {
+      this.packageName = packageName;
+      this.simpleName = className.substring(className.lastIndexOf('.') + 1);
+    }
+
+    private String write(List<ElementDefinition> orderedDefinitions, Map<String, List<String>> dependencyNames) {
+      if (!packageName.isEmpty()) {
+        source.append("package ").append(packageName).append(";\n\n");
+      }
+      source.append("// Generated by ").append(AotContextGenerator.class.getSimpleName()).append(", do not edit\n")
+          .append("public final class ").append(simpleName).append(" implements ")
+          .append(AotContextInitializer.class.getName()).append(" {\n\n")
+          .append("  @Override\n")
+          .append("  public void registerDefinitions(").append(AotContextRegistry.class.getName()).append(" registry) {\n");
+      for (int index = 0; index < orderedDefinitions.size(); index++) {
+        var elementDefinition = orderedDefinitions.get(index);
+        source.append("    registry.register(").append(index)
+            .append(", ").append(literal(elementDefinition.getName()))
+            .append(", ").append(typeExpression(elementDefinition.getType()))
+            .append(", ").append(literal(elementDefinition.getScope()))
+            .append(", ").append(Boolean.TRUE.equals(elementDefinition.getIsPrimary()))
+            .append(", ").append(isConditionalPrototype(elementDefinition));
+        dependencyNames.get(elementDefinition.getName()).forEach(name -> source.append(", ").append(literal(name)));
+        source.append(");\n");
+      }
+      source.append("  }\n\n")
+          .append("  @Override\n")
+          .append("  @SuppressWarnings({\"unchecked\", \"rawtypes\"})\n")
+          .append("  public Object createElement(int index, Object[] dependencies) throws Exception {\n")
+          .append("    switch (index) {\n");
+      for (int index = 0; index < orderedDefinitions.size(); index++) {
+        source.append("      case ").append(index).append(":\n")
+            .append("        return ").append(creationExpression(orderedDefinitions.get(index))).append(";\n");
+      }
+      source.append("      default:\n")
+          .append("        throw new IllegalArgumentException(\"Unknown element index \" + index);\n")
+          .append("    }\n")
+          .append("  }\n")
+          .append("}\n");
+      return source.toString();
+    }
+
+    private String creationExpression(ElementDefinition elementDefinition) {
+      if (elementDefinition instanceof MethodDefinedElementDefinition methodDefined) {
+        var initMethod = methodDefined.getInitMethod();
+        boolean isStatic = Modifier.isStatic(initMethod.getModifiers());
+        // dependencies[0] is the config element
+        var target = isStatic ? "null" : "dependencies[0]";
+        if (!isAccessible(initMethod)) {
+          return "%s.invoke(%s.class, %s, %s, %s, %s, %s)".formatted(AotContextRegistry.class.getName(), simpleName,
+              literal(initMethod.getDeclaringClass().getName()), literal(initMethod.getName()),
+              typeNames(initMethod), target, argumentsArray(initMethod, 1));
+        }
+        var receiver = isStatic
+            ? initMethod.getDeclaringClass().getCanonicalName()
+            : "((" + initMethod.getDeclaringClass().getCanonicalName() + ") dependencies[0])";
+        return receiver + "." + initMethod.getName() + "(" + arguments(initMethod, 1) + ")";
+      }
+      var initConstructor = elementDefinition.getInitConstructor();
+      if (!isAccessible(initConstructor) || Modifier.isAbstract(initConstructor.getDeclaringClass().getModifiers())) {
+        return "%s.construct(%s.class, %s, %s, %s)".formatted(AotContextRegistry.class.getName(), simpleName,
+            literal(initConstructor.getDeclaringClass().getName()), typeNames(initConstructor),
+            argumentsArray(initConstructor, 0));
+      }
+      return "new " + initConstructor.getDeclaringClass().getCanonicalName() + "(" + arguments(initConstructor, 0) + ")";
+    }
+
+    private String arguments(Executable executable, int offset) {
+      var parameterTypes = executable.getParameterTypes();
+      List<String> arguments = new ArrayList<>();
+      for (int i = 0; i < parameterTypes.length; i++) {
+        arguments.add("(" + parameterTypes[i].getCanonicalName() + ") dependencies[" + (i + offset) + "]");
+      }
+      return String.join(", ", arguments);
+    }
+
+    private String argumentsArray(Executable executable, int offset) {
+      if (offset == 0) {
+        return "dependencies";
+      }
+      return "java.util.Arrays.copyOfRange(dependencies, %d, %d)".formatted(offset, offset + executable.getParameterCount());
+    }
+
+    private String typeNames(Executable executable) {
+      return Arrays.stream(executable.getParameterTypes())
+          .map(type -> literal(type.getName()))
+          .collect(Collectors.joining(", ", "new String[]{", "}"));
+    }
+
+    private String typeExpression(Class<?> type) {
+      if (isAccessible(type)) {
+        return type.getCanonicalName() + ".class";
+      }
+      return "registry.type(" + literal(type.getName()) + ")";
+    }
+
+    // Plain code is generated only for what the generated class may reference from its own package
+    private boolean isAccessible(Executable executable) {
+      int modifiers = executable.getModifiers();
+      if (Modifier.isPrivate(modifiers) || !isAccessible(executable.getDeclaringClass())) {
+        return false;
+      }
+      if (!Modifier.isPublic(modifiers) && !executable.getDeclaringClass().getPackageName().equals(packageName)) {
+        return false;
+      }
+      var returnAccessible = !(executable instanceof Method method) || isAccessible(method.getReturnType());
+      return returnAccessible && Arrays.stream(executable.getParameterTypes()).allMatch(this::isAccessible);
+    }
+
+    private boolean isAccessible(Class<?> type) {
+      if (type.isArray()) {
+        return isAccessible(type.getComponentType());
+      }
+      if (type.isPrimitive()) {
+        return true;
+      }
+      if (type.getCanonicalName() == null) {
+        return false;
+      }
+      for (Class<?> current = type; current != null; current = current.getEnclosingClass()) {
+        int modifiers = current.getModifiers();
+        if (Modifier.isPrivate(modifiers)
+            || !Modifier.isPublic(modifiers) && !current.getPackageName().equals(packageName)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private static boolean isConditionalPrototype(ElementDefinition elementDefinition) {
+      return PROTOTYPE_SCOPE.equals(elementDefinition.getScope())
+          && ReflectionUtils.getAnnotationsFromClassFullCheck(elementDefinition.getType()).stream()
+          .anyMatch(annotation -> annotation.getPackageName().equals(CONDITIONS_PACKAGE));
+    }
+
+    private static String literal(String value) {
+      return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+  }
+}
@@ -0,0 +1,13 @@
+package ua.gorobeos.contextor.context.aot;
+
+// Implemented by the class AotContextGenerator writes next to the init class, named after it with CLASS_NAME_SUFFIX
+public interface AotContextInitializer {
+
+  String CLASS_NAME_SUFFIX = "__ContextorAot";
+
+  // Registers every definition, dependencies before their dependents
+  void registerDefinitions(AotContextRegistry registry);
+
+  Object createElement(int index, Object[] dependencies) throws Exception;
+
+}
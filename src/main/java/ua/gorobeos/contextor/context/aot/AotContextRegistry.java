@@ -0,0 +1,94 @@
+package ua.gorobeos.contextor.context.aot;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import ua.gorobeos.contextor.context.dependencies.checker.DependencyOrder;
+import ua.gorobeos.contextor.context.element.AotElementDefinition;
+import ua.gorobeos.contextor.context.element.ElementDefinition;
+import ua.gorobeos.contextor.context.exceptions.ContainerInitException;
+import ua.gorobeos.contextor.context.storage.ElementDefinitionHolder;
+
+// Target of generated initializers. Types, constructors and methods the generated class can not reach from its package
+// (private, or package-private elsewhere) are resolved reflectively by name through the static helpers instead.
+@RequiredArgsConstructor
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class AotContextRegistry {
+
+  AotContextInitializer initializer;
+  ElementDefinitionHolder elementDefinitionHolder;
+  @Getter
+  List<AotElementDefinition> definitions = new ArrayList<>();
+
+  public void register(int index, String name, Class<?> type, String scope, boolean primary, boolean conditional,
+      String... dependencyNames) {
+    var elementDefinition = AotElementDefinition.builder()
+        .name(name)
+        .isPrimary(primary)
+        .type(type)
+        .scope(scope)
+        .initializer(initializer)
+        .index(index)
+        .dependencyNames(List.of(dependencyNames))
+        .conditional(conditional)
+        .build();
+    elementDefinitionHolder.addElementDefinition(elementDefinition);
+    definitions.add(elementDefinition);
+  }
+
+  // generated initializers register dependencies first, so the registration order is already a creation order
+  public DependencyOrder getDependencyOrder() {
+    Map<String, Integer> positions = new HashMap<>();
+    for (int position = 0; position < definitions.size(); position++) {
+      positions.put(definitions.get(position).getName(), position);
+    }
+    var dependencies = definitions.stream()
+        .map(definition -> definition.getDependencyNames().stream()
+            .map(positions::get)
+            .filter(Objects::nonNull)
+            .mapToInt(Integer::intValue)
+            .toArray())
+        .toArray(int[][]::new);
+    return new DependencyOrder(List.<ElementDefinition>copyOf(definitions), dependencies);
+  }
+
+  public Class<?> type(String className) {
+    try {
+      return type(initializer.getClass(), className);
+    } catch (ClassNotFoundException e) {
+      throw new ContainerInitException("Generated initializer is out of date, class not found: " + className, e);
+    }
+  }
+
+  public static Object construct(Class<?> anchor, String className, String[] parameterTypeNames, Object[] arguments)
+      throws ReflectiveOperationException {
+    var constructor = type(anchor, className).getDeclaredConstructor(types(anchor, parameterTypeNames));
+    constructor.setAccessible(true);
+    return constructor.newInstance(arguments);
+  }
+
+  public static Object invoke(Class<?> anchor, String className, String methodName, String[] parameterTypeNames, Object target,
+      Object[] arguments) throws ReflectiveOperationException {
+    var method = type(anchor, className).getDeclaredMethod(methodName, types(anchor, parameterTypeNames));
+    method.setAccessible(true);
+    return method.invoke(target, arguments);
+  }
+
+  private static Class<?> type(Class<?> anchor, String className) throws ClassNotFoundException {
+    return Class.forName(className, false, anchor.getClassLoader());
+  }
+
+  private static Class<?>[] types(Class<?> anchor, String[] classNames) throws ClassNotFoundException {
+    var types = new Class<?>[classNames.length];
+    for (int i = 0; i < classNames.length; i++) {
+      types[i] = type(anchor, classNames[i]);
+    }
+    return types;
+  }
+}
@@ -0,0 +1,31 @@
+package ua.gorobeos.contextor.context.aot;
+
+import java.util.Optional;
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+import ua.gorobeos.contextor.context.config.ConfigurationReader;
+import ua.gorobeos.contextor.context.exceptions.ContainerInitException;
+
+@Slf4j
+@UtilityClass
+public class AotInitializers {
+
+  public static final String AOT_ENABLED_PROPERTY = "contextor.aot.enabled";
+
+  // The initializer generated for initClazz, if the build step produced one
+  public Optional<AotContextInitializer> find(Class<?> initClazz) {
+    if (!ConfigurationReader.getOrDefault(AOT_ENABLED_PROPERTY, true, Boolean::parseBoolean)) {
+      return Optional.empty();
+    }
+    var className = initClazz.getName() + AotContextInitializer.CLASS_NAME_SUFFIX;
+    try {
+      var initializerClass = Class.forName(className, true, initClazz.getClassLoader());
+      log.debug("Found generated initializer {}", className);
+      return Optional.of((AotContextInitializer) initializerClass.getDeclaredConstructor().newInstance());
+    } catch (ClassNotFoundException e) {
+      return Optional.empty();
+    } catch (ReflectiveOperationException | ClassCastException e) {
+      throw new ContainerInitException("Invalid generated initializer " + className, e);
+    }
+  }
+}
@@ -1,7 +1,10 @@
 package ua.gorobeos.contextor.context.conditions;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import lombok.experimental.FieldDefaults;
 import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
@@ -40,6 +43,19 @@ public class ConditionEvaluationUtils {
     return context;
   }
 
+  // Everything the evaluators read for elementType; empty if some evaluator can not reproduce its result from inputs
+  public static Optional<Map<String, String>> evaluationInputs(Class<?> elementType) {
+    Map<String, String> inputs = new HashMap<>();
+    for (ConditionalEvaluator evaluator : conditionalEvaluator) {
+      var evaluatorInputs = evaluator.evaluationInputs(elementType);
+      if (evaluatorInputs.isEmpty()) {
+        return Optional.empty();
+      }
+      inputs.putAll(evaluatorInputs.get());
+    }
+    return Optional.of(inputs);
+  }
+
   private static ConditionalContext initializeConditionalContext(Class<?> elementClass) {
     return ConditionalContext.builder()
         .elementClass(elementClass)
@@ -1,8 +1,16 @@
 package ua.gorobeos.contextor.context.conditions;
 
+import java.util.Map;
+import java.util.Optional;
 
 public interface ConditionalEvaluator {
 
   ConditionalContext evaluate(ConditionalContext context);
 
+  // What evaluating elementClass reads (properties, system properties, files), so a stored result can be reused while
+  // these stay the same; empty when the result can not be reproduced from such values, e.g. a web request
+  default Optional<Map<String, String>> evaluationInputs(Class<?> elementClass) {
+    return Optional.of(Map.of());
+  }
+
 }
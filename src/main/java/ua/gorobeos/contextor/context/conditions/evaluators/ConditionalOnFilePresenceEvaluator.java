@@ -5,6 +5,9 @@ import static ua.gorobeos.contextor.context.utils.ReflectionUtils.isAnnotationPr
 
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
 import lombok.extern.slf4j.Slf4j;
 import ua.gorobeos.contextor.context.annotations.conditions.ConditionalOnFilePresence;
 import ua.gorobeos.contextor.context.conditions.ConditionalContext;
@@ -13,6 +16,19 @@ import ua.gorobeos.contextor.context.conditions.ConditionalEvaluator;
 @Slf4j
 public class ConditionalOnFilePresenceEvaluator implements ConditionalEvaluator {
 
+  @Override
+  public Optional<Map<String, String>> evaluationInputs(Class<?> elementClass) {
+    if (!isAnnotationPresentFullCheck(elementClass, ConditionalOnFilePresence.class)) {
+      return Optional.of(Map.of());
+    }
+    Map<String, String> inputs = new HashMap<>();
+    for (String filePath : getValueFromAnnotation(elementClass, ConditionalOnFilePresence.class, "filePaths", String[].class)
+        .orElseGet(() -> new String[0])) {
+      inputs.put("file:" + filePath, String.valueOf(isPresent(filePath)));
+    }
+    return Optional.of(inputs);
+  }
+
   @Override
   public ConditionalContext evaluate(ConditionalContext context) {
     // Беремо клас елемента з контексту
@@ -30,8 +46,7 @@ public class ConditionalOnFilePresenceEvaluator implements ConditionalEvaluator
 
     // Перевіряємо кожен шлях до файлу
     for (String filePath : filePaths) {
-      var res = getClass().getClassLoader().getResource(filePath);
-      if (res == null && !Files.exists(Path.of(filePath))) {
+      if (!isPresent(filePath)) {
         log.warn("File {} does not exist, {} evaluation failed", filePath, ConditionalOnFilePresence.class.getSimpleName());
         context.setConditionalCheckPassed(false);
         context.getConditionalCheckResults().add(
@@ -41,4 +56,8 @@ public class ConditionalOnFilePresenceEvaluator implements ConditionalEvaluator
     }
     return context;
   }
+
+  private boolean isPresent(String filePath) {
+    return getClass().getClassLoader().getResource(filePath) != null || Files.exists(Path.of(filePath));
+  }
 }
@@ -1,5 +1,7 @@
 package ua.gorobeos.contextor.context.conditions.evaluators;
 
+import java.util.Map;
+import java.util.Optional;
 import lombok.extern.slf4j.Slf4j;
 import ua.gorobeos.contextor.context.annotations.conditions.ConditionalOnLinux;
 import ua.gorobeos.contextor.context.conditions.ConditionalContext;
@@ -9,6 +11,14 @@ import ua.gorobeos.contextor.context.utils.ReflectionUtils;
 @Slf4j
 public class ConditionalOnLinuxEvaluator implements ConditionalEvaluator {
 
+  @Override
+  public Optional<Map<String, String>> evaluationInputs(Class<?> elementClass) {
+    if (!ReflectionUtils.isAnnotationPresentFullCheck(elementClass, ConditionalOnLinux.class)) {
+      return Optional.of(Map.of());
+    }
+    return Optional.of(Map.of("system:os.name", System.getProperty("os.name")));
+  }
+
   @Override
   public ConditionalContext evaluate(ConditionalContext context) {
 
@@ -3,6 +3,9 @@ package ua.gorobeos.contextor.context.conditions.evaluators;
 import static ua.gorobeos.contextor.context.utils.ReflectionUtils.getValueFromAnnotation;
 import static ua.gorobeos.contextor.context.utils.ReflectionUtils.isAnnotationPresentFullCheck;
 
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
 import lombok.extern.slf4j.Slf4j;
 import ua.gorobeos.contextor.context.annotations.conditions.ConditionalOnProperty;
 import ua.gorobeos.contextor.context.conditions.ConditionalContext;
@@ -12,6 +15,16 @@ import ua.gorobeos.contextor.context.config.ConfigurationReader;
 @Slf4j
 public class ConditionalOnPropertyEvaluator implements ConditionalEvaluator {
 
+  @Override
+  public Optional<Map<String, String>> evaluationInputs(Class<?> elementClass) {
+    if (!isAnnotationPresentFullCheck(elementClass, ConditionalOnProperty.class)) {
+      return Optional.of(Map.of());
+    }
+    var name = getValueFromAnnotation(elementClass, ConditionalOnProperty.class, "name", String.class).orElseThrow();
+    // an unset property is kept as a null value
+    return Optional.of(Collections.singletonMap("property:" + name, ConfigurationReader.getOrDefault(name, null)));
+  }
+
   @Override
   public ConditionalContext evaluate(ConditionalContext context) {
     Class<?> element = context.getElementClass();
@@ -5,6 +5,8 @@ import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.Optional;
 import lombok.extern.slf4j.Slf4j;
 import ua.gorobeos.contextor.context.annotations.conditions.ConditionalOnWebRequest;
 import ua.gorobeos.contextor.context.annotations.conditions.ConditionalOnWebRequest.HttpMethod;
@@ -21,6 +23,15 @@ public class ConditionalOnWebRequestEvaluator implements ConditionalEvaluator {
     this.httpClient = HttpClient.newHttpClient();
   }
 
+  // the answer of the remote endpoint can change at any time
+  @Override
+  public Optional<Map<String, String>> evaluationInputs(Class<?> elementClass) {
+    if (ReflectionUtils.isAnnotationPresentFullCheck(elementClass, ConditionalOnWebRequest.class)) {
+      return Optional.empty();
+    }
+    return Optional.of(Map.of());
+  }
+
   @Override
   public ConditionalContext evaluate(ConditionalContext context) {
     if (!ReflectionUtils.isAnnotationPresentFullCheck(
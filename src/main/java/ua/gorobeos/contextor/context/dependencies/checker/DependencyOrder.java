@@ -0,0 +1,15 @@
+package ua.gorobeos.contextor.context.dependencies.checker;
+
+import java.util.List;
+import lombok.Value;
+import ua.gorobeos.contextor.context.element.ElementDefinition;
+
+// Definitions with every one after all of its dependencies; dependencies[i] holds the positions of the
+// definitions the i-th one depends on, which are all lower than i
+@Value
+public class DependencyOrder {
+
+  List<ElementDefinition> definitions;
+  int[][] dependencies;
+
+}
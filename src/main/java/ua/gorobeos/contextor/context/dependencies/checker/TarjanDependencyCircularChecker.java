@@ -0,0 +1,189 @@
+package ua.gorobeos.contextor.context.dependencies.checker;
+
+import ch.qos.logback.core.util.StringUtil;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import ua.gorobeos.contextor.context.dependencies.DependencyDefinition;
+import ua.gorobeos.contextor.context.dependencies.DependencyResolver;
+import ua.gorobeos.contextor.context.element.ElementDefinition;
+import ua.gorobeos.contextor.context.element.MethodDefinedElementDefinition;
+import ua.gorobeos.contextor.context.exceptions.CircularDependencyException;
+
+// Strongly connected components of everything reachable from the checked definitions, found with an iterative
+// Tarjan walk: every dependency is resolved once, and any component of more than one element, or an element
+// depending on itself, is a cycle. Components complete dependencies first, which gives the creation order for free.
+@Slf4j
+@RequiredArgsConstructor
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class TarjanDependencyCircularChecker implements DependencyCircularChecker {
+
+  DependencyResolver dependencyResolver;
+
+  @Override
+  public void checkForCircularDependencies(ElementDefinition elementDefinition) {
+    checkForCircularDependencies(List.of(elementDefinition));
+  }
+
+  // returns the checked definitions and everything they depend on, each after all of its dependencies
+  public List<ElementDefinition> checkForCircularDependencies(Collection<ElementDefinition> elementDefinitions) {
+    return orderDependenciesFirst(elementDefinitions).getDefinitions();
+  }
+
+  public DependencyOrder orderDependenciesFirst(Collection<ElementDefinition> elementDefinitions) {
+    log.debug("Checking for circular dependencies for {} elements", elementDefinitions.size());
+    var graph = new DependencyGraph();
+    elementDefinitions.forEach(graph::idOf);
+    for (int id = 0; id < graph.definitions.size(); id++) {
+      graph.edges.add(dependenciesOf(graph.definitions.get(id)).stream().mapToInt(graph::idOf).toArray());
+    }
+    return graph.sortDependenciesFirst();
+  }
+
+  private List<ElementDefinition> dependenciesOf(ElementDefinition elementDefinition) {
+    List<ElementDefinition> dependencies = new ArrayList<>();
+    if (elementDefinition instanceof MethodDefinedElementDefinition methodDefined) {
+      // the config element is created before any of its methods is invoked
+      var configClass = methodDefined.getConfigClass();
+      dependencies.add(dependencyResolver.retrieveDependency(DependencyDefinition.builder()
+          .name(StringUtil.lowercaseFirstLetter(configClass.getSimpleName()))
+          .clazz(configClass)
+          .build()));
+    }
+    elementDefinition.getDependencies()
+        .stream()
+        .map(dependencyResolver::retrieveDependency)
+        .forEach(dependencies::add);
+    return dependencies;
+  }
+
+  private static final class DependencyGraph {
+
+    final Map<String, Integer> ids = new HashMap<>();
+    final List<ElementDefinition> definitions = new ArrayList<>();
+    final List<int[]> edges = new ArrayList<>();
+
+    int idOf(ElementDefinition elementDefinition) {
+      return ids.computeIfAbsent(elementDefinition.getName(), name -> {
+        definitions.add(elementDefinition);
+        return definitions.size() - 1;
+      });
+    }
+
+    DependencyOrder sortDependenciesFirst() {
+      int size = definitions.size();
+      // visit order starting from 1, so 0 marks an element not reached yet
+      int[] index = new int[size];
+      int[] lowLink = new int[size];
+      int[] nextEdge = new int[size];
+      int[] component = new int[size];
+      boolean[] onStack = new boolean[size];
+      int[] stack = new int[size];
+      int[] path = new int[size];
+      int[] position = new int[size];
+      int visited = 0;
+      int stackSize = 0;
+      int components = 0;
+      List<ElementDefinition> ordered = new ArrayList<>(size);
+      List<String> cycles = new ArrayList<>();
+
+      for (int root = 0; root < size; root++) {
+        if (index[root] != 0) {
+          continue;
+        }
+        int depth = 0;
+        index[root] = lowLink[root] = ++visited;
+        stack[stackSize++] = root;
+        onStack[root] = true;
+        path[depth++] = root;
+        while (depth > 0) {
+          int current = path[depth - 1];
+          int[] dependencies = edges.get(current);
+          if (nextEdge[current] < dependencies.length) {
+            int dependency = dependencies[nextEdge[current]++];
+            if (index[dependency] == 0) {
+              index[dependency] = lowLink[dependency] = ++visited;
+              stack[stackSize++] = dependency;
+              onStack[dependency] = true;
+              path[depth++] = dependency;
+            } else if (onStack[dependency]) {
+              lowLink[current] = Math.min(lowLink[current], index[dependency]);
+            }
+            continue;
+          }
+          depth--;
+          if (depth > 0) {
+            int dependent = path[depth - 1];
+            lowLink[dependent] = Math.min(lowLink[dependent], lowLink[current]);
+          }
+          if (lowLink[current] != index[current]) {
+            continue;
+          }
+          components++;
+          int member;
+          int componentSize = 0;
+          do {
+            member = stack[--stackSize];
+            onStack[member] = false;
+            component[member] = components;
+            position[member] = ordered.size();
+            ordered.add(definitions.get(member));
+            componentSize++;
+          } while (member != current);
+          if (componentSize > 1 || Arrays.stream(dependencies).anyMatch(dependency -> dependency == current)) {
+            cycles.add(cyclePath(current, component));
+          }
+        }
+      }
+
+      if (!cycles.isEmpty()) {
+        log.error("Circular dependencies detected: {}", cycles);
+        throw new CircularDependencyException("Circular dependencies detected: %s".formatted(String.join(", ", cycles)));
+      }
+      int[][] orderedDependencies = new int[size][];
+      for (int id = 0; id < size; id++) {
+        orderedDependencies[position[id]] = Arrays.stream(edges.get(id)).map(dependency -> position[dependency]).toArray();
+      }
+      return new DependencyOrder(ordered, orderedDependencies);
+    }
+
+    // shortest way from the element back to itself within its component, e.g. 'a' -> 'b' -> 'a'
+    private String cyclePath(int start, int[] component) {
+      Map<Integer, Integer> previous = new HashMap<>();
+      var pending = new ArrayDeque<Integer>();
+      pending.add(start);
+      int last = start;
+      search:
+      while (!pending.isEmpty()) {
+        int current = pending.poll();
+        for (int dependency : edges.get(current)) {
+          if (dependency == start) {
+            last = current;
+            break search;
+          }
+          if (component[dependency] == component[start] && previous.putIfAbsent(dependency, current) == null) {
+            pending.add(dependency);
+          }
+        }
+      }
+      var cycle = new ArrayDeque<Integer>();
+      cycle.push(start);
+      for (int member = last; member != start; member = previous.get(member)) {
+        cycle.push(member);
+      }
+      cycle.push(start);
+      return cycle.stream()
+          .map(member -> "'" + definitions.get(member).getName() + "'")
+          .collect(Collectors.joining(" -> "));
+    }
+  }
+}
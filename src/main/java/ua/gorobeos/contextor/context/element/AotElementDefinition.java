@@ -0,0 +1,29 @@
+package ua.gorobeos.contextor.context.element;
+
+import java.util.List;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+import ua.gorobeos.contextor.context.aot.AotContextInitializer;
+
+// Registered by a generated AOT initializer: dependencies are already resolved to element names and the instance is
+// created by the initializer with a plain constructor or method call
+@Getter
+@ToString(exclude = "initializer")
+public class AotElementDefinition extends ElementDefinition {
+
+  private final AotContextInitializer initializer;
+  private final int index;
+  private final List<String> dependencyNames;
+  private final boolean conditional;
+
+  @Builder
+  public AotElementDefinition(String name, Boolean isPrimary, Class<?> type, String scope, AotContextInitializer initializer,
+      int index, List<String> dependencyNames, boolean conditional) {
+    super(name, isPrimary, type, null, scope, List.of());
+    this.initializer = initializer;
+    this.index = index;
+    this.dependencyNames = dependencyNames;
+    this.conditional = conditional;
+  }
+}
@@ -5,12 +5,14 @@ import java.util.Collection;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 import ua.gorobeos.contextor.context.dependencies.DependencyDefinition;
 
 @NoArgsConstructor
 public class ConfigElementDefinition extends ElementDefinition {
 
   @Getter
+  @Setter
   private Collection<ElementDefinition> methodDefinedElements;
 
   @Builder
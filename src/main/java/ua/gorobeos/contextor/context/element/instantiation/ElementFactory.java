@@ -0,0 +1,8 @@
+package ua.gorobeos.contextor.context.element.instantiation;
+
+@FunctionalInterface
+interface ElementFactory {
+
+  Object create(Object target, Object[] arguments) throws Throwable;
+
+}
@@ -0,0 +1,10 @@
+package ua.gorobeos.contextor.context.element.instantiation;
+
+import ua.gorobeos.contextor.context.element.ElementDefinition;
+
+public interface ElementInstantiator {
+
+  // target is the config element of a method defined element, null for constructor defined ones
+  Object instantiate(ElementDefinition elementDefinition, Object target, Object[] arguments);
+
+}
@@ -0,0 +1,66 @@
+package ua.gorobeos.contextor.context.element.instantiation;
+
+// Functional interfaces implemented by LambdaMetafactory-generated factories, one per arity; receivers of init methods
+// count as the first parameter. Public, since generated classes are defined next to the element classes.
+public final class FactoryInterfaces {
+
+  static final int MAX_ARITY = 6;
+
+  private FactoryInterfaces() {
+  }
+
+  static Class<?> forArity(int arity) {
+    return switch (arity) {
+      case 0 -> Factory0.class;
+      case 1 -> Factory1.class;
+      case 2 -> Factory2.class;
+      case 3 -> Factory3.class;
+      case 4 -> Factory4.class;
+      case 5 -> Factory5.class;
+      case 6 -> Factory6.class;
+      default -> throw new IllegalArgumentException("No factory interface for arity " + arity);
+    };
+  }
+
+  @FunctionalInterface
+  public interface Factory0 {
+
+    Object create();
+  }
+
+  @FunctionalInterface
+  public interface Factory1 {
+
+    Object create(Object a);
+  }
+
+  @FunctionalInterface
+  public interface Factory2 {
+
+    Object create(Object a, Object b);
+  }
+
+  @FunctionalInterface
+  public interface Factory3 {
+
+    Object create(Object a, Object b, Object c);
+  }
+
+  @FunctionalInterface
+  public interface Factory4 {
+
+    Object create(Object a, Object b, Object c, Object d);
+  }
+
+  @FunctionalInterface
+  public interface Factory5 {
+
+    Object create(Object a, Object b, Object c, Object d, Object e);
+  }
+
+  @FunctionalInterface
+  public interface Factory6 {
+
+    Object create(Object a, Object b, Object c, Object d, Object e, Object f);
+  }
+}
@@ -0,0 +1,26 @@
+package ua.gorobeos.contextor.context.element.instantiation;
+
+import java.util.Locale;
+import ua.gorobeos.contextor.context.config.ConfigurationReader;
+
+public enum InstantiationStrategy {
+  // Constructor.newInstance and Method.invoke; on JDK 17 inflated reflection is as fast as a generated factory and
+  // needs no class spinning for elements created once
+  REFLECTION,
+  // LambdaMetafactory factory per init constructor or method, reflection where one can not be generated
+  LAMBDA;
+
+  public static final String INSTANTIATION_STRATEGY_PROPERTY = "contextor.instantiation.strategy";
+
+  public static InstantiationStrategy fromProperties() {
+    return ConfigurationReader.getOrDefault(INSTANTIATION_STRATEGY_PROPERTY, REFLECTION,
+        value -> InstantiationStrategy.valueOf(value.trim().toUpperCase(Locale.ROOT)));
+  }
+
+  public ElementInstantiator createInstantiator() {
+    return switch (this) {
+      case REFLECTION -> new ReflectiveElementInstantiator();
+      case LAMBDA -> new LambdaElementInstantiator();
+    };
+  }
+}
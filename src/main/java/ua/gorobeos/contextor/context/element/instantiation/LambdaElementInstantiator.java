@@ -0,0 +1,162 @@
+package ua.gorobeos.contextor.context.element.instantiation;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import ua.gorobeos.contextor.context.element.ElementDefinition;
+import ua.gorobeos.contextor.context.element.MethodDefinedElementDefinition;
+import ua.gorobeos.contextor.context.element.instantiation.FactoryInterfaces.Factory0;
+import ua.gorobeos.contextor.context.element.instantiation.FactoryInterfaces.Factory1;
+import ua.gorobeos.contextor.context.element.instantiation.FactoryInterfaces.Factory2;
+import ua.gorobeos.contextor.context.element.instantiation.FactoryInterfaces.Factory3;
+import ua.gorobeos.contextor.context.element.instantiation.FactoryInterfaces.Factory4;
+import ua.gorobeos.contextor.context.element.instantiation.FactoryInterfaces.Factory5;
+import ua.gorobeos.contextor.context.element.instantiation.FactoryInterfaces.Factory6;
+import ua.gorobeos.contextor.context.exceptions.ElementCreationException;
+
+// Binds every init constructor and init method once into a LambdaMetafactory-generated factory, so creating an element
+// is a plain interface call. Executables that can not be bound (too many parameters, a lookup without full privilege
+// access, e.g. in a named module that does not open its package) are invoked reflectively.
+@Slf4j
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class LambdaElementInstantiator implements ElementInstantiator {
+
+  ElementInstantiator fallback = new ReflectiveElementInstantiator();
+  // keyed by declaring class, so factories go away together with the element classes
+  ClassValue<Map<Executable, Optional<ElementFactory>>> factories = new ClassValue<>() {
+    @Override
+    protected Map<Executable, Optional<ElementFactory>> computeValue(Class<?> declaringClass) {
+      return new ConcurrentHashMap<>();
+    }
+  };
+
+  @Override
+  public Object instantiate(ElementDefinition elementDefinition, Object target, Object[] arguments) {
+    var executable = initExecutable(elementDefinition);
+    var declaredFactories = factories.get(executable.getDeclaringClass());
+    var factory = declaredFactories.get(executable);
+    if (factory == null) {
+      factory = declaredFactories.computeIfAbsent(executable, LambdaElementInstantiator::generateFactory);
+    }
+    if (factory.isEmpty()) {
+      return fallback.instantiate(elementDefinition, target, arguments);
+    }
+    try {
+      return factory.get().create(target, arguments);
+    } catch (Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new ElementCreationException(
+          "Failed to create instance of element '%s' using '%s' with dependencies: %s".formatted(
+              elementDefinition.getName(), executable, arguments), e);
+    }
+  }
+
+  private static Executable initExecutable(ElementDefinition elementDefinition) {
+    if (elementDefinition instanceof MethodDefinedElementDefinition methodDefined) {
+      return methodDefined.getInitMethod();
+    }
+    return elementDefinition.getInitConstructor();
+  }
+
+  private static Optional<ElementFactory> generateFactory(Executable executable) {
+    boolean withReceiver = executable instanceof Method && !Modifier.isStatic(executable.getModifiers());
+    int arity = executable.getParameterCount() + (withReceiver ? 1 : 0);
+    if (arity > FactoryInterfaces.MAX_ARITY) {
+      log.debug("{} takes too many parameters for a generated factory, using reflection", executable);
+      return Optional.empty();
+    }
+    try {
+      var lookup = MethodHandles.privateLookupIn(executable.getDeclaringClass(), MethodHandles.lookup());
+      MethodHandle implementation = executable instanceof Constructor<?> constructor
+          ? lookup.unreflectConstructor(constructor)
+          : lookup.unreflect((Method) executable);
+      var factoryInterface = FactoryInterfaces.forArity(arity);
+      var callSite = LambdaMetafactory.metafactory(lookup, "create", MethodType.methodType(factoryInterface),
+          MethodType.genericMethodType(arity), implementation, implementation.type().wrap());
+      var factory = adapt(callSite.getTarget().invoke(), arity, withReceiver);
+      log.trace("Generated factory for {}", executable);
+      return Optional.of(factory);
+    } catch (Throwable e) {
+      log.debug("Could not generate a factory for {}, using reflection: {}", executable, e.toString());
+      return Optional.empty();
+    }
+  }
+
+  // Spreads the dependencies array into the generated factory, prepending the config element for init methods
+  private static ElementFactory adapt(Object function, int arity, boolean withReceiver) {
+    if (withReceiver) {
+      return switch (arity) {
+        case 1 -> {
+          var factory = (Factory1) function;
+          yield (target, arguments) -> factory.create(target);
+        }
+        case 2 -> {
+          var factory = (Factory2) function;
+          yield (target, arguments) -> factory.create(target, arguments[0]);
+        }
+        case 3 -> {
+          var factory = (Factory3) function;
+          yield (target, arguments) -> factory.create(target, arguments[0], arguments[1]);
+        }
+        case 4 -> {
+          var factory = (Factory4) function;
+          yield (target, arguments) -> factory.create(target, arguments[0], arguments[1], arguments[2]);
+        }
+        case 5 -> {
+          var factory = (Factory5) function;
+          yield (target, arguments) -> factory.create(target, arguments[0], arguments[1], arguments[2], arguments[3]);
+        }
+        case 6 -> {
+          var factory = (Factory6) function;
+          yield (target, arguments) -> factory.create(target, arguments[0], arguments[1], arguments[2], arguments[3],
+              arguments[4]);
+        }
+        default -> throw new IllegalArgumentException("Unsupported factory arity " + arity);
+      };
+    }
+    return switch (arity) {
+      case 0 -> {
+        var factory = (Factory0) function;
+        yield (target, arguments) -> factory.create();
+      }
+      case 1 -> {
+        var factory = (Factory1) function;
+        yield (target, arguments) -> factory.create(arguments[0]);
+      }
+      case 2 -> {
+        var factory = (Factory2) function;
+        yield (target, arguments) -> factory.create(arguments[0], arguments[1]);
+      }
+      case 3 -> {
+        var factory = (Factory3) function;
+        yield (target, arguments) -> factory.create(arguments[0], arguments[1], arguments[2]);
+      }
+      case 4 -> {
+        var factory = (Factory4) function;
+        yield (target, arguments) -> factory.create(arguments[0], arguments[1], arguments[2], arguments[3]);
+      }
+      case 5 -> {
+        var factory = (Factory5) function;
+        yield (target, arguments) -> factory.create(arguments[0], arguments[1], arguments[2], arguments[3], arguments[4]);
+      }
+      case 6 -> {
+        var factory = (Factory6) function;
+        yield (target, arguments) -> factory.create(arguments[0], arguments[1], arguments[2], arguments[3], arguments[4],
+            arguments[5]);
+      }
+      default -> throw new IllegalArgumentException("Unsupported factory arity " + arity);
+    };
+  }
+}
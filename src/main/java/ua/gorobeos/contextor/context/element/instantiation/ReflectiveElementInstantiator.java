@@ -0,0 +1,43 @@
+package ua.gorobeos.contextor.context.element.instantiation;
+
+import java.lang.reflect.InvocationTargetException;
+import lombok.extern.slf4j.Slf4j;
+import ua.gorobeos.contextor.context.element.ElementDefinition;
+import ua.gorobeos.contextor.context.element.MethodDefinedElementDefinition;
+import ua.gorobeos.contextor.context.exceptions.ElementCreationException;
+
+@Slf4j
+public class ReflectiveElementInstantiator implements ElementInstantiator {
+
+  @Override
+  public Object instantiate(ElementDefinition elementDefinition, Object target, Object[] arguments) {
+    if (elementDefinition instanceof MethodDefinedElementDefinition methodDefined) {
+      return invokeInitMethod(methodDefined, target, arguments);
+    }
+    return invokeInitConstructor(elementDefinition, arguments);
+  }
+
+  private static Object invokeInitMethod(MethodDefinedElementDefinition methodDefined, Object configElement,
+      Object[] arguments) {
+    try {
+      log.debug("------Invoking init method '{}' on config element: {}", methodDefined.getInitMethod().getName(), configElement);
+      return methodDefined.getInitMethod().invoke(configElement, arguments);
+    } catch (IllegalAccessException | InvocationTargetException e) {
+      throw new ElementCreationException(
+          "Failed to invoke init method '%s' on config element '%s' with dependencies: %s".formatted(
+              methodDefined.getInitMethod().getName(), configElement, arguments), e);
+    }
+  }
+
+  private static Object invokeInitConstructor(ElementDefinition elementDefinition, Object[] arguments) {
+    var initConstructor = elementDefinition.getInitConstructor();
+    initConstructor.setAccessible(true);
+    try {
+      return initConstructor.newInstance(arguments);
+    } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+      throw new ElementCreationException(
+          "Failed to create instance of element '%s' using constructor '%s' with dependencies: %s".formatted(
+              elementDefinition.getName(), initConstructor, arguments), e);
+    }
+  }
+}
@@ -0,0 +1,12 @@
+package ua.gorobeos.contextor.context.exceptions;
+
+public class ClasspathScanException extends RuntimeException {
+
+  public ClasspathScanException(String message) {
+    super(message);
+  }
+
+  public ClasspathScanException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
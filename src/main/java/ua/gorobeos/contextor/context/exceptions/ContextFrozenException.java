@@ -0,0 +1,8 @@
+package ua.gorobeos.contextor.context.exceptions;
+
+public class ContextFrozenException extends RuntimeException {
+
+  public ContextFrozenException(String message) {
+    super(message);
+  }
+}
@@ -1,11 +1,17 @@
 package ua.gorobeos.contextor.context.readers;
 
 import java.util.Collection;
+import java.util.List;
 import ua.gorobeos.contextor.context.element.ElementDefinition;
 
 public interface ElementDefinitionReaderFacade {
 
   void addElementDefinition(Class<?> clazz);
 
+  // The steps of addElementDefinition, for callers that run them on different threads
+  ElementDefinition readElementDefinition(Class<?> clazz);
+
+  List<ElementDefinition> acceptedDefinitions(ElementDefinition elementDefinition);
+
   Collection<ElementDefinition> getElementDefinitions();
 }
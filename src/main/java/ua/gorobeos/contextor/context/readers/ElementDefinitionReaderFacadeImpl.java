@@ -2,7 +2,9 @@ package ua.gorobeos.contextor.context.readers;
 
 import static ua.gorobeos.contextor.context.element.ElementDefinition.SINGLETON_SCOPE;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
@@ -33,21 +35,32 @@ public class ElementDefinitionReaderFacadeImpl implements ElementDefinitionReade
 
   @Override
   public void addElementDefinition(Class<?> clazz) {
-    ElementDefinitionReader definitionReader = checkWhatReaderToUse(clazz);
+    acceptedDefinitions(readElementDefinition(clazz))
+        .forEach(elementDefinitionHolder::addElementDefinition);
+  }
 
-    var elementDefinition = definitionReader.readElementDefinition(clazz);
+  @Override
+  public ElementDefinition readElementDefinition(Class<?> clazz) {
+    ElementDefinitionReader definitionReader = checkWhatReaderToUse(clazz);
+    return definitionReader.readElementDefinition(clazz);
+  }
 
+  // Definitions to register for a read definition, method defined elements of a config before the config itself
+  @Override
+  public List<ElementDefinition> acceptedDefinitions(ElementDefinition elementDefinition) {
     if (!checkIfElementConditionsArePassingOnlyIfSingleton(elementDefinition)) {
-      return;
+      return List.of();
     }
 
+    List<ElementDefinition> acceptedDefinitions = new ArrayList<>();
     if (elementDefinition instanceof ConfigElementDefinition configDef) {
-        configDef.getMethodDefinedElements()
-            .stream()
-            .filter(this::checkIfElementConditionsArePassingOnlyIfSingleton)
-            .forEach(elementDefinitionHolder::addElementDefinition);
-      }
-    elementDefinitionHolder.addElementDefinition(elementDefinition);
+      configDef.getMethodDefinedElements()
+          .stream()
+          .filter(this::checkIfElementConditionsArePassingOnlyIfSingleton)
+          .forEach(acceptedDefinitions::add);
+    }
+    acceptedDefinitions.add(elementDefinition);
+    return acceptedDefinitions;
   }
 
   private boolean checkIfElementConditionsArePassingOnlyIfSingleton(ElementDefinition elementDefinition) {
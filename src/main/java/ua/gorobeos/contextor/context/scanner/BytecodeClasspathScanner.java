@@ -0,0 +1,63 @@
+package ua.gorobeos.contextor.context.scanner;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import ua.gorobeos.contextor.context.annotations.Element;
+import ua.gorobeos.contextor.context.annotations.Profile;
+import ua.gorobeos.contextor.context.exceptions.ClasspathScanException;
+import ua.gorobeos.contextor.context.scanner.bytecode.ClassMetadataRepository;
+
+@Slf4j
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class BytecodeClasspathScanner implements ClasspathScanner {
+
+  private static final String ELEMENT_ANNOTATION = Element.class.getName();
+  private static final String PROFILE_ANNOTATION = Profile.class.getName();
+
+  Map<ClassLoader, ClassMetadataRepository> repositories = new ConcurrentHashMap<>();
+
+  @Override
+  public Set<ElementCandidate> scan(ClasspathRoot root, ScanRequest request) {
+    var repository = repositories.computeIfAbsent(request.getClassLoader(), ClassMetadataRepository::new);
+    Set<ElementCandidate> candidates = ConcurrentHashMap.newKeySet();
+    var classFilesRead = new AtomicInteger();
+
+    var filter = request.getFilter();
+    ClassFileWalker.walk(root, request.getBasePackages(), filter::acceptsClassName, (className, classFile) -> {
+      classFilesRead.incrementAndGet();
+      try {
+        inspect(repository, classFile, filter).ifPresent(candidate -> {
+          candidates.add(candidate);
+          request.getCandidateListener().accept(candidate);
+        });
+      } catch (ClasspathScanException e) {
+        log.warn("Skipping unreadable class file of '{}' in {}: {}", className, root, e.getMessage());
+      }
+    });
+
+    log.debug("Read {} class files in {}, {} element candidates", classFilesRead.get(), root, candidates.size());
+    return candidates;
+  }
+
+  static Optional<ElementCandidate> inspect(ClassMetadataRepository repository, byte[] classFile, ScanFilter filter) {
+    var metadata = repository.register(classFile);
+    if (metadata.isAnnotation() || !filter.acceptsProfiles(metadata.getAnnotationValues(PROFILE_ANNOTATION, "value"))) {
+      return Optional.empty();
+    }
+    var annotationClosure = repository.getAnnotationClosure(metadata);
+    if (!annotationClosure.contains(ELEMENT_ANNOTATION) || !filter.acceptsAnnotationNames(annotationClosure)) {
+      return Optional.empty();
+    }
+    return Optional.of(ElementCandidate.builder()
+        .className(metadata.getClassName())
+        .annotationNames(Set.copyOf(annotationClosure))
+        .metadataResolved(true)
+        .build());
+  }
+}
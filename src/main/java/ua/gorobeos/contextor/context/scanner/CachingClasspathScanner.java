@@ -0,0 +1,40 @@
+package ua.gorobeos.contextor.context.scanner;
+
+import java.util.Set;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import ua.gorobeos.contextor.context.utils.ScannerUtils;
+
+@Slf4j
+@RequiredArgsConstructor
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class CachingClasspathScanner implements ClasspathScanner {
+
+  ClasspathScanner delegate;
+  ScanCache scanCache;
+
+  @Override
+  public Set<ElementCandidate> scan(ClasspathRoot root, ScanRequest request) {
+    var key = cacheKey(root, request);
+    var fingerprint = RootFingerprints.fingerprint(root, request.getBasePackages());
+
+    var cached = scanCache.read(key, fingerprint);
+    if (cached.isPresent()) {
+      log.debug("Scan cache hit for {}", root);
+      return cached.get();
+    }
+
+    log.debug("Scan cache miss for {}, rescanning", root);
+    var candidates = delegate.scan(root, request);
+    scanCache.write(key, fingerprint, candidates);
+    return candidates;
+  }
+
+  private String cacheKey(ClasspathRoot root, ScanRequest request) {
+    return root.getLocation() + "|" + delegate.getClass().getName() + "|"
+        + String.join(",", ScannerUtils.collapsePackages(request.getBasePackages())) + "|"
+        + request.getFilter().describe();
+  }
+}
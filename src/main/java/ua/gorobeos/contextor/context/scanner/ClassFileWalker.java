@@ -0,0 +1,82 @@
+package ua.gorobeos.contextor.context.scanner;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+import ua.gorobeos.contextor.context.exceptions.ClasspathScanException;
+import ua.gorobeos.contextor.context.utils.ScannerUtils;
+
+// Streams the class files of a classpath root that belong to the requested packages as (class name, bytes)
+@Slf4j
+@UtilityClass
+public class ClassFileWalker {
+
+  private static final String CLASS_EXTENSION = ".class";
+
+  public void walk(ClasspathRoot root, Collection<String> packages, BiConsumer<String, byte[]> classFileConsumer) {
+    walk(root, packages, className -> true, classFileConsumer);
+  }
+
+  // classNameFilter runs before a class file is read, so rejected classes cost only their entry name
+  public void walk(ClasspathRoot root, Collection<String> packages, Predicate<String> classNameFilter,
+      BiConsumer<String, byte[]> classFileConsumer) {
+    log.trace("Walking class files of {} for packages: {}", root, packages);
+    try {
+      if (root.getKind() == ClasspathRoot.Kind.DIRECTORY) {
+        walkDirectory(root.toPath(), packages, classNameFilter, classFileConsumer);
+      } else if (root.isNested()) {
+        MappedJarReader.openNested(root.getContainingFile(), root.getNestedEntryName())
+            .forEachClassFile(packages, classNameFilter, classFileConsumer);
+      } else {
+        MappedJarReader.open(root.toPath()).forEachClassFile(packages, classNameFilter, classFileConsumer);
+      }
+    } catch (IOException | UncheckedIOException e) {
+      throw new ClasspathScanException("Failed to read class files of " + root, e);
+    }
+  }
+
+  public String toClassName(String entryName) {
+    return entryName.substring(0, entryName.length() - CLASS_EXTENSION.length()).replace('/', '.');
+  }
+
+  public boolean isClassEntry(String entryName, Collection<String> packages) {
+    return entryName.endsWith(CLASS_EXTENSION)
+        && !entryName.endsWith("module-info.class")
+        && !entryName.endsWith("package-info.class")
+        && ScannerUtils.isInPackages(toClassName(entryName), packages);
+  }
+
+  private void walkDirectory(Path rootDirectory, Collection<String> packages, Predicate<String> classNameFilter,
+      BiConsumer<String, byte[]> classFileConsumer) throws IOException {
+    for (String packageName : packages) {
+      var packageDirectory = rootDirectory.resolve(ScannerUtils.toResourcePath(packageName));
+      if (!Files.isDirectory(packageDirectory)) {
+        continue;
+      }
+      try (Stream<Path> files = Files.walk(packageDirectory)) {
+        files.filter(Files::isRegularFile)
+            .forEach(file -> {
+              var entryName = rootDirectory.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/");
+              if (isClassEntry(entryName, packages) && classNameFilter.test(toClassName(entryName))) {
+                classFileConsumer.accept(toClassName(entryName), readFile(file));
+              }
+            });
+      }
+    }
+  }
+
+  private byte[] readFile(Path file) {
+    try {
+      return Files.readAllBytes(file);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,106 @@
+package ua.gorobeos.contextor.context.scanner;
+
+import java.lang.reflect.Constructor;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import ua.gorobeos.contextor.context.config.ConfigurationReader;
+
+// Loads and links element candidates on background threads while the scan is still running, so that the definition
+// reader finds classes, their constructors, annotations and constructor parameter types already resolved
+@Slf4j
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class ClassPreloader implements Consumer<ElementCandidate>, AutoCloseable {
+
+  public static final String PRELOAD_PROPERTY = "contextor.scan.preload";
+  public static final String PRELOAD_THREADS_PROPERTY = "contextor.scan.preload.threads";
+
+  ClassLoader classLoader;
+  ExecutorService executor;
+  Set<String> submittedClassNames = ConcurrentHashMap.newKeySet();
+  LongAdder preloadedClasses = new LongAdder();
+
+  public ClassPreloader(ClassLoader classLoader, int threads) {
+    this.classLoader = classLoader;
+    var threadNumber = new AtomicInteger();
+    this.executor = Executors.newFixedThreadPool(threads, task -> {
+      var thread = new Thread(task, "contextor-preload-" + threadNumber.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  public static Optional<ClassPreloader> fromProperties(ClassLoader classLoader) {
+    if (!ConfigurationReader.getOrDefault(PRELOAD_PROPERTY, false, Boolean::parseBoolean)) {
+      return Optional.empty();
+    }
+    // one core stays with the scanning thread
+    int threads = ConfigurationReader.getOrDefault(PRELOAD_THREADS_PROPERTY,
+        Math.max(1, Runtime.getRuntime().availableProcessors() - 1), Integer::parseInt);
+    log.debug("Preloading element candidates on {} background threads", threads);
+    return Optional.of(new ClassPreloader(classLoader, Math.max(1, threads)));
+  }
+
+  // Called from scanning threads, possibly several times for the same candidate
+  @Override
+  public void accept(ElementCandidate candidate) {
+    var className = candidate.getClassName();
+    if (!submittedClassNames.add(className)) {
+      return;
+    }
+    try {
+      executor.execute(() -> preload(className));
+    } catch (RejectedExecutionException e) {
+      log.trace("Preloader is closed, '{}' is left to the definition reader", className);
+    }
+  }
+
+  public long getPreloadedClasses() {
+    return preloadedClasses.sum();
+  }
+
+  // Accepts no more candidates; already submitted ones keep loading while definitions are read
+  @Override
+  public void close() {
+    executor.shutdown();
+    log.debug("Preloader closed after {} candidates", submittedClassNames.size());
+  }
+
+  public boolean awaitTermination(Duration timeout) throws InterruptedException {
+    return executor.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  private void preload(String className) {
+    try {
+      var clazz = Class.forName(className, false, classLoader);
+      for (Constructor<?> constructor : link(clazz)) {
+        for (Class<?> parameterType : constructor.getParameterTypes()) {
+          if (!parameterType.isPrimitive() && !parameterType.isArray()) {
+            link(parameterType);
+          }
+        }
+      }
+      preloadedClasses.increment();
+    } catch (ClassNotFoundException | LinkageError e) {
+      // the definition reader loads the class again and reports the failure
+      log.debug("Could not preload '{}': {}", className, e.toString());
+    }
+  }
+
+  // Reflecting on declared constructors links and verifies the class without initializing it
+  private static Constructor<?>[] link(Class<?> clazz) {
+    clazz.getAnnotations();
+    return clazz.getDeclaredConstructors();
+  }
+}
@@ -3,16 +3,25 @@ package ua.gorobeos.contextor.context.scanner;
 
 import static ua.gorobeos.contextor.context.utils.ReflectionUtils.isAnnotationPresentFullCheck;
 
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
 import ua.gorobeos.contextor.context.annotations.Element;
 import ua.gorobeos.contextor.context.annotations.ElementScan;
+import ua.gorobeos.contextor.context.annotations.Profile;
+import ua.gorobeos.contextor.context.exceptions.ClasspathScanException;
 import ua.gorobeos.contextor.context.exceptions.ContainerInitException;
+import ua.gorobeos.contextor.context.scanner.bytecode.ClassMetadataRepository;
 import ua.gorobeos.contextor.context.utils.ReflectionUtils;
 import ua.gorobeos.contextor.context.utils.ScannerUtils;
 
@@ -25,25 +34,240 @@ public class ClasspathElementScanner {
     log.info("Initializing context... Init class: {}", initClazz.getSimpleName());
     List<String> resolvedPackage = resolvePackages(initClazz);
     log.debug("Resolved packages: {}", resolvedPackage);
+    var scanFilter = resolveScanFilter(initClazz);
 
-    var classesFound = resolvedPackage.stream()
-        .map(ClasspathElementScanner::scanClassesForElements)
-        .flatMap(Set::stream)
-        .collect(Collectors.toSet());
+    var scanMode = ScanMode.fromProperties(initClazz.getModule());
+    log.debug("Using scan mode: {}", scanMode);
+    var classesFound = scanMode == ScanMode.MODULE
+        ? scanModules(initClazz, resolvedPackage, scanFilter)
+        : scanRoots(classpathScanner(scanMode, initClazz.getClassLoader()), resolvedPackage, scanFilter,
+            initClazz.getClassLoader());
 
     log.debug("Classes found in packages: {}", classesFound);
+    scanFilter.logStatistics();
 
     return classesFound;
   }
 
-  private Set<Class<?>> scanClassesForElements(String packageToScan) {
-    return ScannerUtils.scanPackage(packageToScan)
+  // Hands every element class to elementConsumer as soon as it is found, possibly from several scanning threads at once.
+  // Class path scans stream per candidate; module scans hand over their result when they are done
+  public void scanPackages(Class<?> initClazz, Consumer<Class<?>> elementConsumer) {
+    var scanMode = ScanMode.fromProperties(initClazz.getModule());
+    if (scanMode == ScanMode.MODULE) {
+      scanPackages(initClazz).forEach(elementConsumer);
+      return;
+    }
+    List<String> resolvedPackage = resolvePackages(initClazz);
+    var scanFilter = resolveScanFilter(initClazz);
+    log.debug("Streaming scan of packages {} using scan mode: {}", resolvedPackage, scanMode);
+    var classLoader = initClazz.getClassLoader();
+    streamRoots(classpathScanner(scanMode, classLoader), resolvedPackage, scanFilter, classLoader, elementConsumer);
+    scanFilter.logStatistics();
+  }
+
+  // Scans a whole jar, e.g. a plugin, keeping only elements the given class loader defines itself
+  public Collection<Class<?>> scanJar(Path jarPath, ClassLoader classLoader) {
+    var packages = ScannerUtils.collapsePackages(MappedJarReader.open(jarPath).getPackageNames());
+    log.debug("Scanning jar {} with packages: {}", jarPath, packages);
+    if (packages.isEmpty()) {
+      return Set.of();
+    }
+    var request = ScanRequest.builder()
+        .basePackages(packages)
+        .classLoader(classLoader)
+        .filter(ScanFilter.builder()
+            .activeProfiles(ScanFilter.activeProfilesFromProperties())
+            .build())
+        .build();
+
+    return new BytecodeClasspathScanner().scan(ClasspathRoot.of(jarPath), request)
         .stream()
+        .map(ElementCandidate::getClassName)
+        .map(className -> loadClass(className, classLoader))
+        .flatMap(Optional::stream)
+        .filter(clazz -> clazz.getClassLoader() == classLoader)
+        .filter(clazz -> isAnnotationPresentFullCheck(clazz, Element.class))
+        .collect(Collectors.toSet());
+  }
+
+  // Incremental rescan: only the given class files (class name -> bytes) are inspected, e.g. the ones changed on disk
+  public Collection<Class<?>> scanClassFiles(Map<String, byte[]> classFiles, ClassLoader classLoader, ScanFilter scanFilter) {
+    var metadataRepository = new ClassMetadataRepository(classLoader);
+    return classFiles.entrySet().stream()
+        .filter(classFile -> scanFilter.acceptsClassName(classFile.getKey()))
+        .map(classFile -> inspectClassFile(metadataRepository, classFile.getKey(), classFile.getValue(), scanFilter))
+        .flatMap(Optional::stream)
+        .map(candidate -> loadClass(candidate.getClassName(), classLoader))
+        .flatMap(Optional::stream)
         .filter(clazz -> isAnnotationPresentFullCheck(clazz, Element.class))
         .collect(Collectors.toSet());
   }
 
-  private List<String> resolvePackages(Class<?> initClazz) {
+  private Optional<ElementCandidate> inspectClassFile(ClassMetadataRepository metadataRepository, String className,
+      byte[] classFile, ScanFilter scanFilter) {
+    try {
+      return BytecodeClasspathScanner.inspect(metadataRepository, classFile, scanFilter);
+    } catch (ClasspathScanException e) {
+      log.warn("Skipping unreadable class file of '{}': {}", className, e.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  // every class path mode goes through ParallelScanEngine, which scans the roots of the collapsed packages in parallel
+  private ClasspathScanner classpathScanner(ScanMode scanMode, ClassLoader classLoader) {
+    return switch (scanMode) {
+      case REFLECTIONS -> new ReflectionsClasspathScanner();
+      case INDEX -> new IndexedClasspathScanner(classLoader, new ReflectionsClasspathScanner());
+      case BYTECODE -> new BytecodeClasspathScanner();
+      case MODULE -> throw new IllegalArgumentException("Module layers are not scanned per class path root");
+    };
+  }
+
+  private Set<Class<?>> scanRoots(ClasspathScanner scanner, List<String> packages, ScanFilter scanFilter, ClassLoader classLoader) {
+    var isLoadable = loadableCandidates(scanFilter, classLoader);
+
+    var preloader = ClassPreloader.fromProperties(classLoader);
+    var requestBuilder = ScanRequest.builder()
+        .basePackages(packages)
+        .classLoader(classLoader)
+        .filter(scanFilter);
+    preloader.ifPresent(classPreloader -> requestBuilder.candidateListener(candidate -> {
+      if (isLoadable.test(candidate)) {
+        classPreloader.accept(candidate);
+      }
+    }));
+
+    Set<ElementCandidate> candidates;
+    try {
+      candidates = new ParallelScanEngine(withScanCache(scanner)).scan(requestBuilder.build());
+    } finally {
+      preloader.ifPresent(ClassPreloader::close);
+    }
+    // candidates with resolved metadata were already matched against includeAnnotations by the scanner
+    var resolvedCandidates = candidates.stream()
+        .filter(ElementCandidate::isMetadataResolved)
+        .map(ElementCandidate::getClassName)
+        .collect(Collectors.toSet());
+
+    return candidates.stream()
+        .filter(isLoadable)
+        .map(ElementCandidate::getClassName)
+        .distinct()
+        .map(className -> loadClass(className, classLoader))
+        .flatMap(Optional::stream)
+        .filter(clazz -> isAnnotationPresentFullCheck(clazz, Element.class))
+        .filter(clazz -> resolvedCandidates.contains(clazz.getName()) || scanFilter.acceptsClass(clazz))
+        .collect(Collectors.toSet());
+  }
+
+  // Loads candidates on the scanning threads as soon as they are found; a class is handed over once, even when several
+  // roots or a cache report it again. The scanning thread loads the class itself, so the preloader only links it and
+  // its constructor parameter types in the background
+  private void streamRoots(ClasspathScanner scanner, List<String> packages, ScanFilter scanFilter, ClassLoader classLoader,
+      Consumer<Class<?>> elementConsumer) {
+    var isLoadable = loadableCandidates(scanFilter, classLoader);
+    var preloader = ClassPreloader.fromProperties(classLoader);
+    Set<String> emittedClassNames = ConcurrentHashMap.newKeySet();
+    var request = ScanRequest.builder()
+        .basePackages(packages)
+        .classLoader(classLoader)
+        .filter(scanFilter)
+        .candidateListener(candidate -> {
+          if (emittedClassNames.contains(candidate.getClassName()) || !isLoadable.test(candidate)) {
+            return;
+          }
+          loadClass(candidate.getClassName(), classLoader)
+              .filter(clazz -> isAnnotationPresentFullCheck(clazz, Element.class))
+              .filter(clazz -> candidate.isMetadataResolved() || scanFilter.acceptsClass(clazz))
+              .filter(clazz -> emittedClassNames.add(clazz.getName()))
+              .ifPresent(clazz -> {
+                preloader.ifPresent(classPreloader -> classPreloader.accept(candidate));
+                elementConsumer.accept(clazz);
+              });
+        })
+        .build();
+    try {
+      new ParallelScanEngine(withScanCache(scanner)).scan(request);
+    } finally {
+      preloader.ifPresent(ClassPreloader::close);
+    }
+  }
+
+  private ClasspathScanner withScanCache(ClasspathScanner scanner) {
+    return ScanCache.fromProperties()
+        .<ClasspathScanner>map(scanCache -> new CachingClasspathScanner(scanner, scanCache))
+        .orElse(scanner);
+  }
+
+  private Predicate<ElementCandidate> loadableCandidates(ScanFilter scanFilter, ClassLoader classLoader) {
+    var metadataRepository = new ClassMetadataRepository(classLoader);
+    Map<String, Boolean> profileDecisions = new ConcurrentHashMap<>();
+    // decided once per class, since both the preloader and the loading below ask
+    return candidate -> candidate.isMetadataResolved()
+        || profileDecisions.computeIfAbsent(candidate.getClassName(),
+        className -> acceptsProfileBeforeLoading(candidate, metadataRepository, scanFilter));
+  }
+
+  // Candidates found without class file metadata (element index, Reflections) get @Profile checked from bytes, not by loading
+  private boolean acceptsProfileBeforeLoading(ElementCandidate candidate, ClassMetadataRepository metadataRepository,
+      ScanFilter scanFilter) {
+    if (!scanFilter.isProfileAware()) {
+      return true;
+    }
+    return metadataRepository.getMetadata(candidate.getClassName())
+        .map(metadata -> scanFilter.acceptsProfiles(metadata.getAnnotationValues(Profile.class.getName(), "value")))
+        .orElse(true);
+  }
+
+  private Set<Class<?>> scanModules(Class<?> initClazz, List<String> packages, ScanFilter scanFilter) {
+    var initModule = initClazz.getModule();
+    if (!initModule.isNamed() || initModule.getLayer() == null) {
+      log.warn("Init class {} is not in a named module layer, falling back to bytecode scan of the class path",
+          initClazz.getName());
+      return scanRoots(new BytecodeClasspathScanner(), packages, scanFilter, initClazz.getClassLoader());
+    }
+    var moduleScanner = new ModuleLayerScanner(initModule.getLayer());
+    var request = ScanRequest.builder()
+        .basePackages(packages)
+        .classLoader(initClazz.getClassLoader())
+        .filter(scanFilter)
+        .build();
+
+    return moduleScanner.scan(request)
+        .stream()
+        .map(ElementCandidate::getClassName)
+        .map(className -> moduleScanner.loadClass(className).or(() -> {
+          log.warn("Could not load scanned class '{}' from its module, skipping it", className);
+          return Optional.empty();
+        }))
+        .flatMap(Optional::stream)
+        .filter(clazz -> isAnnotationPresentFullCheck(clazz, Element.class))
+        .collect(Collectors.toSet());
+  }
+
+  private Optional<Class<?>> loadClass(String className, ClassLoader classLoader) {
+    try {
+      return Optional.of(Class.forName(className, false, classLoader));
+    } catch (ClassNotFoundException | LinkageError e) {
+      log.warn("Could not load scanned class '{}', skipping it: {}", className, e.toString());
+      return Optional.empty();
+    }
+  }
+
+  public ScanFilter resolveScanFilter(Class<?> initClazz) {
+    var scanFilterBuilder = ScanFilter.builder()
+        .activeProfiles(ScanFilter.activeProfilesFromProperties());
+    ReflectionUtils.getSingleAnnotationFromClass(initClazz, ElementScan.class)
+        .ifPresent(annotation -> scanFilterBuilder
+            .excludePackages(Arrays.asList(annotation.excludePackages()))
+            .excludeClassNamePatterns(Arrays.asList(annotation.excludeClassNamePatterns()))
+            .includeAnnotations(Arrays.asList(annotation.includeAnnotations())));
+    var scanFilter = scanFilterBuilder.build();
+    log.debug("Resolved scan filter: {}", scanFilter.describe());
+    return scanFilter;
+  }
+
+  public List<String> resolvePackages(Class<?> initClazz) {
     log.debug("Resolving packages for class: {}", initClazz.getName());
     var elementScanAnnotation = ReflectionUtils.getValueFromAnnotation(initClazz, ElementScan.class, "basePackages", String[].class)
         .orElseThrow(() -> new ContainerInitException("ElementScan annotation not found on class: " + initClazz.getName()));
@@ -0,0 +1,103 @@
+package ua.gorobeos.contextor.context.scanner;
+
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import lombok.experimental.FieldDefaults;
+import ua.gorobeos.contextor.context.exceptions.ClasspathScanException;
+
+@Getter
+@ToString
+@EqualsAndHashCode
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class ClasspathRoot {
+
+  private static final String JAR_SEPARATOR = "!/";
+
+  public enum Kind {
+    DIRECTORY, JAR
+  }
+
+  // file:/app/classes/ for directories, file:/app/lib.jar for jars, file:/app.jar!/BOOT-INF/lib/lib.jar for nested jars
+  URI location;
+  Kind kind;
+
+  public static ClasspathRoot of(Path path) {
+    var absolutePath = path.toAbsolutePath().normalize();
+    try {
+      // URL external form (file:/dir/) matches the locations reported by class loaders, unlike Path.toUri (file:///dir/)
+      var location = URI.create(absolutePath.toUri().toURL().toExternalForm());
+      return new ClasspathRoot(location, Files.isDirectory(absolutePath) ? Kind.DIRECTORY : Kind.JAR);
+    } catch (MalformedURLException e) {
+      throw new ClasspathScanException("Invalid classpath root path: " + path, e);
+    }
+  }
+
+  public static Optional<ClasspathRoot> fromResource(URL resource, String resourceName) {
+    var externalForm = stripTrailingSlash(resource.toExternalForm());
+    var name = stripTrailingSlash(resourceName);
+    if (!externalForm.endsWith(name)) {
+      return Optional.empty();
+    }
+    var rootForm = externalForm.substring(0, externalForm.length() - name.length());
+
+    if ("file".equals(resource.getProtocol())) {
+      return Optional.of(new ClasspathRoot(URI.create(rootForm), Kind.DIRECTORY));
+    }
+    if ("jar".equals(resource.getProtocol()) && rootForm.endsWith(JAR_SEPARATOR)) {
+      var jarLocation = rootForm.substring("jar:".length(), rootForm.length() - JAR_SEPARATOR.length());
+      return Optional.of(new ClasspathRoot(URI.create(jarLocation), Kind.JAR));
+    }
+    return Optional.empty();
+  }
+
+  public boolean isNested() {
+    return location.toString().contains(JAR_SEPARATOR);
+  }
+
+  public Path toPath() {
+    if (isNested()) {
+      throw new ClasspathScanException("Nested jar root has no file system path: " + location);
+    }
+    return Path.of(location);
+  }
+
+  // The file on disk holding this root: the directory, the jar or the outer jar of a nested jar
+  public Path getContainingFile() {
+    var locationValue = location.toString();
+    return isNested()
+        ? Path.of(URI.create(locationValue.substring(0, locationValue.indexOf(JAR_SEPARATOR))))
+        : Path.of(location);
+  }
+
+  public String getNestedEntryName() {
+    if (!isNested()) {
+      throw new ClasspathScanException("Classpath root is not a nested jar: " + location);
+    }
+    var locationValue = location.toString();
+    return locationValue.substring(locationValue.indexOf(JAR_SEPARATOR) + JAR_SEPARATOR.length());
+  }
+
+  public URL toUrl() {
+    try {
+      return isNested()
+          ? new URL("jar:" + location + JAR_SEPARATOR)
+          : location.toURL();
+    } catch (MalformedURLException e) {
+      throw new ClasspathScanException("Invalid classpath root location: " + location, e);
+    }
+  }
+
+  private static String stripTrailingSlash(String value) {
+    return value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
+  }
+}
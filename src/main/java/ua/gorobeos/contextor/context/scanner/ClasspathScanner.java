@@ -1,5 +1,10 @@
 package ua.gorobeos.contextor.context.scanner;
 
+import java.util.Set;
+
 public interface ClasspathScanner {
 
+  // Returns candidate classes located in the root under any of the requested base packages
+  Set<ElementCandidate> scan(ClasspathRoot root, ScanRequest request);
+
 }
@@ -0,0 +1,23 @@
+package ua.gorobeos.contextor.context.scanner;
+
+import java.util.Set;
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class ElementCandidate {
+
+  String className;
+  // Annotation closure (direct, inherited and meta-annotations) read from the class file
+  @Builder.Default
+  Set<String> annotationNames = Set.of();
+  // false when the scanner only knows the class name (Reflections, element index)
+  boolean metadataResolved;
+
+  public static ElementCandidate ofName(String className) {
+    return ElementCandidate.builder()
+        .className(className)
+        .build();
+  }
+}
@@ -0,0 +1,77 @@
+package ua.gorobeos.contextor.context.scanner;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import ua.gorobeos.contextor.context.exceptions.ClasspathScanException;
+import ua.gorobeos.contextor.context.utils.ScannerUtils;
+
+@Slf4j
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class IndexedClasspathScanner implements ClasspathScanner {
+
+  public static final String INDEX_LOCATION = "META-INF/contextor/elements.idx";
+
+  Map<ClasspathRoot, Set<String>> indexedRoots;
+  ClasspathScanner fallbackScanner;
+
+  public IndexedClasspathScanner(ClassLoader classLoader, ClasspathScanner fallbackScanner) {
+    this.indexedRoots = readIndexes(classLoader);
+    this.fallbackScanner = fallbackScanner;
+  }
+
+  @Override
+  public Set<ElementCandidate> scan(ClasspathRoot root, ScanRequest request) {
+    var index = indexedRoots.get(root);
+    if (index == null) {
+      log.debug("No element index found in {}, falling back to {}", root, fallbackScanner.getClass().getSimpleName());
+      return fallbackScanner.scan(root, request);
+    }
+    log.debug("Using element index of {}", root);
+    return index.stream()
+        .filter(className -> ScannerUtils.isInPackages(className, request.getBasePackages()))
+        .filter(request.getFilter()::acceptsClassName)
+        .map(ElementCandidate::ofName)
+        .collect(Collectors.toSet());
+  }
+
+  public boolean isIndexed(ClasspathRoot root) {
+    return indexedRoots.containsKey(root);
+  }
+
+  private static Map<ClasspathRoot, Set<String>> readIndexes(ClassLoader classLoader) {
+    Map<ClasspathRoot, Set<String>> indexes = new HashMap<>();
+    try {
+      for (URL indexUrl : Collections.list(classLoader.getResources(INDEX_LOCATION))) {
+        ClasspathRoot.fromResource(indexUrl, INDEX_LOCATION)
+            .ifPresentOrElse(root -> indexes.put(root, readIndex(indexUrl)),
+                () -> log.warn("Unsupported element index location: {}", indexUrl));
+      }
+    } catch (IOException e) {
+      throw new ClasspathScanException("Failed to look up element indexes", e);
+    }
+    log.info("Found {} element indexes on the classpath", indexes.size());
+    return indexes;
+  }
+
+  private static Set<String> readIndex(URL indexUrl) {
+    try (var reader = new BufferedReader(new InputStreamReader(indexUrl.openStream(), StandardCharsets.UTF_8))) {
+      return reader.lines()
+          .map(String::trim)
+          .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+          .collect(Collectors.toUnmodifiableSet());
+    } catch (IOException e) {
+      throw new ClasspathScanException("Failed to read element index: " + indexUrl, e);
+    }
+  }
+}
@@ -0,0 +1,299 @@
+package ua.gorobeos.contextor.context.scanner;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import ua.gorobeos.contextor.context.exceptions.ClasspathScanException;
+import ua.gorobeos.contextor.context.utils.ScannerUtils;
+
+// Reads class files of a jar straight from its memory-mapped central directory (APPNOTE.TXT §4.3).
+// Entry names are matched as bytes in the mapping, so only entries of the requested packages are decoded and inflated.
+@Slf4j
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class MappedJarReader {
+
+  private static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+  private static final int ZIP64_END_OF_CENTRAL_DIRECTORY_LOCATOR_SIGNATURE = 0x07064b50;
+  private static final int ZIP64_END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06064b50;
+  private static final int CENTRAL_DIRECTORY_HEADER_SIGNATURE = 0x02014b50;
+  private static final int LOCAL_FILE_HEADER_SIGNATURE = 0x04034b50;
+
+  private static final int END_OF_CENTRAL_DIRECTORY_SIZE = 22;
+  private static final int ZIP64_LOCATOR_SIZE = 20;
+  private static final int MAX_COMMENT_SIZE = 0xFFFF;
+  private static final int CENTRAL_DIRECTORY_HEADER_SIZE = 46;
+  private static final int LOCAL_FILE_HEADER_SIZE = 30;
+  private static final int ZIP64_EXTRA_FIELD_ID = 0x0001;
+  private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+
+  private static final int STORED = 0;
+  private static final int DEFLATED = 8;
+
+  private static final byte[] CLASS_SUFFIX = bytes(".class");
+  private static final byte[] PACKAGE_INFO_SUFFIX = bytes("/package-info.class");
+
+  String name;
+  ByteBuffer jar;
+  int centralDirectoryOffset;
+  int entriesCount;
+
+  public static MappedJarReader open(Path jarPath) {
+    try (var channel = FileChannel.open(jarPath, StandardOpenOption.READ)) {
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new ClasspathScanException("Jar is too large to be mapped: " + jarPath);
+      }
+      // the mapping stays valid after the channel is closed and is released with the buffer
+      var mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      return of(jarPath.toString(), mapping);
+    } catch (IOException e) {
+      throw new ClasspathScanException("Failed to map jar: " + jarPath, e);
+    }
+  }
+
+  // Nested jars are stored uncompressed by Spring Boot and similar packagers, in which case they are read in place
+  public static MappedJarReader openNested(Path outerJarPath, String nestedEntryName) {
+    return open(outerJarPath).nested(nestedEntryName);
+  }
+
+  public MappedJarReader nested(String entryName) {
+    var entryNameBytes = bytes(entryName);
+    for (int header = centralDirectoryOffset, i = 0; i < entriesCount; header = nextHeader(header), i++) {
+      if (nameEquals(header, entryNameBytes)) {
+        return of(name + "!/" + entryName, readEntry(header));
+      }
+    }
+    throw new ClasspathScanException("Nested jar " + entryName + " does not exist in " + name);
+  }
+
+  public int forEachClassFile(Collection<String> packages, BiConsumer<String, byte[]> classFileConsumer) {
+    return forEachClassFile(packages, className -> true, classFileConsumer);
+  }
+
+  public int forEachClassFile(Collection<String> packages, Predicate<String> classNameFilter,
+      BiConsumer<String, byte[]> classFileConsumer) {
+    var packagePrefixes = packages.stream()
+        .map(packageName -> bytes(ScannerUtils.toResourcePath(packageName) + "/"))
+        .toArray(byte[][]::new);
+    var inflater = new Inflater(true);
+    int classFilesRead = 0;
+    try {
+      for (int header = centralDirectoryOffset, i = 0; i < entriesCount; header = nextHeader(header), i++) {
+        if (!isClassEntry(header, packagePrefixes)) {
+          continue;
+        }
+        var className = ClassFileWalker.toClassName(entryName(header));
+        if (!classNameFilter.test(className)) {
+          continue;
+        }
+        var entry = readEntry(header, inflater);
+        var classFile = new byte[entry.remaining()];
+        entry.get(classFile);
+        classFileConsumer.accept(className, classFile);
+        classFilesRead++;
+      }
+    } finally {
+      inflater.end();
+    }
+    log.trace("Read {} of {} entries of {}", classFilesRead, entriesCount, name);
+    return classFilesRead;
+  }
+
+  // Packages holding at least one class file, for roots scanned as a whole rather than by base package
+  public Set<String> getPackageNames() {
+    Set<String> packageNames = new HashSet<>();
+    for (int header = centralDirectoryOffset, i = 0; i < entriesCount; header = nextHeader(header), i++) {
+      var entryName = entryName(header);
+      int lastSlash = entryName.lastIndexOf('/');
+      if (lastSlash > 0 && entryName.endsWith(".class") && !entryName.endsWith("-info.class")) {
+        packageNames.add(entryName.substring(0, lastSlash).replace('/', '.'));
+      }
+    }
+    return packageNames;
+  }
+
+  private static MappedJarReader of(String name, ByteBuffer jar) {
+    var buffer = jar.slice().order(ByteOrder.LITTLE_ENDIAN);
+    int endOfCentralDirectory = findEndOfCentralDirectory(name, buffer);
+    long centralDirectoryOffset = Integer.toUnsignedLong(buffer.getInt(endOfCentralDirectory + 16));
+    long entriesCount = Short.toUnsignedInt(buffer.getShort(endOfCentralDirectory + 10));
+
+    int zip64Locator = endOfCentralDirectory - ZIP64_LOCATOR_SIZE;
+    if (zip64Locator >= 0 && buffer.getInt(zip64Locator) == ZIP64_END_OF_CENTRAL_DIRECTORY_LOCATOR_SIGNATURE) {
+      int zip64EndOfCentralDirectory = toOffset(name, buffer.getLong(zip64Locator + 8));
+      if (buffer.getInt(zip64EndOfCentralDirectory) != ZIP64_END_OF_CENTRAL_DIRECTORY_SIGNATURE) {
+        throw new ClasspathScanException("Corrupted zip64 end of central directory in " + name);
+      }
+      entriesCount = buffer.getLong(zip64EndOfCentralDirectory + 32);
+      centralDirectoryOffset = buffer.getLong(zip64EndOfCentralDirectory + 48);
+    }
+    return new MappedJarReader(name, buffer, toOffset(name, centralDirectoryOffset), toOffset(name, entriesCount));
+  }
+
+  private static int findEndOfCentralDirectory(String name, ByteBuffer buffer) {
+    int lowestOffset = Math.max(0, buffer.limit() - END_OF_CENTRAL_DIRECTORY_SIZE - MAX_COMMENT_SIZE);
+    for (int offset = buffer.limit() - END_OF_CENTRAL_DIRECTORY_SIZE; offset >= lowestOffset; offset--) {
+      if (buffer.getInt(offset) == END_OF_CENTRAL_DIRECTORY_SIGNATURE) {
+        return offset;
+      }
+    }
+    throw new ClasspathScanException("Not a jar, end of central directory is missing: " + name);
+  }
+
+  private boolean isClassEntry(int header, byte[][] packagePrefixes) {
+    int nameOffset = header + CENTRAL_DIRECTORY_HEADER_SIZE;
+    int nameLength = Short.toUnsignedInt(jar.getShort(header + 28));
+    if (!regionEquals(nameOffset + nameLength - CLASS_SUFFIX.length, CLASS_SUFFIX, nameLength >= CLASS_SUFFIX.length)
+        || regionEquals(nameOffset + nameLength - PACKAGE_INFO_SUFFIX.length, PACKAGE_INFO_SUFFIX,
+        nameLength >= PACKAGE_INFO_SUFFIX.length)) {
+      return false;
+    }
+    for (byte[] packagePrefix : packagePrefixes) {
+      if (regionEquals(nameOffset, packagePrefix, nameLength > packagePrefix.length)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean nameEquals(int header, byte[] expectedName) {
+    int nameLength = Short.toUnsignedInt(jar.getShort(header + 28));
+    return regionEquals(header + CENTRAL_DIRECTORY_HEADER_SIZE, expectedName, nameLength == expectedName.length);
+  }
+
+  private boolean regionEquals(int offset, byte[] expected, boolean fits) {
+    if (!fits) {
+      return false;
+    }
+    for (int i = 0; i < expected.length; i++) {
+      if (jar.get(offset + i) != expected[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private String entryName(int header) {
+    var nameBytes = new byte[Short.toUnsignedInt(jar.getShort(header + 28))];
+    jar.get(header + CENTRAL_DIRECTORY_HEADER_SIZE, nameBytes);
+    return new String(nameBytes, StandardCharsets.UTF_8);
+  }
+
+  private ByteBuffer readEntry(int header) {
+    var inflater = new Inflater(true);
+    try {
+      return readEntry(header, inflater);
+    } finally {
+      inflater.end();
+    }
+  }
+
+  private ByteBuffer readEntry(int header, Inflater inflater) {
+    if (jar.getInt(header) != CENTRAL_DIRECTORY_HEADER_SIGNATURE) {
+      throw new ClasspathScanException("Corrupted central directory of " + name);
+    }
+    int method = Short.toUnsignedInt(jar.getShort(header + 10));
+    long compressedSize = Integer.toUnsignedLong(jar.getInt(header + 20));
+    long uncompressedSize = Integer.toUnsignedLong(jar.getInt(header + 24));
+    long localHeaderOffset = Integer.toUnsignedLong(jar.getInt(header + 42));
+
+    // zip64 extra field holds, in order, only the values whose 32-bit fields overflowed
+    if (uncompressedSize == ZIP64_MAGIC || compressedSize == ZIP64_MAGIC || localHeaderOffset == ZIP64_MAGIC) {
+      int extra = findZip64Extra(header);
+      if (uncompressedSize == ZIP64_MAGIC) {
+        uncompressedSize = jar.getLong(extra);
+        extra += 8;
+      }
+      if (compressedSize == ZIP64_MAGIC) {
+        compressedSize = jar.getLong(extra);
+        extra += 8;
+      }
+      if (localHeaderOffset == ZIP64_MAGIC) {
+        localHeaderOffset = jar.getLong(extra);
+      }
+    }
+
+    int localHeader = toOffset(name, localHeaderOffset);
+    if (jar.getInt(localHeader) != LOCAL_FILE_HEADER_SIGNATURE) {
+      throw new ClasspathScanException("Corrupted local header of " + entryName(header) + " in " + name);
+    }
+    int dataOffset = localHeader + LOCAL_FILE_HEADER_SIZE
+        + Short.toUnsignedInt(jar.getShort(localHeader + 26)) + Short.toUnsignedInt(jar.getShort(localHeader + 28));
+    var data = jar.slice(dataOffset, toOffset(name, compressedSize));
+
+    return switch (method) {
+      case STORED -> data;
+      case DEFLATED -> inflate(header, data, toOffset(name, uncompressedSize), inflater);
+      default -> throw new ClasspathScanException(
+          "Unsupported compression method " + method + " of " + entryName(header) + " in " + name);
+    };
+  }
+
+  private ByteBuffer inflate(int header, ByteBuffer data, int uncompressedSize, Inflater inflater) {
+    var inflated = ByteBuffer.allocate(uncompressedSize);
+    inflater.reset();
+    inflater.setInput(data);
+    try {
+      while (inflated.hasRemaining() && !inflater.finished()) {
+        if (inflater.inflate(inflated) == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          break;
+        }
+      }
+    } catch (DataFormatException e) {
+      throw new ClasspathScanException("Corrupted entry " + entryName(header) + " in " + name, e);
+    }
+    if (inflated.hasRemaining()) {
+      throw new ClasspathScanException("Truncated entry " + entryName(header) + " in " + name);
+    }
+    return inflated.flip();
+  }
+
+  private int findZip64Extra(int header) {
+    int nameLength = Short.toUnsignedInt(jar.getShort(header + 28));
+    int extraLength = Short.toUnsignedInt(jar.getShort(header + 30));
+    int extra = header + CENTRAL_DIRECTORY_HEADER_SIZE + nameLength;
+    int extraEnd = extra + extraLength;
+    while (extra + 4 <= extraEnd) {
+      int id = Short.toUnsignedInt(jar.getShort(extra));
+      int size = Short.toUnsignedInt(jar.getShort(extra + 2));
+      if (id == ZIP64_EXTRA_FIELD_ID) {
+        return extra + 4;
+      }
+      extra += 4 + size;
+    }
+    throw new ClasspathScanException("Missing zip64 extra field of " + entryName(header) + " in " + name);
+  }
+
+  private int nextHeader(int header) {
+    return header + CENTRAL_DIRECTORY_HEADER_SIZE
+        + Short.toUnsignedInt(jar.getShort(header + 28))
+        + Short.toUnsignedInt(jar.getShort(header + 30))
+        + Short.toUnsignedInt(jar.getShort(header + 32));
+  }
+
+  private static int toOffset(String name, long value) {
+    if (value < 0 || value > Integer.MAX_VALUE) {
+      throw new ClasspathScanException("Zip offset out of range in " + name + ": " + value);
+    }
+    return (int) value;
+  }
+
+  private static byte[] bytes(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+}
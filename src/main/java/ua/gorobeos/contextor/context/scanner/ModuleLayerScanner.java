@@ -0,0 +1,144 @@
+package ua.gorobeos.contextor.context.scanner;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.module.ModuleDescriptor;
+import java.lang.module.ModuleReader;
+import java.lang.module.ResolvedModule;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import ua.gorobeos.contextor.context.exceptions.ClasspathScanException;
+import ua.gorobeos.contextor.context.scanner.bytecode.ClassMetadataRepository;
+import ua.gorobeos.contextor.context.utils.ScannerUtils;
+
+// Scans the modules of a ModuleLayer (and its parents): candidate packages come from module descriptors, class files
+// from ModuleReader, so neither class path URLs nor directories are walked
+@Slf4j
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class ModuleLayerScanner {
+
+  private static final String CLASS_EXTENSION = ".class";
+
+  ModuleLayer layer;
+  // package -> module of the layer that defines it, first match wins like in module resolution
+  Map<String, Module> packageModules;
+  Map<ClassLoader, ClassMetadataRepository> repositories = new ConcurrentHashMap<>();
+
+  public ModuleLayerScanner(ModuleLayer layer) {
+    this.layer = layer;
+    this.packageModules = indexPackages(layer);
+  }
+
+  public Set<ElementCandidate> scan(ScanRequest request) {
+    var packages = ScannerUtils.collapsePackages(request.getBasePackages());
+    Set<ElementCandidate> candidates = ConcurrentHashMap.newKeySet();
+
+    layers(layer).distinct()
+        .forEach(currentLayer -> currentLayer.configuration().modules().forEach(resolvedModule -> {
+          var modulePackages = scannablePackages(resolvedModule.reference().descriptor(), packages);
+          if (!modulePackages.isEmpty()) {
+            var module = currentLayer.findModule(resolvedModule.name()).orElseThrow();
+            candidates.addAll(scanModule(resolvedModule, module, modulePackages, request.getFilter()));
+          }
+        }));
+
+    log.debug("Found {} element candidates in module layer for packages: {}", candidates.size(), packages);
+    return candidates;
+  }
+
+  public Optional<Class<?>> loadClass(String className) {
+    var packageName = className.substring(0, Math.max(0, className.lastIndexOf('.')));
+    return Optional.ofNullable(packageModules.get(packageName))
+        .map(module -> Class.forName(module, className));
+  }
+
+  // Packages under the requested base packages that the module exports or opens; automatic and open modules do both
+  static Set<String> scannablePackages(ModuleDescriptor descriptor, Collection<String> basePackages) {
+    Set<String> accessiblePackages;
+    if (descriptor.isAutomatic() || descriptor.isOpen()) {
+      accessiblePackages = descriptor.packages();
+    } else {
+      accessiblePackages = Stream.concat(
+              descriptor.exports().stream().map(ModuleDescriptor.Exports::source),
+              descriptor.opens().stream().map(ModuleDescriptor.Opens::source))
+          .collect(Collectors.toSet());
+    }
+    return accessiblePackages.stream()
+        .filter(packageName -> basePackages.contains(packageName) || ScannerUtils.isInPackages(packageName, basePackages))
+        .collect(Collectors.toSet());
+  }
+
+  private Set<ElementCandidate> scanModule(ResolvedModule resolvedModule, Module module, Set<String> modulePackages,
+      ScanFilter filter) {
+    var repository = repositories.computeIfAbsent(module.getClassLoader() == null
+        ? ClassLoader.getPlatformClassLoader() : module.getClassLoader(), ClassMetadataRepository::new);
+    log.debug("Scanning packages {} of module {}", modulePackages, resolvedModule.name());
+
+    Set<ElementCandidate> candidates = ConcurrentHashMap.newKeySet();
+    try (ModuleReader reader = resolvedModule.reference().open();
+        Stream<String> resources = reader.list()) {
+      resources.filter(resourceName -> isClassInPackages(resourceName, modulePackages))
+          .filter(resourceName -> filter.acceptsClassName(ClassFileWalker.toClassName(resourceName)))
+          .forEach(resourceName -> readClassFile(reader, resourceName)
+              .flatMap(classFile -> inspect(repository, classFile, filter, resourceName))
+              .ifPresent(candidates::add));
+    } catch (IOException e) {
+      throw new ClasspathScanException("Failed to read module " + resolvedModule.name(), e);
+    }
+    return candidates;
+  }
+
+  private Optional<ElementCandidate> inspect(ClassMetadataRepository repository, byte[] classFile, ScanFilter filter,
+      String resourceName) {
+    try {
+      return BytecodeClasspathScanner.inspect(repository, classFile, filter);
+    } catch (ClasspathScanException e) {
+      log.warn("Skipping unreadable class file '{}': {}", resourceName, e.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  private Optional<byte[]> readClassFile(ModuleReader reader, String resourceName) {
+    try {
+      var classFile = reader.open(resourceName);
+      if (classFile.isEmpty()) {
+        return Optional.empty();
+      }
+      try (InputStream input = classFile.get()) {
+        return Optional.of(input.readAllBytes());
+      }
+    } catch (IOException e) {
+      throw new ClasspathScanException("Failed to read class file " + resourceName, e);
+    }
+  }
+
+  // Package of the resource must be one of the selected packages exactly: sub-packages are selected on their own
+  private static boolean isClassInPackages(String resourceName, Set<String> packages) {
+    int lastSlash = resourceName.lastIndexOf('/');
+    return resourceName.endsWith(CLASS_EXTENSION)
+        && !resourceName.endsWith("-info.class")
+        && lastSlash > 0
+        && packages.contains(resourceName.substring(0, lastSlash).replace('/', '.'));
+  }
+
+  private static Stream<ModuleLayer> layers(ModuleLayer layer) {
+    return Stream.concat(Stream.of(layer), layer.parents().stream().flatMap(ModuleLayerScanner::layers));
+  }
+
+  private static Map<String, Module> indexPackages(ModuleLayer layer) {
+    Map<String, Module> packageModules = new HashMap<>();
+    layers(layer).distinct()
+        .flatMap(currentLayer -> currentLayer.modules().stream())
+        .forEach(module -> module.getPackages().forEach(packageName -> packageModules.putIfAbsent(packageName, module)));
+    return packageModules;
+  }
+}
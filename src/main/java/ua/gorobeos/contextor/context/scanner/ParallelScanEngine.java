@@ -0,0 +1,82 @@
+package ua.gorobeos.contextor.context.scanner;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import ua.gorobeos.contextor.context.config.ConfigurationReader;
+import ua.gorobeos.contextor.context.exceptions.ClasspathScanException;
+import ua.gorobeos.contextor.context.utils.ScannerUtils;
+
+@Slf4j
+@RequiredArgsConstructor
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class ParallelScanEngine {
+
+  public static final String SCAN_PARALLELISM_PROPERTY = "contextor.scan.parallelism";
+
+  ClasspathScanner classpathScanner;
+  int parallelism;
+
+  public ParallelScanEngine(ClasspathScanner classpathScanner) {
+    this(classpathScanner, ConfigurationReader.getOrDefault(SCAN_PARALLELISM_PROPERTY,
+        Runtime.getRuntime().availableProcessors(), Integer::parseInt));
+  }
+
+  public Set<ElementCandidate> scan(ScanRequest request) {
+    var packages = ScannerUtils.collapsePackages(request.getBasePackages());
+    var collapsedRequest = request.toBuilder()
+        .basePackages(packages)
+        .build();
+
+    Set<ClasspathRoot> roots = new LinkedHashSet<>();
+    packages.forEach(packageToScan -> roots.addAll(ScannerUtils.resolveRoots(request.getClassLoader(), packageToScan)));
+    log.debug("Scanning {} classpath roots for packages {} with parallelism {}", roots.size(), packages, parallelism);
+
+    Set<ElementCandidate> candidates = ConcurrentHashMap.newKeySet();
+    if (roots.size() <= 1 || parallelism <= 1) {
+      roots.forEach(root -> candidates.addAll(scanRoot(root, collapsedRequest)));
+      return candidates;
+    }
+
+    List<Callable<Void>> rootScans = roots.stream()
+        .<Callable<Void>>map(root -> () -> {
+          candidates.addAll(scanRoot(root, collapsedRequest));
+          return null;
+        })
+        .toList();
+
+    var pool = new ForkJoinPool(Math.min(parallelism, roots.size()));
+    try {
+      for (Future<Void> rootScan : pool.invokeAll(rootScans)) {
+        rootScan.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ClasspathScanException("Classpath scan was interrupted", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new ClasspathScanException("Classpath scan failed", e.getCause());
+    } finally {
+      pool.shutdownNow();
+    }
+    return candidates;
+  }
+
+  // Scanners that do not stream candidates (index, Reflections, cache hits) publish them once their root is done
+  private Set<ElementCandidate> scanRoot(ClasspathRoot root, ScanRequest request) {
+    var rootCandidates = classpathScanner.scan(root, request);
+    rootCandidates.forEach(request.getCandidateListener());
+    return rootCandidates;
+  }
+}
@@ -0,0 +1,32 @@
+package ua.gorobeos.contextor.context.scanner;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.reflections.Reflections;
+import org.reflections.scanners.Scanners;
+import org.reflections.util.ConfigurationBuilder;
+import org.reflections.util.FilterBuilder;
+
+@Slf4j
+public class ReflectionsClasspathScanner implements ClasspathScanner {
+
+  @Override
+  public Set<ElementCandidate> scan(ClasspathRoot root, ScanRequest request) {
+    log.debug("Scanning {} with Reflections for packages: {}", root, request.getBasePackages());
+    var packageFilter = new FilterBuilder();
+    request.getBasePackages().forEach(packageFilter::includePackage);
+
+    var configuration = new ConfigurationBuilder()
+        .addUrls(root.toUrl())
+        .addClassLoaders(request.getClassLoader())
+        .filterInputsBy(packageFilter.and(request.getFilter()::acceptsClassFile))
+        .setScanners(Scanners.SubTypes.filterResultsBy(c -> true));
+
+    var classNames = new Reflections(configuration).get(Scanners.SubTypes.of(Object.class));
+    log.trace("Found {} classes in {}", classNames.size(), root);
+    return classNames.stream()
+        .map(ElementCandidate::ofName)
+        .collect(Collectors.toSet());
+  }
+}
@@ -0,0 +1,50 @@
+package ua.gorobeos.contextor.context.scanner;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.stream.Stream;
+import lombok.experimental.UtilityClass;
+import ua.gorobeos.contextor.context.exceptions.ClasspathScanException;
+import ua.gorobeos.contextor.context.utils.ScannerUtils;
+
+// Cheap change detection for classpath roots, based on file attributes only (no class file is read)
+@UtilityClass
+public class RootFingerprints {
+
+  public String fingerprint(ClasspathRoot root, Collection<String> packages) {
+    try {
+      if (root.getKind() == ClasspathRoot.Kind.JAR) {
+        var attributes = Files.readAttributes(root.getContainingFile(), BasicFileAttributes.class);
+        return "jar:" + attributes.size() + ":" + attributes.lastModifiedTime().toMillis();
+      }
+      return directoryFingerprint(root.toPath(), packages);
+    } catch (IOException e) {
+      throw new ClasspathScanException("Failed to fingerprint classpath root " + root, e);
+    }
+  }
+
+  // Adding, removing or rewriting a class file changes the file count, the total size or the latest modification time
+  private String directoryFingerprint(Path rootDirectory, Collection<String> packages) throws IOException {
+    long files = 0;
+    long totalSize = 0;
+    long lastModified = 0;
+    for (String packageName : ScannerUtils.collapsePackages(packages)) {
+      var packageDirectory = rootDirectory.resolve(ScannerUtils.toResourcePath(packageName));
+      if (!Files.isDirectory(packageDirectory)) {
+        continue;
+      }
+      try (Stream<Path> paths = Files.walk(packageDirectory)) {
+        for (Path path : (Iterable<Path>) paths::iterator) {
+          var attributes = Files.readAttributes(path, BasicFileAttributes.class);
+          files++;
+          totalSize += attributes.isRegularFile() ? attributes.size() : 0;
+          lastModified = Math.max(lastModified, attributes.lastModifiedTime().toMillis());
+        }
+      }
+    }
+    return "dir:" + files + ":" + totalSize + ":" + lastModified;
+  }
+}
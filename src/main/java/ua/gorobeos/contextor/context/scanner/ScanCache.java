@@ -0,0 +1,133 @@
+package ua.gorobeos.contextor.context.scanner;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.Set;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import ua.gorobeos.contextor.context.config.ConfigurationReader;
+
+// One file per (root, scanner, packages) entry; an entry is valid only while the root fingerprint is unchanged
+@Slf4j
+@RequiredArgsConstructor
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class ScanCache {
+
+  public static final String SCAN_CACHE_DIR_PROPERTY = "contextor.scan.cache.dir";
+
+  private static final int MAGIC = 0x43545853; // CTXS
+  private static final int FORMAT_VERSION = 1;
+  private static final String ENTRY_EXTENSION = ".scan";
+
+  @Getter
+  Path cacheDirectory;
+
+  public static Optional<ScanCache> fromProperties() {
+    return Optional.ofNullable(ConfigurationReader.getOrDefault(SCAN_CACHE_DIR_PROPERTY, null))
+        .filter(directory -> !directory.isBlank())
+        .map(directory -> new ScanCache(Path.of(directory)));
+  }
+
+  public Optional<Set<ElementCandidate>> read(String key, String fingerprint) {
+    var entry = entryPath(key);
+    try (var input = new DataInputStream(new BufferedInputStream(Files.newInputStream(entry)))) {
+      if (input.readInt() != MAGIC || input.readInt() != FORMAT_VERSION
+          || !key.equals(input.readUTF()) || !fingerprint.equals(input.readUTF())) {
+        log.debug("Scan cache entry {} is stale", entry);
+        return Optional.empty();
+      }
+      int candidatesCount = input.readInt();
+      Set<ElementCandidate> candidates = new HashSet<>(candidatesCount * 2);
+      for (int i = 0; i < candidatesCount; i++) {
+        candidates.add(readCandidate(input));
+      }
+      return Optional.of(candidates);
+    } catch (NoSuchFileException e) {
+      return Optional.empty();
+    } catch (IOException e) {
+      log.warn("Ignoring unreadable scan cache entry {}: {}", entry, e.toString());
+      return Optional.empty();
+    }
+  }
+
+  public void write(String key, String fingerprint, Set<ElementCandidate> candidates) {
+    var entry = entryPath(key);
+    try {
+      Files.createDirectories(cacheDirectory);
+      // written aside and moved in place, so concurrently starting JVMs never read a partial entry
+      var temporaryEntry = Files.createTempFile(cacheDirectory, entry.getFileName().toString(), ".tmp");
+      try (var output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryEntry)))) {
+        output.writeInt(MAGIC);
+        output.writeInt(FORMAT_VERSION);
+        output.writeUTF(key);
+        output.writeUTF(fingerprint);
+        output.writeInt(candidates.size());
+        for (ElementCandidate candidate : candidates) {
+          writeCandidate(output, candidate);
+        }
+      }
+      moveInPlace(temporaryEntry, entry);
+      log.debug("Stored {} candidates in scan cache entry {}", candidates.size(), entry);
+    } catch (IOException e) {
+      log.warn("Failed to write scan cache entry {}: {}", entry, e.toString());
+    }
+  }
+
+  private static ElementCandidate readCandidate(DataInputStream input) throws IOException {
+    var className = input.readUTF();
+    var metadataResolved = input.readBoolean();
+    int annotationsCount = input.readUnsignedShort();
+    Set<String> annotationNames = new HashSet<>(annotationsCount * 2);
+    for (int i = 0; i < annotationsCount; i++) {
+      annotationNames.add(input.readUTF());
+    }
+    return ElementCandidate.builder()
+        .className(className)
+        .metadataResolved(metadataResolved)
+        .annotationNames(Set.copyOf(annotationNames))
+        .build();
+  }
+
+  private static void writeCandidate(DataOutputStream output, ElementCandidate candidate) throws IOException {
+    output.writeUTF(candidate.getClassName());
+    output.writeBoolean(candidate.isMetadataResolved());
+    output.writeShort(candidate.getAnnotationNames().size());
+    for (String annotationName : candidate.getAnnotationNames()) {
+      output.writeUTF(annotationName);
+    }
+  }
+
+  private static void moveInPlace(Path source, Path target) throws IOException {
+    try {
+      Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  private Path entryPath(String key) {
+    try {
+      var digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+      return cacheDirectory.resolve(HexFormat.of().formatHex(digest) + ENTRY_EXTENSION);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+}
@@ -0,0 +1,169 @@
+package ua.gorobeos.contextor.context.scanner;
+
+import static ua.gorobeos.contextor.context.utils.ReflectionUtils.isAnnotationPresentFullCheck;
+
+import java.lang.annotation.Annotation;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Singular;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import ua.gorobeos.contextor.context.annotations.Profile;
+import ua.gorobeos.contextor.context.config.ConfigurationReader;
+import ua.gorobeos.contextor.context.utils.ReflectionUtils;
+import ua.gorobeos.contextor.context.utils.ScannerUtils;
+
+// ElementScan include/exclude rules and active profiles. Name rules run on class file names before anything is read,
+// annotation and profile rules on class file metadata when a scanner has it and on loaded classes otherwise
+@Slf4j
+@Getter
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class ScanFilter {
+
+  public static final String ACTIVE_PROFILES_PROPERTY = "contextor.profiles.active";
+
+  public static final ScanFilter NONE = ScanFilter.builder().build();
+
+  Set<String> excludePackages;
+  List<Pattern> excludeClassNamePatterns;
+  Set<Class<? extends Annotation>> includeAnnotations;
+  Set<String> includeAnnotationNames;
+  // null when @Profile is not evaluated at all
+  Set<String> activeProfiles;
+
+  LongAdder prunedByExcludedPackage = new LongAdder();
+  LongAdder prunedByClassNamePattern = new LongAdder();
+  LongAdder prunedByIncludeAnnotations = new LongAdder();
+  LongAdder prunedByProfile = new LongAdder();
+
+  @Builder
+  private ScanFilter(@Singular Collection<String> excludePackages, @Singular Collection<String> excludeClassNamePatterns,
+      @Singular Collection<Class<? extends Annotation>> includeAnnotations, Collection<String> activeProfiles) {
+    this.excludePackages = Set.copyOf(excludePackages);
+    this.excludeClassNamePatterns = excludeClassNamePatterns.stream()
+        .map(Pattern::compile)
+        .toList();
+    this.includeAnnotations = Set.copyOf(includeAnnotations);
+    this.includeAnnotationNames = includeAnnotations.stream()
+        .map(Class::getName)
+        .collect(Collectors.toUnmodifiableSet());
+    this.activeProfiles = activeProfiles == null ? null : Set.copyOf(activeProfiles);
+  }
+
+  public static Set<String> activeProfilesFromProperties() {
+    return ConfigurationReader.getOrDefault(ACTIVE_PROFILES_PROPERTY, Set.of(),
+        value -> Arrays.stream(value.split(","))
+            .map(String::trim)
+            .filter(profile -> !profile.isEmpty())
+            .collect(Collectors.toUnmodifiableSet()));
+  }
+
+  // no rule configured; @Profile classes are still rejected while none of their profiles is active
+  public boolean isEmpty() {
+    return excludePackages.isEmpty() && excludeClassNamePatterns.isEmpty() && includeAnnotations.isEmpty()
+        && (activeProfiles == null || activeProfiles.isEmpty());
+  }
+
+  // whether @Profile is checked, before loading wherever class file metadata can be read; without active profiles every
+  // @Profile class is inactive and must not be loaded either
+  public boolean isProfileAware() {
+    return activeProfiles != null;
+  }
+
+  public boolean acceptsClassName(String className) {
+    if (ScannerUtils.isInPackages(className, excludePackages)) {
+      prunedByExcludedPackage.increment();
+      return false;
+    }
+    for (Pattern pattern : excludeClassNamePatterns) {
+      if (pattern.matcher(className).matches()) {
+        prunedByClassNamePattern.increment();
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // Resource path form used by jar entries and Reflections inputs: com/acme/Service.class
+  public boolean acceptsClassFile(String resourcePath) {
+    return !resourcePath.endsWith(".class") || acceptsClassName(ClassFileWalker.toClassName(resourcePath));
+  }
+
+  public boolean acceptsAnnotationNames(Collection<String> annotationClosure) {
+    if (includeAnnotationNames.isEmpty() || includeAnnotationNames.stream().anyMatch(annotationClosure::contains)) {
+      return true;
+    }
+    prunedByIncludeAnnotations.increment();
+    return false;
+  }
+
+  // declaredProfiles are the @Profile values of a class, empty when it has none
+  public boolean acceptsProfiles(Collection<String> declaredProfiles) {
+    if (activeProfiles == null || declaredProfiles.isEmpty() || declaredProfiles.stream().anyMatch(this::isProfileActive)) {
+      return true;
+    }
+    prunedByProfile.increment();
+    return false;
+  }
+
+  public boolean acceptsClass(Class<?> clazz) {
+    var declaredProfiles = ReflectionUtils.getValueFromAnnotation(clazz, Profile.class, "value", String[].class)
+        .map(List::of)
+        .orElse(List.of());
+    if (!acceptsProfiles(declaredProfiles)) {
+      return false;
+    }
+    if (includeAnnotations.isEmpty() || includeAnnotations.stream().anyMatch(annotation -> isAnnotationPresentFullCheck(clazz, annotation))) {
+      return true;
+    }
+    prunedByIncludeAnnotations.increment();
+    return false;
+  }
+
+  // Identifies the rules in scan cache keys, so that differently filtered scans never share an entry
+  public String describe() {
+    return "exclude=" + excludePackages.stream().sorted().toList()
+        + ";patterns=" + excludeClassNamePatterns.stream().map(Pattern::pattern).toList()
+        + ";include=" + includeAnnotationNames.stream().sorted().toList()
+        + ";profiles=" + (activeProfiles == null ? "*" : activeProfiles.stream().sorted().toList());
+  }
+
+  private boolean isProfileActive(String profile) {
+    return profile.startsWith("!")
+        ? !activeProfiles.contains(profile.substring(1))
+        : activeProfiles.contains(profile);
+  }
+
+  public long getPrunedByExcludedPackage() {
+    return prunedByExcludedPackage.sum();
+  }
+
+  public long getPrunedByClassNamePattern() {
+    return prunedByClassNamePattern.sum();
+  }
+
+  public long getPrunedByIncludeAnnotations() {
+    return prunedByIncludeAnnotations.sum();
+  }
+
+  public long getPrunedByProfile() {
+    return prunedByProfile.sum();
+  }
+
+  public void logStatistics() {
+    if (isEmpty() && getPrunedByProfile() == 0) {
+      return;
+    }
+    log.info("Scan filters pruned classes: {} by excludePackages, {} by excludeClassNamePatterns, {} by includeAnnotations, "
+            + "{} by inactive profiles", getPrunedByExcludedPackage(), getPrunedByClassNamePattern(), getPrunedByIncludeAnnotations(),
+        getPrunedByProfile());
+  }
+}
@@ -0,0 +1,31 @@
+package ua.gorobeos.contextor.context.scanner;
+
+import java.util.Locale;
+import ua.gorobeos.contextor.context.config.ConfigurationReader;
+
+public enum ScanMode {
+  // Reflections store per class path root, roots scanned in parallel
+  REFLECTIONS,
+  // META-INF/contextor/elements.idx written by contextor-index-processor, Reflections for roots without an index
+  INDEX,
+  // class files are read as bytes, only classes carrying @Element (directly, inherited or as meta-annotation) get loaded
+  BYTECODE,
+  // ModuleLayer of the init class: packages from module descriptors, class files through ModuleReader
+  MODULE;
+
+  public static final String SCAN_MODE_PROPERTY = "contextor.scan.mode";
+
+  public static ScanMode fromProperties() {
+    return fromProperties(REFLECTIONS);
+  }
+
+  // Without an explicit mode, init classes on the module path are scanned through their module layer
+  public static ScanMode fromProperties(Module initModule) {
+    return fromProperties(initModule.isNamed() ? MODULE : REFLECTIONS);
+  }
+
+  private static ScanMode fromProperties(ScanMode defaultMode) {
+    return ConfigurationReader.getOrDefault(SCAN_MODE_PROPERTY, defaultMode,
+        value -> ScanMode.valueOf(value.trim().toUpperCase(Locale.ROOT)));
+  }
+}
@@ -0,0 +1,23 @@
+package ua.gorobeos.contextor.context.scanner;
+
+import java.util.Collection;
+import java.util.function.Consumer;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Data;
+import lombok.experimental.FieldDefaults;
+
+@Data
+@Builder(toBuilder = true)
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ScanRequest {
+
+  Collection<String> basePackages;
+  ClassLoader classLoader;
+  @Builder.Default
+  ScanFilter filter = ScanFilter.NONE;
+  // notified of candidates as soon as they are found, from scanning threads
+  @Builder.Default
+  Consumer<ElementCandidate> candidateListener = candidate -> {
+  };
+}
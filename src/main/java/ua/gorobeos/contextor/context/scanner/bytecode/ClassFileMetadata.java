@@ -0,0 +1,37 @@
+package ua.gorobeos.contextor.context.scanner.bytecode;
+
+import java.util.List;
+import java.util.Map;
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class ClassFileMetadata {
+
+  public static final int ACC_INTERFACE = 0x0200;
+  public static final int ACC_ANNOTATION = 0x2000;
+
+  String className;
+  int accessFlags;
+  // null for java.lang.Object and module-info
+  String superClassName;
+  List<String> interfaceNames;
+  // RuntimeVisibleAnnotations of the class itself
+  List<String> annotationNames;
+  // String and String[] values of those annotations: annotation name -> element name -> values
+  @Builder.Default
+  Map<String, Map<String, List<String>>> annotationValues = Map.of();
+
+  public List<String> getAnnotationValues(String annotationName, String elementName) {
+    return annotationValues.getOrDefault(annotationName, Map.of()).getOrDefault(elementName, List.of());
+  }
+
+  public boolean isAnnotation() {
+    return (accessFlags & ACC_ANNOTATION) != 0;
+  }
+
+  public boolean isInterface() {
+    return (accessFlags & ACC_INTERFACE) != 0;
+  }
+}
@@ -0,0 +1,244 @@
+package ua.gorobeos.contextor.context.scanner.bytecode;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.experimental.UtilityClass;
+import ua.gorobeos.contextor.context.exceptions.ClasspathScanException;
+
+// Reads only the parts of a class file (JVMS §4) the scanner needs, without defining the class
+@UtilityClass
+public class ClassFileParser {
+
+  private static final int MAGIC = 0xCAFEBABE;
+  private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+
+  private static final int CONSTANT_UTF8 = 1;
+  private static final int CONSTANT_INTEGER = 3;
+  private static final int CONSTANT_FLOAT = 4;
+  private static final int CONSTANT_LONG = 5;
+  private static final int CONSTANT_DOUBLE = 6;
+  private static final int CONSTANT_CLASS = 7;
+  private static final int CONSTANT_STRING = 8;
+  private static final int CONSTANT_FIELDREF = 9;
+  private static final int CONSTANT_METHODREF = 10;
+  private static final int CONSTANT_INTERFACE_METHODREF = 11;
+  private static final int CONSTANT_NAME_AND_TYPE = 12;
+  private static final int CONSTANT_METHOD_HANDLE = 15;
+  private static final int CONSTANT_METHOD_TYPE = 16;
+  private static final int CONSTANT_DYNAMIC = 17;
+  private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+  private static final int CONSTANT_MODULE = 19;
+  private static final int CONSTANT_PACKAGE = 20;
+
+  public static ClassFileMetadata parse(byte[] classFile) {
+    try {
+      return new Reader(classFile).read();
+    } catch (IndexOutOfBoundsException e) {
+      throw new ClasspathScanException("Truncated class file", e);
+    }
+  }
+
+  private static final class Reader {
+
+    private final byte[] bytes;
+    // offset of every constant pool entry, resolved lazily: UTF8 strings are decoded only when used
+    private int[] constantOffsets;
+    private int position;
+
+    private Reader(byte[] bytes) {
+      this.bytes = bytes;
+    }
+
+    private ClassFileMetadata read() {
+      if (readInt() != MAGIC) {
+        throw new ClasspathScanException("Not a class file");
+      }
+      position += 4; // minor and major version
+      readConstantPool();
+
+      int accessFlags = readUnsignedShort();
+      String className = classNameAt(readUnsignedShort());
+      int superClassIndex = readUnsignedShort();
+      String superClassName = superClassIndex == 0 ? null : classNameAt(superClassIndex);
+
+      int interfacesCount = readUnsignedShort();
+      List<String> interfaceNames = new ArrayList<>(interfacesCount);
+      for (int i = 0; i < interfacesCount; i++) {
+        interfaceNames.add(classNameAt(readUnsignedShort()));
+      }
+
+      skipMembers(); // fields
+      skipMembers(); // methods
+
+      List<String> annotationNames = Collections.emptyList();
+      Map<String, Map<String, List<String>>> annotationValues = Collections.emptyMap();
+      int attributesCount = readUnsignedShort();
+      for (int i = 0; i < attributesCount; i++) {
+        String attributeName = utf8At(readUnsignedShort());
+        int attributeLength = readInt();
+        int attributeEnd = position + attributeLength;
+        if (RUNTIME_VISIBLE_ANNOTATIONS.equals(attributeName)) {
+          annotationValues = new HashMap<>();
+          annotationNames = readAnnotations(annotationValues);
+        }
+        position = attributeEnd;
+      }
+
+      return ClassFileMetadata.builder()
+          .className(className)
+          .accessFlags(accessFlags)
+          .superClassName(superClassName)
+          .interfaceNames(interfaceNames)
+          .annotationNames(annotationNames)
+          .annotationValues(annotationValues)
+          .build();
+    }
+
+    private void readConstantPool() {
+      int constantPoolCount = readUnsignedShort();
+      constantOffsets = new int[constantPoolCount];
+      for (int i = 1; i < constantPoolCount; i++) {
+        constantOffsets[i] = position;
+        int tag = bytes[position++];
+        switch (tag) {
+          case CONSTANT_UTF8 -> position += 2 + readUnsignedShort(position);
+          case CONSTANT_CLASS, CONSTANT_STRING, CONSTANT_METHOD_TYPE, CONSTANT_MODULE, CONSTANT_PACKAGE -> position += 2;
+          case CONSTANT_METHOD_HANDLE -> position += 3;
+          case CONSTANT_INTEGER, CONSTANT_FLOAT, CONSTANT_FIELDREF, CONSTANT_METHODREF, CONSTANT_INTERFACE_METHODREF,
+               CONSTANT_NAME_AND_TYPE, CONSTANT_DYNAMIC, CONSTANT_INVOKE_DYNAMIC -> position += 4;
+          case CONSTANT_LONG, CONSTANT_DOUBLE -> {
+            position += 8;
+            i++;
+          }
+          default -> throw new ClasspathScanException("Unknown constant pool tag: " + tag);
+        }
+      }
+    }
+
+    private void skipMembers() {
+      int membersCount = readUnsignedShort();
+      for (int i = 0; i < membersCount; i++) {
+        position += 6; // access flags, name, descriptor
+        int attributesCount = readUnsignedShort();
+        for (int j = 0; j < attributesCount; j++) {
+          position += 2; // attribute name
+          int attributeLength = readInt();
+          position += attributeLength;
+        }
+      }
+    }
+
+    private List<String> readAnnotations(Map<String, Map<String, List<String>>> annotationValues) {
+      int annotationsCount = readUnsignedShort();
+      List<String> annotationNames = new ArrayList<>(annotationsCount);
+      for (int i = 0; i < annotationsCount; i++) {
+        var annotationName = descriptorToClassName(utf8At(readUnsignedShort()));
+        annotationNames.add(annotationName);
+        var values = readStringElementValues();
+        if (!values.isEmpty()) {
+          annotationValues.put(annotationName, values);
+        }
+      }
+      return annotationNames;
+    }
+
+    // Keeps String and String[] element values, other kinds are skipped
+    private Map<String, List<String>> readStringElementValues() {
+      int pairsCount = readUnsignedShort();
+      Map<String, List<String>> values = new HashMap<>();
+      for (int i = 0; i < pairsCount; i++) {
+        var elementName = utf8At(readUnsignedShort());
+        char tag = (char) bytes[position];
+        if (tag == 's') {
+          position++;
+          values.put(elementName, List.of(utf8At(readUnsignedShort())));
+        } else if (tag == '[' && isStringArray()) {
+          position++;
+          int valuesCount = readUnsignedShort();
+          List<String> arrayValues = new ArrayList<>(valuesCount);
+          for (int j = 0; j < valuesCount; j++) {
+            position++; // 's' tag
+            arrayValues.add(utf8At(readUnsignedShort()));
+          }
+          values.put(elementName, arrayValues);
+        } else {
+          skipElementValue();
+        }
+      }
+      return values;
+    }
+
+    // array values are homogeneous, so the first tag tells the type; empty arrays count as String[]
+    private boolean isStringArray() {
+      int valuesCount = readUnsignedShort(position + 1);
+      return valuesCount == 0 || bytes[position + 3] == 's';
+    }
+
+    private void skipAnnotation() {
+      position += 2; // type index
+      skipElementValuePairs();
+    }
+
+    private void skipElementValuePairs() {
+      int pairsCount = readUnsignedShort();
+      for (int i = 0; i < pairsCount; i++) {
+        position += 2; // element name index
+        skipElementValue();
+      }
+    }
+
+    private void skipElementValue() {
+      char tag = (char) bytes[position++];
+      switch (tag) {
+        case 'B', 'C', 'D', 'F', 'I', 'J', 'S', 'Z', 's', 'c' -> position += 2;
+        case 'e' -> position += 4;
+        case '@' -> skipAnnotation();
+        case '[' -> {
+          int valuesCount = readUnsignedShort();
+          for (int i = 0; i < valuesCount; i++) {
+            skipElementValue();
+          }
+        }
+        default -> throw new ClasspathScanException("Unknown annotation element value tag: " + tag);
+      }
+    }
+
+    private String classNameAt(int classIndex) {
+      int nameIndex = readUnsignedShort(constantOffsets[classIndex] + 1);
+      return utf8At(nameIndex).replace('/', '.');
+    }
+
+    private String utf8At(int utf8Index) {
+      int offset = constantOffsets[utf8Index];
+      int length = readUnsignedShort(offset + 1);
+      // modified UTF-8 only differs from UTF-8 for NUL and supplementary characters, which class names do not use
+      return new String(bytes, offset + 3, length, StandardCharsets.UTF_8);
+    }
+
+    private static String descriptorToClassName(String descriptor) {
+      // Lcom/acme/Annotation; -> com.acme.Annotation
+      return descriptor.substring(1, descriptor.length() - 1).replace('/', '.');
+    }
+
+    private int readUnsignedShort() {
+      int value = readUnsignedShort(position);
+      position += 2;
+      return value;
+    }
+
+    private int readUnsignedShort(int offset) {
+      return ((bytes[offset] & 0xFF) << 8) | (bytes[offset + 1] & 0xFF);
+    }
+
+    private int readInt() {
+      int value = ((bytes[position] & 0xFF) << 24) | ((bytes[position + 1] & 0xFF) << 16)
+          | ((bytes[position + 2] & 0xFF) << 8) | (bytes[position + 3] & 0xFF);
+      position += 4;
+      return value;
+    }
+  }
+}
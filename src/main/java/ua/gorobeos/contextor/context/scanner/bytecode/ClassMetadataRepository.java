@@ -0,0 +1,88 @@
+package ua.gorobeos.contextor.context.scanner.bytecode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import ua.gorobeos.contextor.context.exceptions.ClasspathScanException;
+
+// Class file metadata of one class loader, read from bytes so that inspected types are never loaded
+@Slf4j
+@RequiredArgsConstructor
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class ClassMetadataRepository {
+
+  private static final Optional<ClassFileMetadata> UNRESOLVABLE = Optional.empty();
+
+  ClassLoader classLoader;
+  Map<String, Optional<ClassFileMetadata>> metadataCache = new ConcurrentHashMap<>();
+
+  public ClassFileMetadata register(byte[] classFile) {
+    var metadata = ClassFileParser.parse(classFile);
+    metadataCache.putIfAbsent(metadata.getClassName(), Optional.of(metadata));
+    return metadata;
+  }
+
+  public Optional<ClassFileMetadata> getMetadata(String className) {
+    if (isPlatformType(className)) {
+      return UNRESOLVABLE;
+    }
+    return metadataCache.computeIfAbsent(className, this::readMetadata);
+  }
+
+  public boolean isAnnotationPresentFullCheck(ClassFileMetadata metadata, String annotationName) {
+    return getAnnotationClosure(metadata).contains(annotationName);
+  }
+
+  // Same closure ReflectionUtils.isAnnotationPresentFullCheck walks: the type, its supertypes and their meta-annotations
+  public Set<String> getAnnotationClosure(ClassFileMetadata metadata) {
+    Set<String> annotations = new HashSet<>();
+    Set<String> visited = new HashSet<>();
+    Deque<ClassFileMetadata> toVisit = new ArrayDeque<>();
+    toVisit.push(metadata);
+
+    while (!toVisit.isEmpty()) {
+      var current = toVisit.pop();
+      if (!visited.add(current.getClassName())) {
+        continue;
+      }
+      for (String currentAnnotation : current.getAnnotationNames()) {
+        annotations.add(currentAnnotation);
+        getMetadata(currentAnnotation).ifPresent(toVisit::push);
+      }
+      if (current.getSuperClassName() != null) {
+        getMetadata(current.getSuperClassName()).ifPresent(toVisit::push);
+      }
+      current.getInterfaceNames().forEach(interfaceName -> getMetadata(interfaceName).ifPresent(toVisit::push));
+    }
+    return annotations;
+  }
+
+  private Optional<ClassFileMetadata> readMetadata(String className) {
+    var resourceName = className.replace('.', '/') + ".class";
+    try (InputStream classFile = classLoader.getResourceAsStream(resourceName)) {
+      if (classFile == null) {
+        log.debug("Class file of '{}' is not visible to {}, treating it as not annotated", className, classLoader);
+        return UNRESOLVABLE;
+      }
+      return Optional.of(ClassFileParser.parse(classFile.readAllBytes()));
+    } catch (IOException | ClasspathScanException e) {
+      log.warn("Could not read class file of '{}': {}", className, e.getMessage());
+      return UNRESOLVABLE;
+    }
+  }
+
+  // java.* and jdk.* types can never carry contextor annotations, so their class files are not read
+  private static boolean isPlatformType(String className) {
+    return className.startsWith("java.") || className.startsWith("jdk.");
+  }
+}
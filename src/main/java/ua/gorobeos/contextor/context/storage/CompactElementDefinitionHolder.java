@@ -0,0 +1,380 @@
+package ua.gorobeos.contextor.context.storage;
+
+import static ua.gorobeos.contextor.context.element.ElementDefinition.PROTOTYPE_SCOPE;
+import static ua.gorobeos.contextor.context.element.ElementDefinition.SINGLETON_SCOPE;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.IntStream;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import ua.gorobeos.contextor.context.dependencies.DependencyDefinition;
+import ua.gorobeos.contextor.context.element.AnnotationElementDefinition;
+import ua.gorobeos.contextor.context.element.ConfigElementDefinition;
+import ua.gorobeos.contextor.context.element.ElementDefinition;
+import ua.gorobeos.contextor.context.element.MethodDefinedElementDefinition;
+import ua.gorobeos.contextor.context.exceptions.ElementNameConflictException;
+
+// Keeps definitions column wise, in arrays indexed by element id, instead of an object graph per element: kind, scope
+// and primary share a byte, equal dependency definitions are stored once and definitions are materialized on lookup.
+// Meant for contexts with tens of thousands of elements, where the per element objects dominate the footprint.
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class CompactElementDefinitionHolder implements ElementDefinitionHolder {
+
+  private static final int INITIAL_CAPACITY = 64;
+  private static final DependencyDefinition[] NO_DEPENDENCIES = new DependencyDefinition[0];
+
+  // flags layout: bits 0-1 kind, bits 2-3 scope, bit 4 primary, bit 5 primary not set
+  private static final int KIND_MASK = 0b11;
+  private static final int ANNOTATION = 0;
+  private static final int CONFIG = 1;
+  private static final int METHOD_DEFINED = 2;
+  private static final int UNCOMPACTED = 3;
+  private static final int SCOPE_SHIFT = 2;
+  private static final int SCOPE_MASK = 0b11 << SCOPE_SHIFT;
+  private static final int PRIMARY = 1 << 4;
+  private static final int PRIMARY_UNSET = 1 << 5;
+
+  final Map<DependencyDefinition, DependencyDefinition> internedDependencies = new HashMap<>();
+  final Map<List<DependencyDefinition>, DependencyDefinition[]> internedDependencyLists = new HashMap<>();
+  final Map<String, String> internedNames = new HashMap<>();
+  // generated definitions, subclasses and anything else the columns can not represent are kept as they are
+  final Map<Integer, ElementDefinition> uncompacted = new HashMap<>();
+  final Map<Integer, String[]> methodDefinedNames = new HashMap<>();
+  final ElementTypeIndex<Integer> idsByType = new ElementTypeIndex<>();
+
+  String[] names = new String[INITIAL_CAPACITY];
+  Class<?>[] types = new Class<?>[INITIAL_CAPACITY];
+  Executable[] initExecutables = new Executable[INITIAL_CAPACITY];
+  Class<?>[] configClasses = new Class<?>[INITIAL_CAPACITY];
+  byte[] flags = new byte[INITIAL_CAPACITY];
+  DependencyDefinition[][] dependencies = new DependencyDefinition[INITIAL_CAPACITY][];
+  int nextId;
+  // ids of removed elements, handed out again before the columns grow, so reloads and plugin churn stay bounded
+  int[] freeIds = new int[INITIAL_CAPACITY];
+  int freeIdCount;
+  // names to ids by open addressing, a slot holds id + 1 and 0 marks a free slot; no entry or boxed id per element
+  int[] index = new int[INITIAL_CAPACITY * 2];
+  int liveElements;
+  // once frozen, lookups are served from materialized definitions without taking the lock
+  volatile FrozenDefinitions frozenDefinitions;
+
+  @Override
+  public synchronized void addElementDefinition(ElementDefinition elementDefinition) {
+    String elementName = elementDefinition.getName();
+    if (frozenDefinitions != null) {
+      throw FrozenDefinitions.mutationFailure(elementName);
+    }
+    int existingId = findId(elementName);
+    if (existingId >= 0) {
+      log.error("Conflict detected: Element definition for '{}' already exists. [{}]", elementName, materialize(existingId));
+      throw new ElementNameConflictException("Element definition with name '%s' already exists".formatted(elementName));
+    }
+    int id = freeIdCount > 0 ? freeIds[--freeIdCount] : nextId++;
+    ensureCapacity(nextId);
+    names[id] = elementName;
+    insertId(id);
+    types[id] = elementDefinition.getType();
+    idsByType.add(types[id], id);
+
+    var scope = ElementScope.of(elementDefinition.getScope());
+    int kind = scope.map(elementScope -> kindOf(elementDefinition)).orElse(UNCOMPACTED);
+    if (kind == UNCOMPACTED) {
+      uncompacted.put(id, elementDefinition);
+    } else {
+      dependencies[id] = intern(elementDefinition.getDependencies());
+      if (kind == METHOD_DEFINED) {
+        var methodDefined = (MethodDefinedElementDefinition) elementDefinition;
+        initExecutables[id] = methodDefined.getInitMethod();
+        configClasses[id] = methodDefined.getConfigClass();
+      } else {
+        initExecutables[id] = elementDefinition.getInitConstructor();
+      }
+      if (kind == CONFIG) {
+        methodDefinedNames.put(id, methodDefinedNames((ConfigElementDefinition) elementDefinition));
+      }
+    }
+    flags[id] = (byte) (kind | scope.orElse(ElementScope.UNSET).ordinal() << SCOPE_SHIFT | primaryFlags(elementDefinition));
+    log.info("Added element definition for: {}", elementName);
+  }
+
+  @Override
+  public Optional<ElementDefinition> getElementDefinition(String elementName) {
+    var frozen = frozenDefinitions;
+    if (frozen != null) {
+      return frozen.get(elementName);
+    }
+    synchronized (this) {
+      return lookUpElementDefinition(elementName);
+    }
+  }
+
+  private Optional<ElementDefinition> lookUpElementDefinition(String elementName) {
+    int id = findId(elementName);
+    if (id < 0) {
+      log.warn("Element definition for '{}' not found.", elementName);
+      return Optional.empty();
+    }
+    return Optional.of(materialize(id));
+  }
+
+  @Override
+  public synchronized Optional<ElementDefinition> removeElementDefinition(String elementName) {
+    if (frozenDefinitions != null) {
+      throw FrozenDefinitions.mutationFailure(elementName);
+    }
+    int id = findId(elementName);
+    if (id < 0) {
+      return Optional.empty();
+    }
+    var removedDefinition = materialize(id);
+    removeId(id);
+    idsByType.remove(types[id], id);
+    names[id] = null;
+    types[id] = null;
+    initExecutables[id] = null;
+    configClasses[id] = null;
+    dependencies[id] = null;
+    flags[id] = 0;
+    uncompacted.remove(id);
+    methodDefinedNames.remove(id);
+    if (freeIdCount == freeIds.length) {
+      freeIds = Arrays.copyOf(freeIds, freeIds.length * 2);
+    }
+    freeIds[freeIdCount++] = id;
+    log.info("Removed element definition for: {}", elementName);
+    return Optional.of(removedDefinition);
+  }
+
+  @Override
+  public synchronized Collection<ElementDefinition> getElementDefinitions() {
+    if (frozenDefinitions != null) {
+      return frozenDefinitions.getElementDefinitions();
+    }
+    return liveIds()
+        .mapToObj(this::materialize)
+        .toList();
+  }
+
+  @Override
+  public Collection<ElementDefinition> getElementDefinitionsByType(Class<?> type) {
+    log.debug("Retrieving element definitions by type: {}", type.getName());
+    var frozen = frozenDefinitions;
+    if (frozen != null) {
+      // the columns no longer change, so the frozen definitions are found by name without the lock
+      return idsByType.get(type).stream()
+          .map(id -> frozen.get(names[id]).orElseThrow())
+          .toList();
+    }
+    synchronized (this) {
+      // definitions are materialized for the matches alone
+      return idsByType.get(type).stream()
+          .map(this::materialize)
+          .toList();
+    }
+  }
+
+  @Override
+  public synchronized void freeze() {
+    if (frozenDefinitions == null) {
+      frozenDefinitions = new FrozenDefinitions(getElementDefinitions());
+      log.info("Froze {} element definitions", liveElements);
+    }
+  }
+
+  private IntStream liveIds() {
+    return IntStream.range(0, nextId).filter(id -> names[id] != null);
+  }
+
+  private ElementDefinition materialize(int id) {
+    int flag = flags[id];
+    String scope = ElementScope.values()[(flag & SCOPE_MASK) >>> SCOPE_SHIFT].scopeName;
+    Boolean isPrimary = (flag & PRIMARY_UNSET) != 0 ? null : (flag & PRIMARY) != 0;
+    return switch (flag & KIND_MASK) {
+      case ANNOTATION -> AnnotationElementDefinition.builder()
+          .name(names[id])
+          .isPrimary(isPrimary)
+          .type(types[id])
+          .initConstructor((Constructor<?>) initExecutables[id])
+          .scope(scope)
+          .dependencies(List.of(dependencies[id]))
+          .build();
+      case CONFIG -> ConfigElementDefinition.builder()
+          .name(names[id])
+          .isPrimary(isPrimary)
+          .type(types[id])
+          .initConstructor((Constructor<?>) initExecutables[id])
+          .scope(scope)
+          .dependencies(List.of(dependencies[id]))
+          .methodDefinedElements(registeredMethodDefinedElements(id))
+          .build();
+      case METHOD_DEFINED -> MethodDefinedElementDefinition.builder()
+          .name(names[id])
+          .isPrimary(isPrimary)
+          .type(types[id])
+          .scope(scope)
+          .dependencies(List.of(dependencies[id]))
+          .configClass(configClasses[id])
+          .initMethod((Method) initExecutables[id])
+          .build();
+      default -> uncompacted.get(id);
+    };
+  }
+
+  // elements a config defines are held by name, so ones rejected by their conditions are not kept at all
+  private List<ElementDefinition> registeredMethodDefinedElements(int configId) {
+    return Arrays.stream(methodDefinedNames.get(configId))
+        .mapToInt(this::findId)
+        .filter(methodDefinedId -> methodDefinedId >= 0)
+        .mapToObj(this::materialize)
+        .toList();
+  }
+
+  private String[] methodDefinedNames(ConfigElementDefinition configDefinition) {
+    var methodDefinedElements = configDefinition.getMethodDefinedElements();
+    if (methodDefinedElements == null) {
+      return new String[0];
+    }
+    return methodDefinedElements.stream()
+        .map(ElementDefinition::getName)
+        .map(this::intern)
+        .toArray(String[]::new);
+  }
+
+  private DependencyDefinition[] intern(Collection<DependencyDefinition> elementDependencies) {
+    if (elementDependencies == null || elementDependencies.isEmpty()) {
+      return NO_DEPENDENCIES;
+    }
+    var internedList = elementDependencies.stream()
+        .map(dependency -> internedDependencies.computeIfAbsent(dependency, key -> DependencyDefinition.builder()
+            .name(intern(key.getName()))
+            .qualifier(intern(key.getQualifier()))
+            .clazz(key.getClazz())
+            .build()))
+        .toList();
+    // elements with the same constructor signature share one array
+    return internedDependencyLists.computeIfAbsent(internedList, key -> key.toArray(DependencyDefinition[]::new));
+  }
+
+  private String intern(String value) {
+    return value == null ? null : internedNames.computeIfAbsent(value, key -> key);
+  }
+
+  private static int kindOf(ElementDefinition elementDefinition) {
+    if (elementDefinition.getDependencies() != null && elementDefinition.getDependencies().stream().anyMatch(Objects::isNull)) {
+      return UNCOMPACTED;
+    }
+    var definitionClass = elementDefinition.getClass();
+    if (definitionClass == AnnotationElementDefinition.class) {
+      return ANNOTATION;
+    }
+    if (definitionClass == ConfigElementDefinition.class) {
+      return CONFIG;
+    }
+    if (definitionClass == MethodDefinedElementDefinition.class && elementDefinition.getInitConstructor() == null) {
+      return METHOD_DEFINED;
+    }
+    return UNCOMPACTED;
+  }
+
+  private static int primaryFlags(ElementDefinition elementDefinition) {
+    if (elementDefinition.getIsPrimary() == null) {
+      return PRIMARY_UNSET;
+    }
+    return elementDefinition.getIsPrimary() ? PRIMARY : 0;
+  }
+
+  private int findId(String elementName) {
+    int mask = index.length - 1;
+    for (int slot = home(elementName, mask); index[slot] != 0; slot = (slot + 1) & mask) {
+      int id = index[slot] - 1;
+      if (elementName.equals(names[id])) {
+        return id;
+      }
+    }
+    return -1;
+  }
+
+  private void insertId(int id) {
+    if ((liveElements + 1) * 2 > index.length) {
+      var previousIndex = index;
+      index = new int[index.length * 2];
+      Arrays.stream(previousIndex).filter(slot -> slot != 0).forEach(slot -> place(slot - 1));
+    }
+    place(id);
+    liveElements++;
+  }
+
+  private void place(int id) {
+    int mask = index.length - 1;
+    int slot = home(names[id], mask);
+    while (index[slot] != 0) {
+      slot = (slot + 1) & mask;
+    }
+    index[slot] = id + 1;
+  }
+
+  // shifts the entries probed past the freed slot back, so no lookup stops at the hole
+  private void removeId(int id) {
+    int mask = index.length - 1;
+    int free = home(names[id], mask);
+    while (index[free] != id + 1) {
+      free = (free + 1) & mask;
+    }
+    index[free] = 0;
+    for (int slot = (free + 1) & mask; index[slot] != 0; slot = (slot + 1) & mask) {
+      int home = home(names[index[slot] - 1], mask);
+      if (((slot - home) & mask) >= ((slot - free) & mask)) {
+        index[free] = index[slot];
+        index[slot] = 0;
+        free = slot;
+      }
+    }
+    liveElements--;
+  }
+
+  private static int home(String elementName, int mask) {
+    int hash = elementName.hashCode();
+    return (hash ^ (hash >>> 16)) & mask;
+  }
+
+  private void ensureCapacity(int capacity) {
+    if (capacity <= names.length) {
+      return;
+    }
+    int newCapacity = Math.max(capacity, names.length * 2);
+    names = Arrays.copyOf(names, newCapacity);
+    types = Arrays.copyOf(types, newCapacity);
+    initExecutables = Arrays.copyOf(initExecutables, newCapacity);
+    configClasses = Arrays.copyOf(configClasses, newCapacity);
+    flags = Arrays.copyOf(flags, newCapacity);
+    dependencies = Arrays.copyOf(dependencies, newCapacity);
+  }
+
+  @RequiredArgsConstructor
+  private enum ElementScope {
+    UNSET(null),
+    SINGLETON(SINGLETON_SCOPE),
+    PROTOTYPE(PROTOTYPE_SCOPE);
+
+    final String scopeName;
+
+    // empty for scopes the columns have no code for
+    static Optional<ElementScope> of(String scope) {
+      return Arrays.stream(values())
+          .filter(elementScope -> Objects.equals(elementScope.scopeName, scope))
+          .findFirst();
+    }
+  }
+}
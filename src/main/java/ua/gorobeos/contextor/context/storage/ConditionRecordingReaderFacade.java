@@ -0,0 +1,50 @@
+package ua.gorobeos.contextor.context.storage;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import ua.gorobeos.contextor.context.element.ConfigElementDefinition;
+import ua.gorobeos.contextor.context.element.ElementDefinition;
+import ua.gorobeos.contextor.context.readers.ElementDefinitionReaderFacade;
+
+// Remembers the type of every read definition, accepted or not, so a definition snapshot knows whose conditions to recheck
+@RequiredArgsConstructor
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+class ConditionRecordingReaderFacade implements ElementDefinitionReaderFacade {
+
+  ElementDefinitionReaderFacade delegate;
+  ElementDefinitionHolder elementDefinitionHolder;
+  @Getter
+  Set<Class<?>> evaluatedTypes = ConcurrentHashMap.newKeySet();
+
+  @Override
+  public void addElementDefinition(Class<?> clazz) {
+    acceptedDefinitions(readElementDefinition(clazz))
+        .forEach(elementDefinitionHolder::addElementDefinition);
+  }
+
+  @Override
+  public ElementDefinition readElementDefinition(Class<?> clazz) {
+    return delegate.readElementDefinition(clazz);
+  }
+
+  @Override
+  public List<ElementDefinition> acceptedDefinitions(ElementDefinition elementDefinition) {
+    evaluatedTypes.add(elementDefinition.getType());
+    if (elementDefinition instanceof ConfigElementDefinition configDefinition) {
+      configDefinition.getMethodDefinedElements()
+          .forEach(methodDefined -> evaluatedTypes.add(methodDefined.getType()));
+    }
+    return delegate.acceptedDefinitions(elementDefinition);
+  }
+
+  @Override
+  public Collection<ElementDefinition> getElementDefinitions() {
+    return delegate.getElementDefinitions();
+  }
+}
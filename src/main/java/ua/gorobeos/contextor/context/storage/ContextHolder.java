@@ -4,27 +4,55 @@ import static ua.gorobeos.contextor.context.element.ElementDefinition.PROTOTYPE_
 import static ua.gorobeos.contextor.context.element.ElementDefinition.SINGLETON_SCOPE;
 
 import ch.qos.logback.core.util.StringUtil;
-import java.lang.reflect.InvocationTargetException;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
 import lombok.extern.slf4j.Slf4j;
+import ua.gorobeos.contextor.context.aot.AotContextInitializer;
+import ua.gorobeos.contextor.context.aot.AotContextRegistry;
+import ua.gorobeos.contextor.context.aot.AotInitializers;
 import ua.gorobeos.contextor.context.conditions.ConditionEvaluationUtils;
+import ua.gorobeos.contextor.context.config.ConfigurationReader;
 import ua.gorobeos.contextor.context.dependencies.DependencyResolver;
 import ua.gorobeos.contextor.context.dependencies.SimpleDependencyResolver;
-import ua.gorobeos.contextor.context.dependencies.checker.DependencyCircularChecker;
-import ua.gorobeos.contextor.context.dependencies.checker.DfsDependencyCircularChecker;
+import ua.gorobeos.contextor.context.dependencies.checker.DependencyOrder;
+import ua.gorobeos.contextor.context.dependencies.checker.TarjanDependencyCircularChecker;
+import ua.gorobeos.contextor.context.element.AotElementDefinition;
 import ua.gorobeos.contextor.context.element.ElementDefinition;
 import ua.gorobeos.contextor.context.element.MethodDefinedElementDefinition;
+import ua.gorobeos.contextor.context.element.instantiation.ElementInstantiator;
+import ua.gorobeos.contextor.context.element.instantiation.InstantiationStrategy;
+import ua.gorobeos.contextor.context.exceptions.ContainerInitException;
+import ua.gorobeos.contextor.context.exceptions.ContextFrozenException;
 import ua.gorobeos.contextor.context.exceptions.ElementCreationException;
+import ua.gorobeos.contextor.context.exceptions.ElementNameConflictException;
+import ua.gorobeos.contextor.context.exceptions.UnresolvableDependencyException;
 import ua.gorobeos.contextor.context.readers.ElementDefinitionReaderFacade;
 import ua.gorobeos.contextor.context.readers.ElementDefinitionReaderFacadeImpl;
 import ua.gorobeos.contextor.context.scanner.ClasspathElementScanner;
+import ua.gorobeos.contextor.context.scanner.ParallelScanEngine;
 
 @Slf4j
 @Getter
@@ -33,100 +61,533 @@ import ua.gorobeos.contextor.context.scanner.ClasspathElementScanner;
 public class ContextHolder {
 
   Map<String, Object> nameToElementMap = new ConcurrentHashMap<>();
+  Map<Path, ContextPlugin> plugins = new ConcurrentHashMap<>();
+  @Getter(AccessLevel.NONE)
+  ElementSlots elementSlots = new ElementSlots();
+  // compiled on first creation; definitions changed behind the context's back are not seen by compiled plans
+  @Getter(AccessLevel.PACKAGE)
+  InjectionPlans injectionPlans = new InjectionPlans();
+  @Getter(AccessLevel.NONE)
+  SingletonCreations singletonCreations = new SingletonCreations();
+  // set once by freeze(), published through the volatile write; the record only holds final arrays
+  @NonFinal
+  @Getter(AccessLevel.NONE)
+  volatile FrozenElements frozenElements;
   ElementDefinitionHolder elementDefinitionHolder;
   ElementDefinitionReaderFacade elementDefinitionReaderFacade;
   DependencyResolver dependencyResolver;
+  ElementInstantiator elementInstantiator;
+
+  public ContextHolder(ElementDefinitionHolder elementDefinitionHolder, ElementDefinitionReaderFacade elementDefinitionReaderFacade,
+      DependencyResolver dependencyResolver) {
+    this(elementDefinitionHolder, elementDefinitionReaderFacade, dependencyResolver,
+        InstantiationStrategy.fromProperties().createInstantiator());
+  }
 
   public static ContextHolder initializeContext(Class<?> initClazz) {
+    return initializeContext(initClazz, ContextOptions.fromProperties());
+  }
+
+  public static ContextHolder initializeContext(Class<?> initClazz, ContextOptions contextOptions) {
     log.info("Initializing context with class: {}", initClazz.getName());
+    var aotInitializer = AotInitializers.find(initClazz);
+    if (aotInitializer.isPresent()) {
+      return initializeContext(aotInitializer.get(), contextOptions);
+    }
+    ElementDefinitionHolder elementDefinitionHolder = contextOptions.getDefinitionStore().createHolder();
+    ElementDefinitionReaderFacade elementDefinitionReaderFacade = new ElementDefinitionReaderFacadeImpl(elementDefinitionHolder);
+    DependencyResolver dependencyResolver = new SimpleDependencyResolver(elementDefinitionHolder);
+    var dependencyCircularChecker = new TarjanDependencyCircularChecker(dependencyResolver);
+
+    var definitionSnapshot = DefinitionSnapshot.fromProperties();
+    var restoredDefinitions = definitionSnapshot.flatMap(snapshot -> snapshot.read(initClazz));
+    if (restoredDefinitions.isPresent()) {
+      log.info("Registering class definitions from snapshot, scanning is skipped");
+      restoredDefinitions.get().forEach(elementDefinitionHolder::addElementDefinition);
+    } else if (definitionSnapshot.isPresent()) {
+      var recordingReaderFacade = new ConditionRecordingReaderFacade(elementDefinitionReaderFacade, elementDefinitionHolder);
+      loadDefinitions(initClazz, recordingReaderFacade, elementDefinitionHolder);
+      definitionSnapshot.get().write(initClazz, elementDefinitionHolder.getElementDefinitions(),
+          recordingReaderFacade.getEvaluatedTypes());
+    } else {
+      loadDefinitions(initClazz, elementDefinitionReaderFacade, elementDefinitionHolder);
+    }
+
+    var dependencyOrder = dependencyCircularChecker.orderDependenciesFirst(elementDefinitionHolder.getElementDefinitions());
+
+    log.info("Context initialized with {} element definitions", elementDefinitionHolder.getElementDefinitions().size());
+
+    ContextHolder contextHolder = new ContextHolder(elementDefinitionHolder, elementDefinitionReaderFacade, dependencyResolver,
+        contextOptions.getInstantiationStrategy().createInstantiator());
+
+    createElements(contextHolder, dependencyOrder, contextOptions);
+    if (contextOptions.isFrozen()) {
+      contextHolder.freeze();
+    }
+
+    return contextHolder;
+  }
+
+
+  // Definitions were scanned, resolved and checked for cycles at build time, only the elements are created here
+  private static ContextHolder initializeContext(AotContextInitializer aotInitializer, ContextOptions contextOptions) {
+    ElementDefinitionHolder elementDefinitionHolder = contextOptions.getDefinitionStore().createHolder();
+    var registry = new AotContextRegistry(aotInitializer, elementDefinitionHolder);
+    aotInitializer.registerDefinitions(registry);
+    log.info("Context initialized with {} generated element definitions", registry.getDefinitions().size());
+
+    ContextHolder contextHolder = new ContextHolder(elementDefinitionHolder,
+        new ElementDefinitionReaderFacadeImpl(elementDefinitionHolder), new SimpleDependencyResolver(elementDefinitionHolder),
+        contextOptions.getInstantiationStrategy().createInstantiator());
+
+    createElements(contextHolder, registry.getDependencyOrder(), contextOptions);
+    if (contextOptions.isFrozen()) {
+      contextHolder.freeze();
+    }
+
+    return contextHolder;
+  }
+
+  private static void createElements(ContextHolder contextHolder, DependencyOrder dependencyOrder, ContextOptions contextOptions) {
+    if (contextOptions.getInstantiationParallelism() > 1) {
+      new ParallelElementCreator(contextOptions.getInstantiationParallelism(), contextOptions.getInstantiationTimeout())
+          .create(dependencyOrder, contextHolder::getElement);
+    } else {
+      // dependencies first, so every element finds its dependencies already created
+      dependencyOrder.getDefinitions()
+          .stream()
+          .map(ElementDefinition::getName)
+          .forEach(contextHolder::getElement);
+    }
+  }
+
+  private static void loadDefinitions(Class<?> initClazz, ElementDefinitionReaderFacade elementDefinitionReaderFacade,
+      ElementDefinitionHolder elementDefinitionHolder) {
+    var pipelinedLoader = PipelinedDefinitionLoader.fromProperties(elementDefinitionReaderFacade, elementDefinitionHolder);
+    if (pipelinedLoader.isPresent()) {
+      log.info("Scanning and registering class definitions concurrently");
+      pipelinedLoader.get().load(initClazz);
+      return;
+    }
     var classesFound = ClasspathElementScanner.scanPackages(initClazz);
     log.debug("Classes found during scanning: {}", classesFound);
     log.info("Registering class definitions in context holder");
 
-    ElementDefinitionHolder elementDefinitionHolder = new DefaultElementDefinitionHolder();
-    ElementDefinitionReaderFacade elementDefinitionReaderFacade = new ElementDefinitionReaderFacadeImpl(elementDefinitionHolder);
-    DependencyResolver dependencyResolver = new SimpleDependencyResolver(elementDefinitionHolder);
-    DependencyCircularChecker dependencyCircularChecker = new DfsDependencyCircularChecker(dependencyResolver);
-
     classesFound.
         forEach(elementDefinitionReaderFacade::addElementDefinition);
+  }
 
-    elementDefinitionHolder.getElementDefinitions()
-        .forEach(dependencyCircularChecker::checkForCircularDependencies);
+  public Collection<ContextPlugin> loadPlugins(Set<Path> pluginJars) {
+    return loadPlugins(pluginJars, ContextHolder.class.getClassLoader());
+  }
 
-    log.info("Context initialized with {} element definitions", elementDefinitionHolder.getElementDefinitions().size());
+  // Each plugin jar gets its own class loader, child of parentClassLoader; jars are scanned and read in parallel
+  public Collection<ContextPlugin> loadPlugins(Set<Path> pluginJars, ClassLoader parentClassLoader) {
+    checkNotFrozen("load plugins");
+    var jarsToLoad = pluginJars.stream()
+        .map(jar -> jar.toAbsolutePath().normalize())
+        .distinct()
+        .filter(jar -> {
+          if (plugins.containsKey(jar)) {
+            log.warn("Plugin {} is already loaded, skipping it", jar);
+            return false;
+          }
+          return true;
+        })
+        .toList();
+    if (jarsToLoad.isEmpty()) {
+      return List.of();
+    }
+    log.info("Loading {} plugins", jarsToLoad.size());
 
-    ContextHolder contextHolder = new ContextHolder(elementDefinitionHolder, elementDefinitionReaderFacade, dependencyResolver);
+    var loadedPlugins = readPlugins(jarsToLoad, parentClassLoader);
+    synchronized (plugins) {
+      if (isFrozen()) {
+        // frozen while the jars were read
+        loadedPlugins.forEach(ContextHolder::closeClassLoader);
+      }
+      checkNotFrozen("load plugins");
+      List<ContextPlugin> registeredPlugins = new ArrayList<>();
+      try {
+        for (ContextPlugin plugin : loadedPlugins) {
+          registerPlugin(plugin);
+          registeredPlugins.add(plugin);
+        }
+        injectionPlans.invalidate();
+      } catch (RuntimeException e) {
+        registeredPlugins.forEach(plugin -> unloadPlugin(plugin.getJarPath()));
+        loadedPlugins.stream()
+            .filter(plugin -> !registeredPlugins.contains(plugin))
+            .forEach(ContextHolder::closeClassLoader);
+        throw new ContainerInitException("Failed to register plugins " + jarsToLoad, e);
+      }
+    }
 
-    elementDefinitionHolder.getElementDefinitions()
-        .stream()
-        .map(ElementDefinition::getName)
-        .forEach(contextHolder::getElement);
+    try {
+      new TarjanDependencyCircularChecker(dependencyResolver).checkForCircularDependencies(loadedPlugins.stream()
+          .flatMap(plugin -> plugin.getElementDefinitions().stream())
+          .toList());
+      loadedPlugins.stream()
+          .flatMap(plugin -> plugin.getElementDefinitions().stream())
+          .map(ElementDefinition::getName)
+          .forEach(this::getElement);
+    } catch (RuntimeException e) {
+      // a plugin whose elements can not be created is not left half loaded
+      log.error("Failed to create elements of plugins {}, unloading them", jarsToLoad);
+      loadedPlugins.forEach(plugin -> unloadPlugin(plugin.getJarPath()));
+      throw e;
+    }
 
-    return contextHolder;
+    log.info("Loaded plugins {}", jarsToLoad);
+    return loadedPlugins;
+  }
+
+  // Drops the plugin's definitions, singletons and class loader, so its classes can be unloaded
+  public boolean unloadPlugin(Path pluginJar) {
+    checkNotFrozen("unload plugins");
+    var plugin = plugins.remove(pluginJar.toAbsolutePath().normalize());
+    if (plugin == null) {
+      log.warn("Plugin {} is not loaded", pluginJar);
+      return false;
+    }
+    plugin.getElementDefinitions().forEach(elementDefinition -> {
+      elementDefinitionHolder.removeElementDefinition(elementDefinition.getName());
+      nameToElementMap.remove(elementDefinition.getName());
+      elementSlots.clear(elementDefinition.getName());
+    });
+    injectionPlans.invalidate();
+    closeClassLoader(plugin);
+    log.info("Unloaded plugin {} with {} element definitions", plugin.getJarPath(), plugin.getElementDefinitions().size());
+    return true;
+  }
+
+  // Replaces only the changed definitions; removed and modified elements lose their singletons, new ones are created eagerly
+  public void applyDelta(ElementDefinitionDelta delta) {
+    checkNotFrozen("apply definition changes");
+    if (delta.isEmpty()) {
+      return;
+    }
+    var replacedNames = Stream.concat(delta.getRemovedNames().stream(),
+            delta.getModifiedDefinitions().stream().map(ElementDefinition::getName))
+        .collect(Collectors.toSet());
+    List<ElementDefinition> registeredDefinitions = new ArrayList<>(delta.getModifiedDefinitions());
+    registeredDefinitions.addAll(delta.getAddedDefinitions());
+    List<ElementDefinition> replacedDefinitions = new ArrayList<>();
+    Map<String, Object> replacedElements = new HashMap<>();
+
+    synchronized (plugins) {
+      checkNotFrozen("apply definition changes");
+      delta.getAddedDefinitions().stream()
+          .map(ElementDefinition::getName)
+          .filter(name -> elementDefinitionHolder.getElementDefinition(name).isPresent())
+          .findFirst()
+          .ifPresent(name -> {
+            throw new ElementNameConflictException("Element definition with name '%s' already exists".formatted(name));
+          });
+      replacedNames.forEach(name -> {
+        elementDefinitionHolder.removeElementDefinition(name).ifPresent(replacedDefinitions::add);
+        Optional.ofNullable(nameToElementMap.remove(name)).ifPresent(element -> replacedElements.put(name, element));
+        elementSlots.clear(name);
+      });
+      registeredDefinitions.forEach(elementDefinitionHolder::addElementDefinition);
+      injectionPlans.invalidate();
+    }
+
+    try {
+      new TarjanDependencyCircularChecker(dependencyResolver).checkForCircularDependencies(registeredDefinitions);
+      registeredDefinitions.stream()
+          .map(ElementDefinition::getName)
+          .forEach(this::getElement);
+    } catch (RuntimeException e) {
+      log.error("Failed to apply definition delta, restoring the previous definitions");
+      restoreDefinitions(registeredDefinitions, replacedDefinitions, replacedElements);
+      throw e;
+    }
+
+    log.info("Applied definition delta: {} added, {} modified, {} removed", delta.getAddedDefinitions().size(),
+        delta.getModifiedDefinitions().size(), delta.getRemovedNames().size());
   }
 
+  // puts back what applyDelta replaced, together with the singletons the replaced definitions had
+  private void restoreDefinitions(List<ElementDefinition> registeredDefinitions, List<ElementDefinition> replacedDefinitions,
+      Map<String, Object> replacedElements) {
+    synchronized (plugins) {
+      registeredDefinitions.forEach(elementDefinition -> {
+        elementDefinitionHolder.removeElementDefinition(elementDefinition.getName());
+        nameToElementMap.remove(elementDefinition.getName());
+        elementSlots.clear(elementDefinition.getName());
+      });
+      replacedDefinitions.forEach(elementDefinitionHolder::addElementDefinition);
+      nameToElementMap.putAll(replacedElements);
+      injectionPlans.invalidate();
+    }
+  }
 
   public Optional<Object> getElement(String name) {
-    if (nameToElementMap.containsKey(name)) {
-      return Optional.ofNullable(nameToElementMap.get(name));
+    var frozen = frozenElements;
+    if (frozen != null) {
+      return getFrozenElement(frozen, name);
+    }
+    var element = nameToElementMap.get(name);
+    if (element != null) {
+      return Optional.of(element);
     }
-    var elementDefinitionOptional = elementDefinitionHolder.getElementDefinition(name);
-    if (elementDefinitionOptional.isEmpty()) {
+    var injectionPlan = injectionPlans.get(name, this::compileInjectionPlan);
+    if (injectionPlan == null) {
       log.error("Element definition for name '{}' not found", name);
       return Optional.empty();
     }
-    var elementDefinition = elementDefinitionOptional.get();
+    if (injectionPlan.isSingleton()) {
+      return Optional.of(singletonCreations.getOrCreate(name, nameToElementMap, () -> createElementInstance(injectionPlan)));
+    }
+    return Optional.ofNullable(createElementInstance(injectionPlan));
+  }
 
-    log.debug("Creating new instance for element definition: {}", elementDefinition);
 
-    return Optional.ofNullable(createElementInstance(elementDefinition));
+  // Resolves the name once; reading the handle is then a single array load for singletons
+  public <T> ElementHandle<T> getHandle(String name, Class<T> type) {
+    var elementDefinition = elementDefinitionHolder.getElementDefinition(name)
+        .orElseThrow(() -> new NoSuchElementException("Element definition for name '%s' not found".formatted(name)));
+    if (!type.isAssignableFrom(elementDefinition.getType())) {
+      throw new UnresolvableDependencyException("Element '%s' of type '%s' is not assignable to '%s'".formatted(
+          name, elementDefinition.getType().getName(), type.getName()));
+    }
+    return new ElementHandle<>(elementSlots, elementSlots.idOf(name), name, type);
   }
 
+  // The element is picked as for an unqualified dependency of the type, primary elements first
+  public <T> ElementHandle<T> getHandle(Class<T> type) {
+    return getHandle(dependencyResolver.getDependencyDefinitionForClass(type).getName(), type);
+  }
 
-  private Object createElementInstance(ElementDefinition elementDefinition) {
-    var dependenciesDefinitions = elementDefinition.getDependencies()
+  @SuppressWarnings("unchecked")
+  public <T> T get(ElementHandle<T> handle) {
+    if (!handle.belongsTo(elementSlots)) {
+      throw new IllegalArgumentException("Element handle %s belongs to another context".formatted(handle));
+    }
+    var element = elementSlots.get(handle.getId());
+    if (element != null) {
+      return (T) element;
+    }
+    return getThroughName(handle);
+  }
+
+  private <T> T getThroughName(ElementHandle<T> handle) {
+    var element = getElement(handle.getName())
+        .orElseThrow(() -> new NoSuchElementException("Element '%s' not found".formatted(handle.getName())));
+    // only singletons are cached, prototypes are created on every read
+    if (nameToElementMap.get(handle.getName()) == element) {
+      elementSlots.cache(handle.getId(), element, () -> nameToElementMap.get(handle.getName()) == element);
+    }
+    return handle.getType().cast(element);
+  }
+
+  // Compiles the element set into final arrays behind a perfect hash of the names: getElement becomes a single probe
+  // that allocates nothing for singletons, while loading plugins or applying deltas fails from then on
+  public void freeze() {
+    synchronized (plugins) {
+      if (frozenElements != null) {
+        return;
+      }
+      var elementDefinitions = elementDefinitionHolder.getElementDefinitions();
+      // prototypes are created on every lookup anyway, only the singletons are created up front
+      elementDefinitions.stream()
+          .map(ElementDefinition::getName)
+          .filter(name -> injectionPlans.get(name, this::compileInjectionPlan).isSingleton())
+          .forEach(this::getElement);
+      var names = FrozenNameTable.of(elementDefinitions.stream().map(ElementDefinition::getName).toList());
+      var singletons = new Optional<?>[names.capacity()];
+      var prototypes = new ElementDefinition[names.capacity()];
+      for (ElementDefinition elementDefinition : elementDefinitions) {
+        int slot = names.slotOf(elementDefinition.getName());
+        var singleton = nameToElementMap.get(elementDefinition.getName());
+        if (singleton != null) {
+          singletons[slot] = Optional.of(singleton);
+        } else {
+          prototypes[slot] = elementDefinition;
+        }
+      }
+      elementDefinitionHolder.freeze();
+      frozenElements = new FrozenElements(names, singletons, prototypes);
+      log.info("Context frozen with {} elements", elementDefinitions.size());
+    }
+  }
+
+  public boolean isFrozen() {
+    return frozenElements != null;
+  }
+
+  @SuppressWarnings("unchecked")
+  private Optional<Object> getFrozenElement(FrozenElements frozen, String name) {
+    int slot = frozen.names().slotOf(name);
+    if (slot < 0) {
+      log.debug("Element '{}' is not in the frozen context", name);
+      return Optional.empty();
+    }
+    var singleton = frozen.singletons()[slot];
+    if (singleton != null) {
+      return (Optional<Object>) singleton;
+    }
+    return Optional.ofNullable(createElementInstance(
+        injectionPlans.get(name, elementName -> compileInjectionPlan(frozen.prototypes()[slot]))));
+  }
+
+  private void checkNotFrozen(String operation) {
+    if (frozenElements != null) {
+      throw new ContextFrozenException("Context is frozen, can not %s".formatted(operation));
+    }
+  }
+
+  private List<ContextPlugin> readPlugins(List<Path> pluginJars, ClassLoader parentClassLoader) {
+    if (pluginJars.size() == 1) {
+      return List.of(readPlugin(pluginJars.get(0), parentClassLoader));
+    }
+    int parallelism = ConfigurationReader.getOrDefault(ParallelScanEngine.SCAN_PARALLELISM_PROPERTY,
+        Runtime.getRuntime().availableProcessors(), Integer::parseInt);
+    List<Callable<ContextPlugin>> pluginReads = pluginJars.stream()
+        .<Callable<ContextPlugin>>map(jar -> () -> readPlugin(jar, parentClassLoader))
+        .toList();
+
+    var pool = new ForkJoinPool(Math.max(1, Math.min(parallelism, pluginJars.size())));
+    List<ContextPlugin> readPlugins = new ArrayList<>();
+    try {
+      for (Future<ContextPlugin> pluginRead : pool.invokeAll(pluginReads)) {
+        readPlugins.add(pluginRead.get());
+      }
+      return readPlugins;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      readPlugins.forEach(ContextHolder::closeClassLoader);
+      throw new ContainerInitException("Plugin loading was interrupted", e);
+    } catch (ExecutionException e) {
+      readPlugins.forEach(ContextHolder::closeClassLoader);
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new ContainerInitException("Failed to load plugins", e.getCause());
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  // Definitions are read into a holder of their own, so reads of different plugins never contend
+  private ContextPlugin readPlugin(Path pluginJar, ClassLoader parentClassLoader) {
+    var classLoader = createPluginClassLoader(pluginJar, parentClassLoader);
+    try {
+      var pluginDefinitionHolder = new DefaultElementDefinitionHolder();
+      var pluginDefinitionReader = new ElementDefinitionReaderFacadeImpl(pluginDefinitionHolder);
+      ClasspathElementScanner.scanJar(pluginJar, classLoader)
+          .forEach(pluginDefinitionReader::addElementDefinition);
+      log.debug("Read {} element definitions from plugin {}", pluginDefinitionHolder.getElementDefinitions().size(), pluginJar);
+      return new ContextPlugin(pluginJar, classLoader, pluginDefinitionHolder.getElementDefinitions());
+    } catch (RuntimeException e) {
+      closeClassLoader(pluginJar, classLoader);
+      throw e;
+    }
+  }
+
+  private void registerPlugin(ContextPlugin plugin) {
+    List<String> registeredNames = new ArrayList<>();
+    try {
+      for (ElementDefinition elementDefinition : plugin.getElementDefinitions()) {
+        elementDefinitionHolder.addElementDefinition(elementDefinition);
+        registeredNames.add(elementDefinition.getName());
+      }
+    } catch (RuntimeException e) {
+      registeredNames.forEach(elementDefinitionHolder::removeElementDefinition);
+      throw e;
+    }
+    plugins.put(plugin.getJarPath(), plugin);
+  }
+
+  private static URLClassLoader createPluginClassLoader(Path pluginJar, ClassLoader parentClassLoader) {
+    try {
+      return new URLClassLoader("plugin:" + pluginJar.getFileName(), new URL[]{pluginJar.toUri().toURL()}, parentClassLoader);
+    } catch (MalformedURLException e) {
+      throw new ContainerInitException("Invalid plugin jar path: " + pluginJar, e);
+    }
+  }
+
+  private static void closeClassLoader(ContextPlugin plugin) {
+    closeClassLoader(plugin.getJarPath(), plugin.getClassLoader());
+  }
+
+  private static void closeClassLoader(Path pluginJar, URLClassLoader classLoader) {
+    try {
+      classLoader.close();
+    } catch (IOException e) {
+      log.warn("Failed to close class loader of plugin {}: {}", pluginJar, e.getMessage());
+    }
+  }
+
+  private InjectionPlan compileInjectionPlan(String name) {
+    return elementDefinitionHolder.getElementDefinition(name)
+        .map(this::compileInjectionPlan)
+        .orElse(null);
+  }
+
+  private InjectionPlan compileInjectionPlan(ElementDefinition elementDefinition) {
+    log.debug("Compiling injection plan for element definition: {}", elementDefinition);
+    var plan = InjectionPlan.builder()
+        .elementDefinition(elementDefinition)
+        .singleton(SINGLETON_SCOPE.equals(elementDefinition.getScope()));
+
+    if (elementDefinition instanceof AotElementDefinition aotDefined) {
+      return plan
+          .dependencies(aotDefined.getDependencyNames().stream().map(this::dependencyHandle).toArray(ElementHandle<?>[]::new))
+          .conditional(aotDefined.isConditional() && PROTOTYPE_SCOPE.equals(aotDefined.getScope()))
+          .factory((owner, dependencies) -> createAotElement(aotDefined, dependencies))
+          .build();
+    }
+    plan.dependencies(elementDefinition.getDependencies()
         .stream()
         .map(dependencyResolver::retrieveDependency)
         .map(ElementDefinition::getName)
-        .map(this::getElement)
-        .flatMap(Optional::stream)
-        .toArray();
+        .map(this::dependencyHandle)
+        .toArray(ElementHandle<?>[]::new));
+    if (elementDefinition instanceof MethodDefinedElementDefinition methodDefined) {
+      return plan
+          .owner(dependencyHandle(StringUtil.lowercaseFirstLetter(methodDefined.getConfigClass().getSimpleName())))
+          .factory((owner, dependencies) -> elementInstantiator.instantiate(methodDefined, owner, dependencies))
+          .build();
+    }
+    return plan
+        .conditional(PROTOTYPE_SCOPE.equals(elementDefinition.getScope()))
+        .factory((owner, dependencies) -> elementInstantiator.instantiate(elementDefinition, null, dependencies))
+        .build();
+  }
 
-    log.debug("Creating instance of element: {} with dependencies: {}", elementDefinition.getName(), dependenciesDefinitions);
+  private ElementHandle<Object> dependencyHandle(String name) {
+    return new ElementHandle<>(elementSlots, elementSlots.idOf(name), name, Object.class);
+  }
 
-    Object createdElement;
-    if (elementDefinition instanceof MethodDefinedElementDefinition methodDefined) {
-      log.debug("Creating element using method defined element definition: {}", methodDefined);
-      var configElement = getElement(StringUtil.lowercaseFirstLetter(methodDefined.getConfigClass().getSimpleName()))
-          .orElseThrow(() -> new NoSuchElementException(
-              "Config element '%s' not found for method defined element '%s'".formatted(
-                  StringUtil.lowercaseFirstLetter(methodDefined.getConfigClass().getSimpleName()),
-                  methodDefined.getName())));
-      try {
-        log.debug("------Invoking init method '{}' on config element: {}", methodDefined.getInitMethod().getName(), configElement);
-        createdElement = methodDefined.getInitMethod().invoke(configElement, dependenciesDefinitions);
-      } catch (IllegalAccessException | InvocationTargetException e) {
-        throw new ElementCreationException(
-            "Failed to invoke init method '%s' on config element '%s' with dependencies: %s".formatted(
-                methodDefined.getInitMethod().getName(), configElement, dependenciesDefinitions), e);
-      }
-    } else {
+  private Object createElementInstance(InjectionPlan injectionPlan) {
+    var elementDefinition = injectionPlan.getElementDefinition();
+    var dependencyHandles = injectionPlan.getDependencies();
+    var dependencies = new Object[dependencyHandles.length];
+    for (int i = 0; i < dependencyHandles.length; i++) {
+      dependencies[i] = get(dependencyHandles[i]);
+    }
+    var owner = injectionPlan.getOwner() == null ? null : get(injectionPlan.getOwner());
+    if (injectionPlan.isConditional()) {
       checkConditionsIfPrototype(elementDefinition);
-      createdElement = initElementByConstructor(elementDefinition, dependenciesDefinitions);
     }
 
-    log.info("Element '{}' created successfully with dependencies: {}", elementDefinition.getName(), dependenciesDefinitions);
-    if (SINGLETON_SCOPE.equals(elementDefinition.getScope())) {
-      log.debug("Registering element '{}' in context holder", elementDefinition.getName());
-      nameToElementMap.put(elementDefinition.getName(), createdElement);
-      return createdElement;
-    } else {
-      log.debug("Element '{}' is prototype, not registering in context holder", elementDefinition.getName());
-    }
+    var createdElement = injectionPlan.getFactory().create(owner, dependencies);
+
+    log.info("Element '{}' created successfully with dependencies: {}", elementDefinition.getName(), dependencies);
     return createdElement;
   }
 
+  private static Object createAotElement(AotElementDefinition elementDefinition, Object[] dependencies) {
+    try {
+      return elementDefinition.getInitializer().createElement(elementDefinition.getIndex(), dependencies);
+    } catch (Exception e) {
+      throw new ElementCreationException("Failed to create instance of element '%s' with dependencies: %s".formatted(
+          elementDefinition.getName(), elementDefinition.getDependencyNames()), e);
+    }
+  }
+
   private void checkConditionsIfPrototype(ElementDefinition elementDefinition) {
     if (!PROTOTYPE_SCOPE.equals(elementDefinition.getScope())) {
       return;
@@ -142,17 +603,7 @@ public class ContextHolder {
     }
   }
 
-  private static Object initElementByConstructor(ElementDefinition elementDefinition, Object[] dependenciesDefinitions) {
-    var initConstructor = elementDefinition.getInitConstructor();
-    initConstructor.setAccessible(true);
-    try {
-      return initConstructor.newInstance(dependenciesDefinitions);
-    } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
-      throw new ElementCreationException(
-          "Failed to create instance of element '%s' using constructor '%s' with dependencies: %s".formatted(
-              elementDefinition.getName(), initConstructor, dependenciesDefinitions), e);
-    }
-  }
-
+  private record FrozenElements(FrozenNameTable names, Optional<?>[] singletons, ElementDefinition[] prototypes) {
 
+  }
 }
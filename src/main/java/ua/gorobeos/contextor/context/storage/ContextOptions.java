@@ -0,0 +1,39 @@
+package ua.gorobeos.contextor.context.storage;
+
+import java.time.Duration;
+import lombok.Builder;
+import lombok.Value;
+import ua.gorobeos.contextor.context.config.ConfigurationReader;
+import ua.gorobeos.contextor.context.element.instantiation.InstantiationStrategy;
+
+// Per context settings; anything left unset falls back to the configuration properties
+@Value
+@Builder
+public class ContextOptions {
+
+  public static final String FREEZE_PROPERTY = "contextor.context.freeze";
+  public static final String INSTANTIATION_PARALLELISM_PROPERTY = "contextor.instantiation.parallelism";
+  public static final String INSTANTIATION_TIMEOUT_PROPERTY = "contextor.instantiation.timeout.ms";
+
+  @Builder.Default
+  InstantiationStrategy instantiationStrategy = InstantiationStrategy.fromProperties();
+
+  @Builder.Default
+  DefinitionStore definitionStore = DefinitionStore.fromProperties();
+
+  @Builder.Default
+  boolean frozen = ConfigurationReader.getOrDefault(FREEZE_PROPERTY, false, Boolean::parseBoolean);
+
+  // more than one creates the elements of independent dependency chains at the same time
+  @Builder.Default
+  int instantiationParallelism = ConfigurationReader.getOrDefault(INSTANTIATION_PARALLELISM_PROPERTY, 1, Integer::parseInt);
+
+  // how long a single element may take to be created in parallel instantiation, zero for no limit
+  @Builder.Default
+  Duration instantiationTimeout = Duration.ofMillis(
+      ConfigurationReader.getOrDefault(INSTANTIATION_TIMEOUT_PROPERTY, 0L, Long::parseLong));
+
+  public static ContextOptions fromProperties() {
+    return ContextOptions.builder().build();
+  }
+}
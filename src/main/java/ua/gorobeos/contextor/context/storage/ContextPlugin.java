@@ -0,0 +1,16 @@
+package ua.gorobeos.contextor.context.storage;
+
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.Collection;
+import lombok.Value;
+import ua.gorobeos.contextor.context.element.ElementDefinition;
+
+// A plugin jar loaded into a running context: everything that has to go away when it is unloaded
+@Value
+public class ContextPlugin {
+
+  Path jarPath;
+  URLClassLoader classLoader;
+  Collection<ElementDefinition> elementDefinitions;
+}
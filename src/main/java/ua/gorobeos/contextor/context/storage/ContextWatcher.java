@@ -0,0 +1,318 @@
+package ua.gorobeos.contextor.context.storage;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import ua.gorobeos.contextor.context.config.ConfigurationReader;
+import ua.gorobeos.contextor.context.element.ElementDefinition;
+import ua.gorobeos.contextor.context.element.MethodDefinedElementDefinition;
+import ua.gorobeos.contextor.context.exceptions.ContainerInitException;
+import ua.gorobeos.contextor.context.readers.ElementDefinitionReaderFacadeImpl;
+import ua.gorobeos.contextor.context.scanner.ClasspathElementScanner;
+import ua.gorobeos.contextor.context.scanner.ClasspathRoot;
+import ua.gorobeos.contextor.context.scanner.ScanFilter;
+import ua.gorobeos.contextor.context.utils.ScannerUtils;
+
+// Dev mode: watches the compiled-classes directories of the scanned packages and applies only the changed element
+// definitions to the running context. Every reload defines the changed classes, and the classes of elements depending
+// on them, in a new class loader generation, since a loaded class can not be redefined in place.
+@Slf4j
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class ContextWatcher implements AutoCloseable {
+
+  public static final String WATCH_DEBOUNCE_PROPERTY = "contextor.watch.debounce.ms";
+
+  private static final String CLASS_EXTENSION = ".class";
+
+  ContextHolder contextHolder;
+  List<String> basePackages;
+  ScanFilter scanFilter;
+  List<Path> classesDirectories;
+  WatchService watchService;
+  Map<WatchKey, Path> watchedDirectories = new ConcurrentHashMap<>();
+  Consumer<ElementDefinitionDelta> deltaListener;
+  Duration debounce;
+  AtomicInteger generation = new AtomicInteger();
+  Thread watchThread;
+  AtomicReference<ClassLoader> currentClassLoader;
+
+  private ContextWatcher(ContextHolder contextHolder, Class<?> initClazz, Consumer<ElementDefinitionDelta> deltaListener)
+      throws IOException {
+    this.contextHolder = contextHolder;
+    this.basePackages = ScannerUtils.collapsePackages(ClasspathElementScanner.resolvePackages(initClazz));
+    this.scanFilter = ClasspathElementScanner.resolveScanFilter(initClazz);
+    this.classesDirectories = resolveClassesDirectories(initClazz.getClassLoader(), basePackages);
+    this.deltaListener = deltaListener;
+    this.debounce = Duration.ofMillis(ConfigurationReader.getOrDefault(WATCH_DEBOUNCE_PROPERTY, 200L, Long::parseLong));
+    this.currentClassLoader = new AtomicReference<>(initClazz.getClassLoader());
+    this.watchService = classesDirectories.get(0).getFileSystem().newWatchService();
+    this.watchThread = new Thread(this::watchLoop, "contextor-watch");
+    this.watchThread.setDaemon(true);
+  }
+
+  public static ContextWatcher start(ContextHolder contextHolder, Class<?> initClazz) {
+    return start(contextHolder, initClazz, delta -> {});
+  }
+
+  public static ContextWatcher start(ContextHolder contextHolder, Class<?> initClazz,
+      Consumer<ElementDefinitionDelta> deltaListener) {
+    try {
+      var watcher = new ContextWatcher(contextHolder, initClazz, deltaListener);
+      for (Path classesDirectory : watcher.classesDirectories) {
+        for (String basePackage : watcher.basePackages) {
+          var packageDirectory = classesDirectory.resolve(basePackage.replace('.', '/'));
+          if (Files.isDirectory(packageDirectory)) {
+            watcher.registerTree(packageDirectory);
+          }
+        }
+      }
+      watcher.watchThread.start();
+      log.info("Watching {} directories under {} for class changes", watcher.watchedDirectories.size(),
+          watcher.classesDirectories);
+      return watcher;
+    } catch (IOException e) {
+      throw new ContainerInitException("Failed to start watching classes of " + initClazz.getName(), e);
+    }
+  }
+
+  @Override
+  public void close() {
+    watchThread.interrupt();
+    try {
+      watchService.close();
+    } catch (IOException e) {
+      log.warn("Failed to close watch service: {}", e.getMessage());
+    }
+  }
+
+  private void watchLoop() {
+    while (!Thread.currentThread().isInterrupted()) {
+      try {
+        Set<Path> changedFiles = new HashSet<>();
+        collectChanges(watchService.take(), changedFiles);
+        // compilers write class files one by one, the reload waits until they are quiet
+        WatchKey nextKey;
+        while ((nextKey = watchService.poll(debounce.toMillis(), TimeUnit.MILLISECONDS)) != null) {
+          collectChanges(nextKey, changedFiles);
+        }
+        reload(changedFiles);
+      } catch (InterruptedException | ClosedWatchServiceException e) {
+        Thread.currentThread().interrupt();
+      } catch (RuntimeException e) {
+        log.error("Failed to apply class changes to the context", e);
+      }
+    }
+    log.debug("Stopped watching class changes");
+  }
+
+  private void collectChanges(WatchKey key, Set<Path> changedFiles) {
+    var directory = watchedDirectories.get(key);
+    for (var event : key.pollEvents()) {
+      if (event.kind() == OVERFLOW || directory == null) {
+        log.warn("Missed some changes under {}, rescanning it", directory);
+        Optional.ofNullable(directory).ifPresent(missedDirectory -> changedFiles.addAll(classFiles(missedDirectory)));
+        continue;
+      }
+      var path = directory.resolve((Path) event.context());
+      if (event.kind() == ENTRY_CREATE && Files.isDirectory(path)) {
+        // class files may have been written before the new directory got registered
+        registerTree(path);
+        changedFiles.addAll(classFiles(path));
+      } else if (path.getFileName().toString().endsWith(CLASS_EXTENSION)) {
+        changedFiles.add(path);
+      }
+    }
+    if (!key.reset()) {
+      watchedDirectories.remove(key);
+    }
+  }
+
+  private void reload(Set<Path> changedFiles) {
+    var changedClassNames = changedFiles.stream()
+        .map(this::toClassName)
+        .flatMap(Optional::stream)
+        .filter(className -> ScannerUtils.isInPackages(className, basePackages))
+        .collect(Collectors.toSet());
+    if (changedClassNames.isEmpty()) {
+      return;
+    }
+    log.info("Reloading changed classes: {}", changedClassNames);
+
+    var reloadedClassNames = withDependentClasses(changedClassNames);
+    var classLoader = new ReloadingClassLoader(generation.incrementAndGet(), toUrls(classesDirectories), reloadedClassNames,
+        currentClassLoader.get());
+    var delta = computeDelta(reloadedClassNames, classLoader);
+    contextHolder.applyDelta(delta);
+    // a generation that failed to apply is not the parent of the next one
+    currentClassLoader.set(classLoader);
+    deltaListener.accept(delta);
+  }
+
+  private ElementDefinitionDelta computeDelta(Set<String> reloadedClassNames, ReloadingClassLoader classLoader) {
+    Map<String, byte[]> classFiles = new HashMap<>();
+    reloadedClassNames.forEach(className -> readClassFile(className)
+        .ifPresent(classFile -> classFiles.put(className, classFile)));
+
+    var reloadedDefinitionHolder = new DefaultElementDefinitionHolder();
+    var reloadedDefinitionReader = new ElementDefinitionReaderFacadeImpl(reloadedDefinitionHolder);
+    ClasspathElementScanner.scanClassFiles(classFiles, classLoader, scanFilter)
+        .forEach(reloadedDefinitionReader::addElementDefinition);
+
+    var previousNames = contextHolder.getElementDefinitionHolder().getElementDefinitions().stream()
+        .filter(elementDefinition -> reloadedClassNames.contains(ownerClassName(elementDefinition)))
+        .map(ElementDefinition::getName)
+        .collect(Collectors.toSet());
+    var delta = ElementDefinitionDelta.builder();
+    Set<String> reloadedNames = new HashSet<>();
+    for (ElementDefinition elementDefinition : reloadedDefinitionHolder.getElementDefinitions()) {
+      reloadedNames.add(elementDefinition.getName());
+      if (previousNames.contains(elementDefinition.getName())) {
+        delta.modifiedDefinition(elementDefinition);
+      } else {
+        delta.addedDefinition(elementDefinition);
+      }
+    }
+    previousNames.stream()
+        .filter(name -> !reloadedNames.contains(name))
+        .forEach(delta::removedName);
+    return delta.build();
+  }
+
+  // Elements injected with a reloaded class would keep its previous version, so their classes are reloaded as well
+  private Set<String> withDependentClasses(Set<String> changedClassNames) {
+    Set<String> reloadedClassNames = new HashSet<>(changedClassNames);
+    var elementDefinitions = contextHolder.getElementDefinitionHolder().getElementDefinitions();
+    boolean grown = true;
+    while (grown) {
+      grown = false;
+      for (ElementDefinition elementDefinition : elementDefinitions) {
+        var ownerClassName = ownerClassName(elementDefinition);
+        if (!reloadedClassNames.contains(ownerClassName)
+            && dependsOnAny(elementDefinition, reloadedClassNames)
+            && findClassFile(ownerClassName).isPresent()) {
+          reloadedClassNames.add(ownerClassName);
+          grown = true;
+        }
+      }
+    }
+    return reloadedClassNames;
+  }
+
+  private boolean dependsOnAny(ElementDefinition elementDefinition, Set<String> classNames) {
+    return elementDefinition.getDependencies().stream().anyMatch(dependency -> {
+      try {
+        return classNames.contains(ownerClassName(contextHolder.getDependencyResolver().retrieveDependency(dependency)));
+      } catch (RuntimeException e) {
+        log.debug("Dependency {} of '{}' is not resolvable: {}", dependency, elementDefinition.getName(), e.getMessage());
+        return false;
+      }
+    });
+  }
+
+  private static String ownerClassName(ElementDefinition elementDefinition) {
+    if (elementDefinition instanceof MethodDefinedElementDefinition methodDefined) {
+      return methodDefined.getConfigClass().getName();
+    }
+    return elementDefinition.getType().getName();
+  }
+
+  private Optional<byte[]> readClassFile(String className) {
+    return findClassFile(className).map(classFile -> {
+      try {
+        return Files.readAllBytes(classFile);
+      } catch (IOException e) {
+        throw new UncheckedIOException("Failed to read class file " + classFile, e);
+      }
+    });
+  }
+
+  private Optional<Path> findClassFile(String className) {
+    var relativePath = className.replace('.', '/') + CLASS_EXTENSION;
+    return classesDirectories.stream()
+        .map(classesDirectory -> classesDirectory.resolve(relativePath))
+        .filter(Files::isRegularFile)
+        .findFirst();
+  }
+
+  private Optional<String> toClassName(Path classFile) {
+    return classesDirectories.stream()
+        .filter(classFile::startsWith)
+        .findFirst()
+        .map(classesDirectory -> classesDirectory.relativize(classFile).toString().replace('\\', '/'))
+        .filter(relativePath -> !relativePath.endsWith("-info" + CLASS_EXTENSION))
+        .map(relativePath -> relativePath.substring(0, relativePath.length() - CLASS_EXTENSION.length()).replace('/', '.'));
+  }
+
+  private void registerTree(Path directory) {
+    try (Stream<Path> directories = Files.walk(directory)) {
+      for (Path subdirectory : directories.filter(Files::isDirectory).toList()) {
+        watchedDirectories.put(subdirectory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE), subdirectory);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to watch directory " + directory, e);
+    }
+  }
+
+  private static Collection<Path> classFiles(Path directory) {
+    try (Stream<Path> files = Files.walk(directory)) {
+      return files.filter(file -> file.getFileName().toString().endsWith(CLASS_EXTENSION)).toList();
+    } catch (IOException e) {
+      log.warn("Failed to list class files under {}: {}", directory, e.getMessage());
+      return List.of();
+    }
+  }
+
+  private static List<Path> resolveClassesDirectories(ClassLoader classLoader, List<String> basePackages) {
+    var classesDirectories = basePackages.stream()
+        .flatMap(basePackage -> ScannerUtils.resolveRoots(classLoader, basePackage).stream())
+        .filter(root -> root.getKind() == ClasspathRoot.Kind.DIRECTORY)
+        .map(root -> Path.of(root.getLocation()).toAbsolutePath().normalize())
+        .distinct()
+        .toList();
+    if (classesDirectories.isEmpty()) {
+      throw new ContainerInitException("No class directories to watch for packages " + basePackages);
+    }
+    return classesDirectories;
+  }
+
+  private static URL[] toUrls(List<Path> directories) {
+    try {
+      var urls = new URL[directories.size()];
+      for (int i = 0; i < urls.length; i++) {
+        urls[i] = directories.get(i).toUri().toURL();
+      }
+      return urls;
+    } catch (MalformedURLException e) {
+      throw new ContainerInitException("Invalid class directory in " + directories, e);
+    }
+  }
+}
@@ -1,13 +1,16 @@
 package ua.gorobeos.contextor.context.storage;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicReference;
 import lombok.AccessLevel;
 import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
 import lombok.extern.slf4j.Slf4j;
 import ua.gorobeos.contextor.context.element.ElementDefinition;
 import ua.gorobeos.contextor.context.exceptions.ElementNameConflictException;
@@ -17,42 +20,90 @@ import ua.gorobeos.contextor.context.exceptions.ElementNameConflictException;
 public class DefaultElementDefinitionHolder implements ElementDefinitionHolder {
 
   ConcurrentMap<String, ElementDefinition> elementDefinitionMap = new ConcurrentHashMap<>();
+  Map<String, ElementDefinition> elementDefinitionMapView = Collections.unmodifiableMap(elementDefinitionMap);
+  ElementTypeIndex<ElementDefinition> typeIndex = new ElementTypeIndex<>();
+  @NonFinal
+  volatile FrozenDefinitions frozenDefinitions;
 
   @Override
   public void addElementDefinition(ElementDefinition elementDefinition) {
     String elementName = elementDefinition.getName();
-    if (elementDefinitionMap.containsKey(elementName)) {
-      log.error("Conflict detected: Element definition for '{}' already exists. [{}]", elementName, elementDefinitionMap.get(elementName));
+    if (frozenDefinitions != null) {
+      throw FrozenDefinitions.mutationFailure(elementName);
+    }
+    var existing = new AtomicReference<ElementDefinition>();
+    // indexed under the lock of the name's entry, so a concurrent removal of the name also finds it in the index
+    elementDefinitionMap.compute(elementName, (name, existingDefinition) -> {
+      if (existingDefinition != null) {
+        existing.set(existingDefinition);
+        return existingDefinition;
+      }
+      typeIndex.add(elementDefinition.getType(), elementDefinition);
+      return elementDefinition;
+    });
+    var existingDefinition = existing.get();
+    if (existingDefinition != null) {
+      log.error("Conflict detected: Element definition for '{}' already exists. [{}]", elementName, existingDefinition);
       throw new ElementNameConflictException("Element definition with name '%s' already exists".formatted(elementName));
     }
-    elementDefinitionMap.put(elementName, elementDefinition);
     log.info("Added element definition for: {}", elementName);
   }
 
   @Override
   public Optional<ElementDefinition> getElementDefinition(String elementName) {
-    if (!elementDefinitionMap.containsKey(elementName)) {
+    var frozen = frozenDefinitions;
+    if (frozen != null) {
+      return frozen.get(elementName);
+    }
+    // a single read, so a concurrent removal can not slip in between a check and the get
+    var elementDefinition = elementDefinitionMap.get(elementName);
+    if (elementDefinition == null) {
       log.warn("Element definition for '{}' not found.", elementName);
-      return Optional.empty();
     }
-    return Optional.of(elementDefinitionMap.get(elementName));
+    return Optional.ofNullable(elementDefinition);
+  }
+
+  @Override
+  public Optional<ElementDefinition> removeElementDefinition(String elementName) {
+    if (frozenDefinitions != null) {
+      throw FrozenDefinitions.mutationFailure(elementName);
+    }
+    var removed = new AtomicReference<ElementDefinition>();
+    elementDefinitionMap.computeIfPresent(elementName, (name, elementDefinition) -> {
+      typeIndex.remove(elementDefinition.getType(), elementDefinition);
+      removed.set(elementDefinition);
+      return null;
+    });
+    var removedDefinition = Optional.ofNullable(removed.get());
+    removedDefinition.ifPresent(definition -> log.info("Removed element definition for: {}", elementName));
+    return removedDefinition;
   }
 
   @Override
   public Collection<ElementDefinition> getElementDefinitions() {
-    return List.copyOf(elementDefinitionMap.values());
+    var frozen = frozenDefinitions;
+    return frozen != null ? frozen.getElementDefinitions() : List.copyOf(elementDefinitionMap.values());
   }
 
   @Override
   public Collection<ElementDefinition> getElementDefinitionsByType(Class<?> type) {
     log.debug("Retrieving element definitions by type: {}", type.getName());
-    return elementDefinitionMap.values().stream()
-        .filter(elementDefinition -> type.isAssignableFrom(elementDefinition.getType()))
-        .collect(Collectors.toSet());
+    return typeIndex.get(type);
   }
 
 
-  public ConcurrentMap<String, ElementDefinition> getElementDefinitionMap() {
-    return new ConcurrentHashMap<>(elementDefinitionMap);
+  // additions still racing with the freeze may fail or be missed, so freeze once loading is over
+  @Override
+  public synchronized void freeze() {
+    if (frozenDefinitions == null) {
+      frozenDefinitions = new FrozenDefinitions(elementDefinitionMap.values());
+      log.info("Froze {} element definitions", elementDefinitionMap.size());
+    }
+  }
+
+  // a read only view, reflecting later changes, instead of a copy of every definition per call
+  public Map<String, ElementDefinition> getElementDefinitionMap() {
+    var frozen = frozenDefinitions;
+    return frozen != null ? frozen.getElementDefinitionMap() : elementDefinitionMapView;
   }
 }
\ No newline at end of file
@@ -0,0 +1,454 @@
+package ua.gorobeos.contextor.context.storage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import ua.gorobeos.contextor.context.conditions.ConditionEvaluationUtils;
+import ua.gorobeos.contextor.context.config.ConfigurationReader;
+import ua.gorobeos.contextor.context.dependencies.DependencyDefinition;
+import ua.gorobeos.contextor.context.element.AnnotationElementDefinition;
+import ua.gorobeos.contextor.context.element.ConfigElementDefinition;
+import ua.gorobeos.contextor.context.element.ElementDefinition;
+import ua.gorobeos.contextor.context.element.MethodDefinedElementDefinition;
+import ua.gorobeos.contextor.context.scanner.ClasspathElementScanner;
+import ua.gorobeos.contextor.context.scanner.ClasspathRoot;
+import ua.gorobeos.contextor.context.scanner.RootFingerprints;
+import ua.gorobeos.contextor.context.utils.ScannerUtils;
+
+// Read and condition-filtered element definitions of one init class, stored for warm starts. A snapshot is used only
+// while the scan settings, the fingerprints of the scanned classpath roots and every value the conditions read are
+// unchanged. Types, constructors and methods are kept as names and descriptors and resolved again when loading.
+@Slf4j
+@RequiredArgsConstructor
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class DefinitionSnapshot {
+
+  public static final String SNAPSHOT_DIR_PROPERTY = "contextor.snapshot.dir";
+
+  private static final int MAGIC = 0x43545844; // CTXD
+  private static final int FORMAT_VERSION = 1;
+  private static final String SNAPSHOT_EXTENSION = ".definitions";
+
+  private static final byte ANNOTATION_DEFINITION = 0;
+  private static final byte CONFIG_DEFINITION = 1;
+  private static final byte METHOD_DEFINITION = 2;
+
+  @Getter
+  Path snapshotDirectory;
+
+  public static Optional<DefinitionSnapshot> fromProperties() {
+    return Optional.ofNullable(ConfigurationReader.getOrDefault(SNAPSHOT_DIR_PROPERTY, null))
+        .filter(directory -> !directory.isBlank())
+        .map(directory -> new DefinitionSnapshot(Path.of(directory)));
+  }
+
+  // The definitions to register, in the holder's iteration order when written, if the snapshot of initClazz is still valid;
+  // the holder does not depend on the order definitions are added in
+  public Optional<List<ElementDefinition>> read(Class<?> initClazz) {
+    var snapshotFile = snapshotPath(initClazz);
+    var classLoader = initClazz.getClassLoader();
+    try (var input = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotFile)))) {
+      if (input.readInt() != MAGIC || input.readInt() != FORMAT_VERSION) {
+        log.debug("Definition snapshot {} has an unknown format", snapshotFile);
+        return Optional.empty();
+      }
+      var snapshotReader = new SnapshotReader(input, classLoader);
+      if (!snapshotReader.isValidFor(initClazz)) {
+        return Optional.empty();
+      }
+      var definitions = snapshotReader.readDefinitions();
+      log.debug("Restored {} element definitions from snapshot {}", definitions.size(), snapshotFile);
+      return Optional.of(definitions);
+    } catch (NoSuchFileException e) {
+      return Optional.empty();
+    } catch (IOException | ReflectiveOperationException | RuntimeException | LinkageError e) {
+      log.warn("Ignoring unusable definition snapshot {}: {}", snapshotFile, e.toString());
+      return Optional.empty();
+    }
+  }
+
+  // evaluatedTypes are all types conditions were evaluated for, including those of rejected definitions
+  public void write(Class<?> initClazz, Collection<ElementDefinition> registeredDefinitions, Set<Class<?>> evaluatedTypes) {
+    Map<String, Map<String, String>> conditionInputs = new TreeMap<>();
+    for (Class<?> evaluatedType : evaluatedTypes) {
+      var inputs = ConditionEvaluationUtils.evaluationInputs(evaluatedType);
+      if (inputs.isEmpty()) {
+        log.info("Conditions of {} can not be reproduced, definition snapshot is not written", evaluatedType.getName());
+        return;
+      }
+      if (!inputs.get().isEmpty()) {
+        conditionInputs.put(typeDescriptor(evaluatedType), inputs.get());
+      }
+    }
+
+    var snapshotFile = snapshotPath(initClazz);
+    try {
+      var body = new ByteArrayOutputStream();
+      var snapshotWriter = new SnapshotWriter(new DataOutputStream(body));
+      snapshotWriter.writeValidity(initClazz, conditionInputs);
+      snapshotWriter.writeDefinitions(registeredDefinitions);
+
+      Files.createDirectories(snapshotDirectory);
+      // written aside and moved in place, so concurrently starting JVMs never read a partial snapshot
+      var temporaryFile = Files.createTempFile(snapshotDirectory, snapshotFile.getFileName().toString(), ".tmp");
+      try (var output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+        output.writeInt(MAGIC);
+        output.writeInt(FORMAT_VERSION);
+        snapshotWriter.writeStrings(output);
+        body.writeTo(output);
+      }
+      moveInPlace(temporaryFile, snapshotFile);
+      log.debug("Stored {} element definitions in snapshot {}", registeredDefinitions.size(), snapshotFile);
+    } catch (IOException | RuntimeException e) {
+      log.warn("Failed to write definition snapshot {}: {}", snapshotFile, e.toString());
+    }
+  }
+
+  private Path snapshotPath(Class<?> initClazz) {
+    return snapshotDirectory.resolve(initClazz.getName() + SNAPSHOT_EXTENSION);
+  }
+
+  // Element scan settings and active profiles of initClazz
+  private static String scanKey(Class<?> initClazz) {
+    return initClazz.getName() + "|" + String.join(",", scannedPackages(initClazz)) + "|"
+        + ClasspathElementScanner.resolveScanFilter(initClazz).describe();
+  }
+
+  private static List<String> scannedPackages(Class<?> initClazz) {
+    return ScannerUtils.collapsePackages(ClasspathElementScanner.resolvePackages(initClazz));
+  }
+
+  private static Map<String, String> rootFingerprints(Class<?> initClazz) {
+    var packages = scannedPackages(initClazz);
+    Map<String, String> fingerprints = new TreeMap<>();
+    for (String packageName : packages) {
+      for (ClasspathRoot root : ScannerUtils.resolveRoots(initClazz.getClassLoader(), packageName)) {
+        fingerprints.put(root.getLocation().toString(), RootFingerprints.fingerprint(root, packages));
+      }
+    }
+    return fingerprints;
+  }
+
+  private static String typeDescriptor(Class<?> type) {
+    return type.descriptorString();
+  }
+
+  private static String executableDescriptor(Class<?> returnType, Class<?>[] parameterTypes) {
+    return MethodType.methodType(returnType, parameterTypes).toMethodDescriptorString();
+  }
+
+  private static void moveInPlace(Path source, Path target) throws IOException {
+    try {
+      Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  // Strings go to a table written ahead of the body; the body refers to them by index, 0 standing for null
+  private static final class SnapshotWriter {
+
+    private final DataOutput output;
+    private final Map<String, Integer> stringIndexes = new LinkedHashMap<>();
+
+    private SnapshotWriter(DataOutput output) {
+      this.output = output;
+    }
+
+    private void writeValidity(Class<?> initClazz, Map<String, Map<String, String>> conditionInputs) throws IOException {
+      writeString(scanKey(initClazz));
+      writeStringMap(rootFingerprints(initClazz));
+      writeVarInt(output, conditionInputs.size());
+      for (var typeInputs : conditionInputs.entrySet()) {
+        writeString(typeInputs.getKey());
+        writeStringMap(typeInputs.getValue());
+      }
+    }
+
+    private void writeDefinitions(Collection<ElementDefinition> registeredDefinitions) throws IOException {
+      // method defined elements a condition rejected are not registered, but still belong to their config definition
+      Map<ElementDefinition, Integer> ids = new IdentityHashMap<>();
+      List<ElementDefinition> definitions = new ArrayList<>();
+      for (ElementDefinition definition : registeredDefinitions) {
+        ids.computeIfAbsent(definition, key -> {
+          definitions.add(key);
+          return definitions.size() - 1;
+        });
+      }
+      for (ElementDefinition definition : registeredDefinitions) {
+        if (definition instanceof ConfigElementDefinition configDefinition && configDefinition.getMethodDefinedElements() != null) {
+          for (ElementDefinition methodDefined : configDefinition.getMethodDefinedElements()) {
+            ids.computeIfAbsent(methodDefined, key -> {
+              definitions.add(key);
+              return definitions.size() - 1;
+            });
+          }
+        }
+      }
+
+      writeVarInt(output, definitions.size());
+      writeVarInt(output, registeredDefinitions.size());
+      for (ElementDefinition definition : definitions) {
+        writeDefinition(definition, ids);
+      }
+    }
+
+    private void writeDefinition(ElementDefinition definition, Map<ElementDefinition, Integer> ids) throws IOException {
+      if (definition instanceof ConfigElementDefinition) {
+        output.writeByte(CONFIG_DEFINITION);
+      } else if (definition instanceof MethodDefinedElementDefinition) {
+        output.writeByte(METHOD_DEFINITION);
+      } else if (definition instanceof AnnotationElementDefinition) {
+        output.writeByte(ANNOTATION_DEFINITION);
+      } else {
+        throw new IOException("Unsupported element definition type " + definition.getClass().getName());
+      }
+      writeString(definition.getName());
+      output.writeByte(definition.getIsPrimary() == null ? 0 : definition.getIsPrimary() ? 2 : 1);
+      writeString(definition.getType() == null ? null : typeDescriptor(definition.getType()));
+      writeString(definition.getScope());
+      var initConstructor = definition.getInitConstructor();
+      writeString(initConstructor == null ? null : typeDescriptor(initConstructor.getDeclaringClass()));
+      writeString(initConstructor == null ? null : executableDescriptor(void.class, initConstructor.getParameterTypes()));
+      writeDependencies(definition.getDependencies());
+
+      if (definition instanceof ConfigElementDefinition configDefinition) {
+        var methodDefinedElements = configDefinition.getMethodDefinedElements();
+        writeVarInt(output, methodDefinedElements == null ? 0 : methodDefinedElements.size() + 1);
+        if (methodDefinedElements != null) {
+          for (ElementDefinition methodDefined : methodDefinedElements) {
+            writeVarInt(output, ids.get(methodDefined));
+          }
+        }
+      } else if (definition instanceof MethodDefinedElementDefinition methodDefined) {
+        var initMethod = methodDefined.getInitMethod();
+        writeString(methodDefined.getConfigClass() == null ? null : typeDescriptor(methodDefined.getConfigClass()));
+        writeString(initMethod == null ? null : typeDescriptor(initMethod.getDeclaringClass()));
+        writeString(initMethod == null ? null : initMethod.getName());
+        writeString(initMethod == null ? null : executableDescriptor(initMethod.getReturnType(), initMethod.getParameterTypes()));
+      }
+    }
+
+    private void writeDependencies(Collection<DependencyDefinition> dependencies) throws IOException {
+      writeVarInt(output, dependencies == null ? 0 : dependencies.size() + 1);
+      if (dependencies == null) {
+        return;
+      }
+      for (DependencyDefinition dependency : dependencies) {
+        writeString(dependency.getName());
+        writeString(dependency.getQualifier());
+        writeString(dependency.getClazz() == null ? null : typeDescriptor(dependency.getClazz()));
+      }
+    }
+
+    private void writeStringMap(Map<String, String> values) throws IOException {
+      writeVarInt(output, values.size());
+      for (var entry : values.entrySet()) {
+        writeString(entry.getKey());
+        writeString(entry.getValue());
+      }
+    }
+
+    private void writeString(String value) throws IOException {
+      if (value == null) {
+        writeVarInt(output, 0);
+        return;
+      }
+      writeVarInt(output, stringIndexes.computeIfAbsent(value, key -> stringIndexes.size() + 1));
+    }
+
+    private void writeStrings(DataOutput tableOutput) throws IOException {
+      writeVarInt(tableOutput, stringIndexes.size());
+      for (String value : stringIndexes.keySet()) {
+        tableOutput.writeUTF(value);
+      }
+    }
+  }
+
+  private static final class SnapshotReader {
+
+    private final DataInput input;
+    private final ClassLoader classLoader;
+    private final String[] strings;
+    private final Map<String, Class<?>> types = new HashMap<>();
+
+    private SnapshotReader(DataInput input, ClassLoader classLoader) throws IOException {
+      this.input = input;
+      this.classLoader = classLoader;
+      this.strings = new String[readVarInt(input)];
+      for (int i = 0; i < strings.length; i++) {
+        strings[i] = input.readUTF();
+      }
+    }
+
+    private boolean isValidFor(Class<?> initClazz) throws IOException {
+      if (!scanKey(initClazz).equals(readString())) {
+        log.debug("Definition snapshot of {} was taken with other scan settings", initClazz.getName());
+        return false;
+      }
+      if (!rootFingerprints(initClazz).equals(readStringMap())) {
+        log.debug("Classpath roots scanned for {} changed since the definition snapshot", initClazz.getName());
+        return false;
+      }
+      int conditionalTypes = readVarInt(input);
+      for (int i = 0; i < conditionalTypes; i++) {
+        var type = resolveType(readString());
+        var inputs = readStringMap();
+        if (!ConditionEvaluationUtils.evaluationInputs(type).map(inputs::equals).orElse(false)) {
+          log.debug("Values read by conditions of {} changed since the definition snapshot", type.getName());
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private List<ElementDefinition> readDefinitions() throws IOException, ReflectiveOperationException {
+      var definitions = new ElementDefinition[readVarInt(input)];
+      int registeredDefinitions = readVarInt(input);
+      Map<ConfigElementDefinition, int[]> methodDefinedIds = new IdentityHashMap<>();
+      for (int i = 0; i < definitions.length; i++) {
+        definitions[i] = readDefinition(methodDefinedIds);
+      }
+      for (var configMethods : methodDefinedIds.entrySet()) {
+        List<ElementDefinition> methodDefinedElements = new ArrayList<>();
+        for (int id : configMethods.getValue()) {
+          methodDefinedElements.add(definitions[id]);
+        }
+        configMethods.getKey().setMethodDefinedElements(methodDefinedElements);
+      }
+      return List.of(definitions).subList(0, registeredDefinitions);
+    }
+
+    private ElementDefinition readDefinition(Map<ConfigElementDefinition, int[]> methodDefinedIds)
+        throws IOException, ReflectiveOperationException {
+      byte kind = input.readByte();
+      var name = readString();
+      byte primary = input.readByte();
+      var isPrimary = primary == 0 ? null : primary == 2;
+      var type = resolveType(readString());
+      var scope = readString();
+      var constructorType = resolveType(readString());
+      var constructorDescriptor = readString();
+      Constructor<?> initConstructor = constructorType == null
+          ? null
+          : constructorType.getDeclaredConstructor(resolveExecutable(constructorDescriptor).parameterArray());
+      var dependencies = readDependencies();
+
+      switch (kind) {
+        case ANNOTATION_DEFINITION -> {
+          return new AnnotationElementDefinition(name, isPrimary, type, initConstructor, scope, dependencies);
+        }
+        case CONFIG_DEFINITION -> {
+          var configDefinition = new ConfigElementDefinition(name, isPrimary, type, initConstructor, scope, dependencies, null);
+          int methodDefinedCount = readVarInt(input) - 1;
+          if (methodDefinedCount >= 0) {
+            var ids = new int[methodDefinedCount];
+            for (int i = 0; i < methodDefinedCount; i++) {
+              ids[i] = readVarInt(input);
+            }
+            methodDefinedIds.put(configDefinition, ids);
+          }
+          return configDefinition;
+        }
+        case METHOD_DEFINITION -> {
+          var configClass = resolveType(readString());
+          var methodType = resolveType(readString());
+          var methodName = readString();
+          var methodDescriptor = readString();
+          Method initMethod = methodType == null
+              ? null
+              : methodType.getDeclaredMethod(methodName, resolveExecutable(methodDescriptor).parameterArray());
+          return new MethodDefinedElementDefinition(name, isPrimary, type, initConstructor, scope, dependencies, configClass,
+              initMethod);
+        }
+        default -> throw new IOException("Unknown element definition kind " + kind);
+      }
+    }
+
+    private List<DependencyDefinition> readDependencies() throws IOException {
+      int count = readVarInt(input) - 1;
+      if (count < 0) {
+        return null;
+      }
+      List<DependencyDefinition> dependencies = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        dependencies.add(new DependencyDefinition(readString(), readString(), resolveType(readString())));
+      }
+      return dependencies;
+    }
+
+    private Class<?> resolveType(String descriptor) {
+      if (descriptor == null) {
+        return null;
+      }
+      return types.computeIfAbsent(descriptor,
+          key -> MethodType.fromMethodDescriptorString("()" + key, classLoader).returnType());
+    }
+
+    private MethodType resolveExecutable(String descriptor) {
+      return MethodType.fromMethodDescriptorString(descriptor, classLoader);
+    }
+
+    private Map<String, String> readStringMap() throws IOException {
+      int size = readVarInt(input);
+      Map<String, String> values = new HashMap<>();
+      for (int i = 0; i < size; i++) {
+        values.put(readString(), readString());
+      }
+      return values;
+    }
+
+    private String readString() throws IOException {
+      int index = readVarInt(input);
+      return index == 0 ? null : strings[index - 1];
+    }
+  }
+
+  private static void writeVarInt(DataOutput output, int value) throws IOException {
+    while ((value & ~0x7F) != 0) {
+      output.writeByte((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    output.writeByte(value);
+  }
+
+  private static int readVarInt(DataInput input) throws IOException {
+    int value = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      byte next = input.readByte();
+      value |= (next & 0x7F) << shift;
+      if ((next & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IOException("Malformed variable length integer");
+  }
+}
@@ -0,0 +1,25 @@
+package ua.gorobeos.contextor.context.storage;
+
+import java.util.Locale;
+import ua.gorobeos.contextor.context.config.ConfigurationReader;
+
+public enum DefinitionStore {
+  // a concurrent map of definition objects
+  DEFAULT,
+  // column wise arrays indexed by element id with deduplicated dependencies, for contexts with very many elements
+  COMPACT;
+
+  public static final String DEFINITION_STORE_PROPERTY = "contextor.definitions.store";
+
+  public static DefinitionStore fromProperties() {
+    return ConfigurationReader.getOrDefault(DEFINITION_STORE_PROPERTY, DEFAULT,
+        value -> DefinitionStore.valueOf(value.trim().toUpperCase(Locale.ROOT)));
+  }
+
+  public ElementDefinitionHolder createHolder() {
+    return switch (this) {
+      case DEFAULT -> new DefaultElementDefinitionHolder();
+      case COMPACT -> new CompactElementDefinitionHolder();
+    };
+  }
+}
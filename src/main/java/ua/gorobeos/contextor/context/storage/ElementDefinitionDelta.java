@@ -0,0 +1,24 @@
+package ua.gorobeos.contextor.context.storage;
+
+import java.util.Collection;
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+import ua.gorobeos.contextor.context.element.ElementDefinition;
+
+// Changes found by an incremental rescan; modified definitions replace the registered ones of the same name
+@Value
+@Builder
+public class ElementDefinitionDelta {
+
+  @Singular
+  Collection<ElementDefinition> addedDefinitions;
+  @Singular
+  Collection<ElementDefinition> modifiedDefinitions;
+  @Singular
+  Collection<String> removedNames;
+
+  public boolean isEmpty() {
+    return addedDefinitions.isEmpty() && modifiedDefinitions.isEmpty() && removedNames.isEmpty();
+  }
+}
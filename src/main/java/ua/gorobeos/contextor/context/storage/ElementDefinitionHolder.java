@@ -10,8 +10,13 @@ public interface ElementDefinitionHolder {
 
   Optional<ElementDefinition> getElementDefinition(String elementName);
 
+  Optional<ElementDefinition> removeElementDefinition(String elementName);
+
   Collection<ElementDefinition> getElementDefinitions();
 
   Collection<ElementDefinition> getElementDefinitionsByType(Class<?> type);
 
+  // Makes the definitions read only: lookups get faster and every later add or remove fails
+  void freeze();
+
 }
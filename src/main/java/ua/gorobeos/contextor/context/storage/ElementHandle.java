@@ -0,0 +1,29 @@
+package ua.gorobeos.contextor.context.storage;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.ToString;
+
+// A name resolved once into a dense id of one context; ContextHolder.get reads the element behind it from an array
+// slot, without hashing the name, boxing or an Optional. Handles stay valid when the element is reloaded.
+@Getter
+@ToString(of = {"name", "type"})
+public final class ElementHandle<T> {
+
+  @Getter(AccessLevel.NONE)
+  private final ElementSlots slots;
+  private final int id;
+  private final String name;
+  private final Class<T> type;
+
+  ElementHandle(ElementSlots slots, int id, String name, Class<T> type) {
+    this.slots = slots;
+    this.id = id;
+    this.name = name;
+    this.type = type;
+  }
+
+  boolean belongsTo(ElementSlots contextSlots) {
+    return slots == contextSlots;
+  }
+}
@@ -0,0 +1,47 @@
+package ua.gorobeos.contextor.context.storage;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+// Singletons by dense handle id: reads are lock free acquire loads of an array slot, while the rare writes (caching a
+// created singleton, clearing a removed one, growing the array) are serialized on this object
+final class ElementSlots {
+
+  private static final VarHandle SLOT = MethodHandles.arrayElementVarHandle(Object[].class);
+
+  private final Map<String, Integer> ids = new HashMap<>();
+  private volatile Object[] slots = new Object[16];
+
+  synchronized int idOf(String elementName) {
+    return ids.computeIfAbsent(elementName, name -> {
+      int id = ids.size();
+      if (id == slots.length) {
+        slots = Arrays.copyOf(slots, id * 2);
+      }
+      return id;
+    });
+  }
+
+  // null until the element was read through a handle once, and for elements that are not singletons
+  Object get(int id) {
+    return SLOT.getAcquire(slots, id);
+  }
+
+  // the check runs under the same lock as clear, so a singleton removed meanwhile is never cached again
+  synchronized void cache(int id, Object element, BooleanSupplier stillRegistered) {
+    if (stillRegistered.getAsBoolean()) {
+      SLOT.setRelease(slots, id, element);
+    }
+  }
+
+  synchronized void clear(String elementName) {
+    var id = ids.get(elementName);
+    if (id != null) {
+      SLOT.setRelease(slots, id, null);
+    }
+  }
+}
@@ -0,0 +1,115 @@
+package ua.gorobeos.contextor.context.storage;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+// Entries, definitions or ids of them, by every type their element can be assigned to: the element type, its
+// superclasses and all its interfaces. Each type keeps an insertion ordered set, so adding or removing an entry is
+// constant time however many elements share Object or an interface; lookups return an immutable snapshot that is
+// built once and cached until the next change of that type.
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+class ElementTypeIndex<E> {
+
+  private static final ClassValue<List<Class<?>>> ASSIGNABLE_TYPES = new ClassValue<>() {
+    @Override
+    protected List<Class<?>> computeValue(Class<?> type) {
+      return List.copyOf(assignableTypes(type));
+    }
+  };
+
+  ConcurrentMap<Class<?>, Entries<E>> entriesByType = new ConcurrentHashMap<>();
+
+  void add(Class<?> elementType, E entry) {
+    if (elementType == null) {
+      return;
+    }
+    for (Class<?> assignableType : ASSIGNABLE_TYPES.get(elementType)) {
+      // changed within compute, so a concurrent removal can not drop the entry set this is being added to
+      entriesByType.compute(assignableType, (type, entries) -> {
+        var typeEntries = entries == null ? new Entries<E>() : entries;
+        typeEntries.add(entry);
+        return typeEntries;
+      });
+    }
+  }
+
+  void remove(Class<?> elementType, E entry) {
+    if (elementType == null) {
+      return;
+    }
+    for (Class<?> assignableType : ASSIGNABLE_TYPES.get(elementType)) {
+      // an emptied entry is dropped, so the index does not keep types of unloaded plugins reachable
+      entriesByType.computeIfPresent(assignableType, (type, entries) -> entries.remove(entry) ? null : entries);
+    }
+  }
+
+  List<E> get(Class<?> type) {
+    var entries = entriesByType.get(type);
+    return entries == null ? List.of() : entries.snapshot();
+  }
+
+  private static final class Entries<E> {
+
+    private final Set<E> entries = new LinkedHashSet<>();
+    private List<E> snapshot;
+
+    synchronized void add(E entry) {
+      if (entries.add(entry)) {
+        snapshot = null;
+      }
+    }
+
+    // true once the last entry is gone
+    synchronized boolean remove(E entry) {
+      if (entries.remove(entry)) {
+        snapshot = null;
+      }
+      return entries.isEmpty();
+    }
+
+    synchronized List<E> snapshot() {
+      if (snapshot == null) {
+        snapshot = List.copyOf(entries);
+      }
+      return snapshot;
+    }
+  }
+
+  // everything type.isAssignableFrom would accept, for the reference, primitive and array types an element may have
+  private static Set<Class<?>> assignableTypes(Class<?> type) {
+    Set<Class<?>> assignableTypes = new LinkedHashSet<>();
+    if (type.isPrimitive()) {
+      assignableTypes.add(type);
+      return assignableTypes;
+    }
+    if (type.isArray()) {
+      var componentType = type.getComponentType();
+      if (componentType.isPrimitive()) {
+        assignableTypes.add(type);
+      } else {
+        ASSIGNABLE_TYPES.get(componentType).forEach(assignableComponent -> assignableTypes.add(assignableComponent.arrayType()));
+      }
+      assignableTypes.addAll(List.of(Cloneable.class, Serializable.class, Object.class));
+      return assignableTypes;
+    }
+    List<Class<?>> pending = new ArrayList<>(List.of(type));
+    while (!pending.isEmpty()) {
+      var current = pending.remove(pending.size() - 1);
+      if (assignableTypes.add(current)) {
+        if (current.getSuperclass() != null) {
+          pending.add(current.getSuperclass());
+        }
+        pending.addAll(List.of(current.getInterfaces()));
+      }
+    }
+    assignableTypes.add(Object.class);
+    return assignableTypes;
+  }
+}
@@ -0,0 +1,47 @@
+package ua.gorobeos.contextor.context.storage;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import ua.gorobeos.contextor.context.element.ElementDefinition;
+import ua.gorobeos.contextor.context.exceptions.ContextFrozenException;
+
+// Read only view of the definitions a holder had when it was frozen; the Optionals handed out are created here once
+final class FrozenDefinitions {
+
+  private final FrozenNameTable names;
+  private final Optional<?>[] definitions;
+  private final List<ElementDefinition> elementDefinitions;
+  private final Map<String, ElementDefinition> elementDefinitionMap;
+
+  FrozenDefinitions(Collection<ElementDefinition> elementDefinitions) {
+    this.elementDefinitions = List.copyOf(elementDefinitions);
+    this.elementDefinitionMap = this.elementDefinitions.stream()
+        .collect(Collectors.toUnmodifiableMap(ElementDefinition::getName, Function.identity()));
+    this.names = FrozenNameTable.of(elementDefinitionMap.keySet());
+    this.definitions = new Optional<?>[names.capacity()];
+    this.elementDefinitions.forEach(definition -> definitions[names.slotOf(definition.getName())] = Optional.of(definition));
+  }
+
+  @SuppressWarnings("unchecked")
+  Optional<ElementDefinition> get(String elementName) {
+    int slot = names.slotOf(elementName);
+    return slot < 0 ? Optional.empty() : (Optional<ElementDefinition>) definitions[slot];
+  }
+
+  List<ElementDefinition> getElementDefinitions() {
+    return elementDefinitions;
+  }
+
+  Map<String, ElementDefinition> getElementDefinitionMap() {
+    return elementDefinitionMap;
+  }
+
+  static ContextFrozenException mutationFailure(String elementName) {
+    return new ContextFrozenException(
+        "Element definitions are frozen, definition '%s' can not be added or removed".formatted(elementName));
+  }
+}
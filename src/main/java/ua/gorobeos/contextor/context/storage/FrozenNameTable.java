@@ -0,0 +1,140 @@
+package ua.gorobeos.contextor.context.storage;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.Random;
+import java.util.stream.IntStream;
+import ua.gorobeos.contextor.context.exceptions.ContainerInitException;
+
+// Element names compiled into a perfect hash (hash and displace): names are spread over small buckets, and every
+// bucket gets the displacement that puts each of its names into a free slot of its own. A lookup is one displacement
+// read and one slot probe, with no collision chain to walk and nothing allocated. Built once and never changed.
+final class FrozenNameTable {
+
+  private static final double MAX_LOAD_FACTOR = 0.8;
+  private static final int NAMES_PER_BUCKET = 4;
+  private static final int MAX_DISPLACEMENT_TRIES = 1 << 16;
+  private static final int MAX_SEEDS = 64;
+  private static final int GOLDEN_GAMMA = 0x9E3779B9;
+
+  private final int seed;
+  // String.hashCode is cached in the string, so it is used unless two names share it and no seed could separate them
+  private final boolean characterHashing;
+  // bucket and slot counts are powers of two, so both are picked by the high bits of a multiplied hash alone
+  private final int bucketShift;
+  private final int slotShift;
+  private final int[] displacements;
+  private final String[] names;
+
+  private FrozenNameTable(int seed, boolean characterHashing, int[] displacements, String[] names) {
+    this.seed = seed;
+    this.characterHashing = characterHashing;
+    this.bucketShift = Integer.numberOfLeadingZeros(displacements.length) + 1;
+    this.slotShift = Integer.numberOfLeadingZeros(names.length) + 1;
+    this.displacements = displacements;
+    this.names = names;
+  }
+
+  // names must be distinct
+  static FrozenNameTable of(Collection<String> names) {
+    var nameList = List.copyOf(names);
+    boolean characterHashing = nameList.stream().mapToInt(String::hashCode).distinct().count() < nameList.size();
+    // a new seed changes every hash, so a build that can not place some bucket is retried with another one
+    for (int seed = 0; seed < MAX_SEEDS; seed++) {
+      var table = build(nameList, seed, characterHashing);
+      if (table != null) {
+        return table;
+      }
+    }
+    throw new ContainerInitException("Failed to build a perfect hash for %d element names".formatted(nameList.size()));
+  }
+
+  int capacity() {
+    return names.length;
+  }
+
+  // slot of the name, or -1 if it is not in the table
+  int slotOf(String name) {
+    int hash = hash(name, seed, characterHashing);
+    int slot = ((hash ^ displacements[hash >>> bucketShift]) * GOLDEN_GAMMA) >>> slotShift;
+    return name.equals(names[slot]) ? slot : -1;
+  }
+
+  private static FrozenNameTable build(List<String> nameList, int seed, boolean characterHashing) {
+    // at least two of each, since a shift by 32 would leave an int unchanged
+    int capacity = powerOfTwoAtLeast((int) Math.ceil(nameList.size() / MAX_LOAD_FACTOR));
+    int bucketCount = powerOfTwoAtLeast(nameList.size() / NAMES_PER_BUCKET);
+    int bucketShift = Integer.numberOfLeadingZeros(bucketCount) + 1;
+    int[] hashes = nameList.stream().mapToInt(name -> hash(name, seed, characterHashing)).toArray();
+
+    List<List<Integer>> buckets = new ArrayList<>();
+    IntStream.range(0, bucketCount).forEach(bucket -> buckets.add(new ArrayList<>()));
+    IntStream.range(0, hashes.length).forEach(i -> buckets.get(hashes[i] >>> bucketShift).add(i));
+    // the largest buckets are placed first, while most slots are still free
+    var placementOrder = IntStream.range(0, bucketCount)
+        .boxed()
+        .filter(bucket -> !buckets.get(bucket).isEmpty())
+        .sorted(Comparator.comparingInt((Integer bucket) -> buckets.get(bucket).size()).reversed())
+        .toList();
+
+    var slotNames = new String[capacity];
+    var displacements = new int[bucketCount];
+    var candidates = new Random(seed);
+    for (int bucket : placementOrder) {
+      var bucketNames = buckets.get(bucket);
+      var displacement = findDisplacement(bucketNames, hashes, slotNames, candidates);
+      if (displacement.isEmpty()) {
+        return null;
+      }
+      displacements[bucket] = displacement.getAsInt();
+      bucketNames.forEach(i -> slotNames[slot(hashes[i], displacement.getAsInt(), capacity)] = nameList.get(i));
+    }
+    return new FrozenNameTable(seed, characterHashing, displacements, slotNames);
+  }
+
+  private static OptionalInt findDisplacement(List<Integer> bucketNames, int[] hashes, String[] slotNames, Random candidates) {
+    int[] slots = new int[bucketNames.size()];
+    candidates:
+    for (int tries = 0; tries < MAX_DISPLACEMENT_TRIES; tries++) {
+      int displacement = candidates.nextInt();
+      for (int i = 0; i < slots.length; i++) {
+        slots[i] = slot(hashes[bucketNames.get(i)], displacement, slotNames.length);
+        if (slotNames[slots[i]] != null) {
+          continue candidates;
+        }
+        for (int previous = 0; previous < i; previous++) {
+          if (slots[previous] == slots[i]) {
+            continue candidates;
+          }
+        }
+      }
+      return OptionalInt.of(displacement);
+    }
+    return OptionalInt.empty();
+  }
+
+  // the multiplication carries differences of the low bits up to the high ones the shift keeps; slotOf inlines this
+  private static int slot(int hash, int displacement, int capacity) {
+    return ((hash ^ displacement) * GOLDEN_GAMMA) >>> (Integer.numberOfLeadingZeros(capacity) + 1);
+  }
+
+  private static int powerOfTwoAtLeast(int value) {
+    return Math.max(2, Integer.highestOneBit(Math.max(1, value - 1)) << 1);
+  }
+
+  private static int hash(String name, int seed, boolean characterHashing) {
+    int hash;
+    if (characterHashing) {
+      hash = seed;
+      for (int i = 0; i < name.length(); i++) {
+        hash = (hash ^ name.charAt(i)) * 0x01000193;
+      }
+    } else {
+      hash = name.hashCode() ^ seed;
+    }
+    return hash * GOLDEN_GAMMA;
+  }
+}
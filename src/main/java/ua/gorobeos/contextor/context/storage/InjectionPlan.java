@@ -0,0 +1,26 @@
+package ua.gorobeos.contextor.context.storage;
+
+import lombok.Builder;
+import lombok.Getter;
+import ua.gorobeos.contextor.context.element.ElementDefinition;
+
+// What creating an element takes, resolved once from its definition: the elements injected into it, the config
+// element owning an @ExternalElement method and the factory. Creating the element only runs the plan.
+@Getter
+@Builder
+final class InjectionPlan {
+
+  private final ElementDefinition elementDefinition;
+  // null unless the element is defined by a config method
+  private final ElementHandle<Object> owner;
+  private final ElementHandle<?>[] dependencies;
+  private final Factory factory;
+  private final boolean conditional;
+  private final boolean singleton;
+
+  @FunctionalInterface
+  interface Factory {
+
+    Object create(Object owner, Object[] dependencies);
+  }
+}
@@ -0,0 +1,24 @@
+package ua.gorobeos.contextor.context.storage;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+// Compiled injection plans by element name. Any change of the definitions drops all of them, as an unqualified
+// dependency may resolve to another element once a definition of its type comes or goes. Invalidation swaps the
+// map, so a plan still being compiled from the old definitions lands in the dropped one.
+final class InjectionPlans {
+
+  private volatile ConcurrentMap<String, InjectionPlan> plans = new ConcurrentHashMap<>();
+
+  // null when the compiler finds no definition for the name
+  InjectionPlan get(String elementName, Function<String, InjectionPlan> compiler) {
+    var currentPlans = plans;
+    var plan = currentPlans.get(elementName);
+    return plan != null ? plan : currentPlans.computeIfAbsent(elementName, compiler);
+  }
+
+  void invalidate() {
+    plans = new ConcurrentHashMap<>();
+  }
+}
@@ -0,0 +1,151 @@
+package ua.gorobeos.contextor.context.storage;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import ua.gorobeos.contextor.context.dependencies.checker.DependencyOrder;
+import ua.gorobeos.contextor.context.element.ElementDefinition;
+import ua.gorobeos.contextor.context.exceptions.ContainerInitException;
+import ua.gorobeos.contextor.context.exceptions.ElementCreationException;
+
+// Creates elements along their dependency graph: an element is submitted to the pool as soon as all of its dependencies
+// are created, so independent chains are created at the same time. The calling thread only schedules; the first failure
+// or element running over the timeout stops the pool, which interrupts the elements still being created.
+@Slf4j
+@RequiredArgsConstructor
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+final class ParallelElementCreator {
+
+  int parallelism;
+  Duration timeout;
+
+  void create(DependencyOrder dependencyOrder, Consumer<String> elementCreation) {
+    var definitions = dependencyOrder.getDefinitions();
+    var dependencies = dependencyOrder.getDependencies();
+    int size = definitions.size();
+    int[] pendingDependencies = new int[size];
+    List<List<Integer>> dependents = new ArrayList<>(size);
+    for (int position = 0; position < size; position++) {
+      dependents.add(new ArrayList<>());
+    }
+    for (int position = 0; position < size; position++) {
+      pendingDependencies[position] = dependencies[position].length;
+      for (int dependency : dependencies[position]) {
+        dependents.get(dependency).add(position);
+      }
+    }
+
+    log.debug("Creating {} elements with parallelism {}", size, parallelism);
+    var pool = new ForkJoinPool(Math.max(1, parallelism));
+    var creation = new Creation(pool, definitions, elementCreation, new AtomicLongArray(size));
+    try {
+      for (int position = 0; position < size; position++) {
+        if (pendingDependencies[position] == 0) {
+          creation.submit(position);
+        }
+      }
+      for (int created = 0; created < size; created++) {
+        int position = creation.awaitNext();
+        for (int dependent : dependents.get(position)) {
+          if (--pendingDependencies[dependent] == 0) {
+            creation.submit(dependent);
+          }
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ContainerInitException("Element creation was interrupted", e);
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  private record Completion(int position, Throwable failure) {
+
+  }
+
+  @RequiredArgsConstructor
+  private final class Creation {
+
+    private final ForkJoinPool pool;
+    private final List<ElementDefinition> definitions;
+    private final Consumer<String> elementCreation;
+    // System.nanoTime() at which an element started being created, zero while it is waiting in the pool
+    private final AtomicLongArray startedAt;
+    private final BlockingQueue<Completion> completions = new LinkedBlockingQueue<>();
+    private final Set<Integer> running = new HashSet<>();
+
+    void submit(int position) {
+      running.add(position);
+      pool.execute(() -> {
+        startedAt.set(position, System.nanoTime());
+        try {
+          elementCreation.accept(definitions.get(position).getName());
+          completions.add(new Completion(position, null));
+        } catch (Throwable e) {
+          completions.add(new Completion(position, e));
+        }
+      });
+    }
+
+    int awaitNext() throws InterruptedException {
+      while (true) {
+        var completion = timeout.isZero()
+            ? completions.take()
+            : completions.poll(nanosUntilNextDeadline(), TimeUnit.NANOSECONDS);
+        if (completion == null) {
+          failOverdueElement();
+          continue;
+        }
+        running.remove(completion.position());
+        if (completion.failure() instanceof RuntimeException runtimeException) {
+          throw runtimeException;
+        }
+        if (completion.failure() instanceof Error error) {
+          throw error;
+        }
+        if (completion.failure() != null) {
+          throw new ContainerInitException("Failed to create element '%s'".formatted(
+              definitions.get(completion.position()).getName()), completion.failure());
+        }
+        return completion.position();
+      }
+    }
+
+    private long nanosUntilNextDeadline() {
+      long now = System.nanoTime();
+      long wait = timeout.toNanos();
+      for (int position : running) {
+        long started = startedAt.get(position);
+        if (started != 0) {
+          wait = Math.min(wait, started + timeout.toNanos() - now);
+        }
+      }
+      return Math.max(0, wait);
+    }
+
+    private void failOverdueElement() {
+      long now = System.nanoTime();
+      for (int position : running) {
+        long started = startedAt.get(position);
+        if (started != 0 && now - started >= timeout.toNanos()) {
+          var name = definitions.get(position).getName();
+          log.error("Element '{}' was not created within {} ms", name, timeout.toMillis());
+          throw new ElementCreationException("Element '%s' was not created within %d ms".formatted(name, timeout.toMillis()));
+        }
+      }
+    }
+  }
+}
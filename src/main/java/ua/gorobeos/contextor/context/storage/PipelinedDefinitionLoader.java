@@ -0,0 +1,149 @@
+package ua.gorobeos.contextor.context.storage;
+
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import ua.gorobeos.contextor.context.config.ConfigurationReader;
+import ua.gorobeos.contextor.context.element.ElementDefinition;
+import ua.gorobeos.contextor.context.exceptions.ContainerInitException;
+import ua.gorobeos.contextor.context.readers.ElementDefinitionReaderFacade;
+import ua.gorobeos.contextor.context.scanner.ClasspathElementScanner;
+
+// Loads element definitions in stages connected by bounded queues: scanning threads hand classes to definition readers,
+// read definitions go to condition evaluation, accepted ones to registration. Every stage has a worker pool of its own;
+// when a stage's queue is full the submitting thread runs the work itself, which throttles the stage before it.
+@Slf4j
+@RequiredArgsConstructor
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+public class PipelinedDefinitionLoader {
+
+  public static final String PIPELINE_PROPERTY = "contextor.load.pipeline";
+  public static final String PIPELINE_THREADS_PROPERTY = "contextor.load.pipeline.threads";
+  public static final String PIPELINE_QUEUE_CAPACITY_PROPERTY = "contextor.load.pipeline.queue.capacity";
+
+  // a Phaser tracks at most 65535 parties, one per queued or running task
+  private static final int MAX_QUEUE_CAPACITY = 16_384;
+
+  ElementDefinitionReaderFacade elementDefinitionReaderFacade;
+  ElementDefinitionHolder elementDefinitionHolder;
+  int threads;
+  int queueCapacity;
+
+  public static Optional<PipelinedDefinitionLoader> fromProperties(ElementDefinitionReaderFacade elementDefinitionReaderFacade,
+      ElementDefinitionHolder elementDefinitionHolder) {
+    if (!ConfigurationReader.getOrDefault(PIPELINE_PROPERTY, true, Boolean::parseBoolean)) {
+      return Optional.empty();
+    }
+    int threads = ConfigurationReader.getOrDefault(PIPELINE_THREADS_PROPERTY,
+        Runtime.getRuntime().availableProcessors(), Integer::parseInt);
+    int queueCapacity = ConfigurationReader.getOrDefault(PIPELINE_QUEUE_CAPACITY_PROPERTY, 256, Integer::parseInt);
+    return Optional.of(new PipelinedDefinitionLoader(elementDefinitionReaderFacade, elementDefinitionHolder,
+        Math.max(1, threads), Math.max(1, Math.min(queueCapacity, MAX_QUEUE_CAPACITY))));
+  }
+
+  public void load(Class<?> initClazz) {
+    load(elementConsumer -> ClasspathElementScanner.scanPackages(initClazz, elementConsumer));
+  }
+
+  // scan pushes every element class it finds into the given consumer, from any number of threads
+  public void load(Consumer<Consumer<Class<?>>> scan) {
+    var pipeline = new Pipeline();
+    try {
+      scan.accept(pipeline::read);
+    } catch (RuntimeException e) {
+      pipeline.fail(e);
+    }
+    pipeline.await();
+  }
+
+  private final class Pipeline {
+
+    private final ThreadPoolExecutor readers = stageExecutor("read");
+    private final ThreadPoolExecutor conditions = stageExecutor("conditions");
+    private final ThreadPoolExecutor registration = stageExecutor("register");
+    // the loading thread plus one party per submitted task, so the phase advances once every stage is drained
+    private final Phaser inFlight = new Phaser(1);
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private final AtomicInteger registeredDefinitions = new AtomicInteger();
+
+    private void read(Class<?> clazz) {
+      submit(readers, () -> {
+        var elementDefinition = elementDefinitionReaderFacade.readElementDefinition(clazz);
+        submit(conditions, () -> evaluate(elementDefinition));
+      });
+    }
+
+    private void evaluate(ElementDefinition elementDefinition) {
+      elementDefinitionReaderFacade.acceptedDefinitions(elementDefinition)
+          .forEach(acceptedDefinition -> submit(registration, () -> {
+            elementDefinitionHolder.addElementDefinition(acceptedDefinition);
+            registeredDefinitions.incrementAndGet();
+          }));
+    }
+
+    private void submit(ThreadPoolExecutor stage, Runnable work) {
+      if (failure.get() != null) {
+        return;
+      }
+      inFlight.register();
+      stage.execute(() -> {
+        try {
+          if (failure.get() == null) {
+            work.run();
+          }
+        } catch (Throwable e) {
+          fail(e);
+        } finally {
+          inFlight.arriveAndDeregister();
+        }
+      });
+    }
+
+    private void fail(Throwable e) {
+      if (!failure.compareAndSet(null, e)) {
+        failure.get().addSuppressed(e);
+      }
+    }
+
+    private void await() {
+      inFlight.arriveAndAwaitAdvance();
+      Stream.of(readers, conditions, registration).forEach(ThreadPoolExecutor::shutdown);
+
+      var loadFailure = failure.get();
+      if (loadFailure instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      if (loadFailure instanceof Error error) {
+        throw error;
+      }
+      if (loadFailure != null) {
+        throw new ContainerInitException("Failed to load element definitions", loadFailure);
+      }
+      log.debug("Loaded {} element definitions through the pipeline, {} threads per stage", registeredDefinitions.get(), threads);
+    }
+
+    // core threads start on demand, so small contexts never start the whole pool
+    private ThreadPoolExecutor stageExecutor(String stage) {
+      var threadNumber = new AtomicInteger();
+      var executor = new ThreadPoolExecutor(threads, threads, 10, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueCapacity),
+          task -> {
+            var thread = new Thread(task, "contextor-load-" + stage + "-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+          }, new CallerRunsPolicy());
+      executor.allowCoreThreadTimeOut(true);
+      return executor;
+    }
+  }
+}
@@ -0,0 +1,47 @@
+package ua.gorobeos.contextor.context.storage;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Set;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+
+// One generation of reloaded classes: changed classes (and their nested classes) are defined child-first from the
+// class directories, everything else is delegated to the previous generation
+@FieldDefaults(makeFinal = true, level = AccessLevel.PRIVATE)
+class ReloadingClassLoader extends URLClassLoader {
+
+  static {
+    registerAsParallelCapable();
+  }
+
+  Set<String> reloadedClassNames;
+
+  ReloadingClassLoader(int generation, URL[] classesDirectories, Set<String> reloadedClassNames, ClassLoader parent) {
+    super("reload-" + generation, classesDirectories, parent);
+    this.reloadedClassNames = Set.copyOf(reloadedClassNames);
+  }
+
+  @Override
+  protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+    if (!isReloaded(name)) {
+      return super.loadClass(name, resolve);
+    }
+    synchronized (getClassLoadingLock(name)) {
+      var loadedClass = findLoadedClass(name);
+      if (loadedClass == null) {
+        loadedClass = findClass(name);
+      }
+      if (resolve) {
+        resolveClass(loadedClass);
+      }
+      return loadedClass;
+    }
+  }
+
+  private boolean isReloaded(String name) {
+    int nestedSeparator = name.indexOf('$');
+    return reloadedClassNames.contains(name)
+        || nestedSeparator > 0 && reloadedClassNames.contains(name.substring(0, nestedSeparator));
+  }
+}
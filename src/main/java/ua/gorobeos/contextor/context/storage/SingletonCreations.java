@@ -0,0 +1,74 @@
+package ua.gorobeos.contextor.context.storage;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import ua.gorobeos.contextor.context.exceptions.CircularDependencyException;
+
+// At most one running creation per singleton name: the thread that claims a name creates the element, any other
+// thread asking for it meanwhile waits for that creation's future instead of constructing its own. No monitor is
+// held while an element is constructed, so creations never pin a virtual thread, and a thread only ever waits for
+// a dependency of what it creates, which can not wait back on it unless the dependencies form a cycle.
+@Slf4j
+final class SingletonCreations {
+
+  private final ConcurrentMap<String, Creation> running = new ConcurrentHashMap<>();
+
+  Object getOrCreate(String name, Map<String, Object> singletons, Supplier<Object> creation) {
+    var element = singletons.get(name);
+    if (element != null) {
+      return element;
+    }
+    var claimed = new Creation(Thread.currentThread());
+    var other = running.putIfAbsent(name, claimed);
+    if (other != null) {
+      return other.await(name);
+    }
+    try {
+      // a creation finishing between the lookup and the claim has already registered its element
+      element = singletons.get(name);
+      if (element == null) {
+        element = creation.get();
+        singletons.put(name, element);
+      }
+      claimed.result.complete(element);
+      return element;
+    } catch (RuntimeException | Error e) {
+      claimed.result.completeExceptionally(e);
+      throw e;
+    } finally {
+      // waiters hold the future itself; a later request after a failure starts a creation of its own
+      running.remove(name, claimed);
+    }
+  }
+
+  private record Creation(Thread creator, CompletableFuture<Object> result) {
+
+    Creation(Thread creator) {
+      this(creator, new CompletableFuture<>());
+    }
+
+    Object await(String name) {
+      if (creator == Thread.currentThread()) {
+        log.error("Element '{}' depends on itself while being created", name);
+        throw new CircularDependencyException("Element '%s' depends on itself while being created".formatted(name));
+      }
+      log.debug("Waiting for element '{}' being created by {}", name, creator.getName());
+      try {
+        return result.join();
+      } catch (CompletionException e) {
+        if (e.getCause() instanceof RuntimeException runtimeException) {
+          throw runtimeException;
+        }
+        if (e.getCause() instanceof Error error) {
+          throw error;
+        }
+        throw e;
+      }
+    }
+  }
+}
@@ -0,0 +1,100 @@
+package ua.gorobeos.contextor.context.utils;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InaccessibleObjectException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import lombok.experimental.UtilityClass;
+
+// Accessors of annotation attributes are resolved once per annotation type into method handles; attribute values of
+// a class-level annotation are read into a snapshot the first time that annotation is asked for on the class. Only the
+// requested annotation is read, so a broken attribute of another annotation on the class does not affect it. Array
+// values are handed out as they are in the snapshot, shared by every caller, so callers must never write to them.
+@UtilityClass
+class AnnotationAttributeCache {
+
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+  private static final MethodType ACCESSOR_TYPE = MethodType.methodType(Object.class, Annotation.class);
+
+  private static final ClassValue<Map<String, MethodHandle>> ACCESSORS = new ClassValue<>() {
+    @Override
+    protected Map<String, MethodHandle> computeValue(Class<?> annotationType) {
+      return resolveAccessors(annotationType);
+    }
+  };
+
+  private static final ClassValue<ConcurrentMap<Class<? extends Annotation>, Optional<Map<String, Object>>>> SNAPSHOTS =
+      new ClassValue<>() {
+        @Override
+        protected ConcurrentMap<Class<? extends Annotation>, Optional<Map<String, Object>>> computeValue(Class<?> annotatedClass) {
+          return new ConcurrentHashMap<>();
+        }
+      };
+
+  static Optional<Map<String, Object>> getAttributes(Class<?> annotatedClass, Class<? extends Annotation> annotationType) {
+    var snapshots = SNAPSHOTS.get(annotatedClass);
+    var snapshot = snapshots.get(annotationType);
+    if (snapshot == null) {
+      // a failing read is not cached, so it fails again on every lookup of that annotation only
+      snapshot = snapshots.computeIfAbsent(annotationType,
+          type -> Optional.ofNullable(annotatedClass.getAnnotation(type)).map(AnnotationAttributeCache::readAttributes));
+    }
+    return snapshot;
+  }
+
+  static Object getAttribute(Annotation annotation, String attributeName) {
+    var accessor = ACCESSORS.get(annotation.annotationType()).get(attributeName);
+    if (accessor == null) {
+      throw new IllegalArgumentException("Error getting value from annotation",
+          new NoSuchMethodException(annotation.annotationType().getName() + "." + attributeName));
+    }
+    return invoke(accessor, annotation);
+  }
+
+  private static Map<String, Object> readAttributes(Annotation annotation) {
+    Map<String, Object> attributes = new HashMap<>();
+    ACCESSORS.get(annotation.annotationType())
+        .forEach((attributeName, accessor) -> attributes.put(attributeName, invoke(accessor, annotation)));
+    return Map.copyOf(attributes);
+  }
+
+  private static Object invoke(MethodHandle accessor, Annotation annotation) {
+    try {
+      return (Object) accessor.invokeExact(annotation);
+    } catch (Throwable e) {
+      throw new IllegalArgumentException("Error getting value from annotation", e);
+    }
+  }
+
+  private static Map<String, MethodHandle> resolveAccessors(Class<?> annotationType) {
+    Map<String, MethodHandle> accessors = new HashMap<>();
+    for (Method attribute : annotationType.getDeclaredMethods()) {
+      if (attribute.getParameterCount() == 0 && !attribute.isSynthetic() && !Modifier.isStatic(attribute.getModifiers())) {
+        accessors.put(attribute.getName(), toAccessor(attribute));
+      }
+    }
+    return Map.copyOf(accessors);
+  }
+
+  private static MethodHandle toAccessor(Method attribute) {
+    try {
+      // non-public annotation types are only reachable once the attribute is made accessible
+      attribute.setAccessible(true);
+    } catch (InaccessibleObjectException | SecurityException e) {
+      // public attributes of exported annotation types are reachable anyway
+    }
+    try {
+      return LOOKUP.unreflect(attribute).asType(ACCESSOR_TYPE);
+    } catch (IllegalAccessException e) {
+      throw new IllegalArgumentException("Cannot access annotation attribute " + attribute, e);
+    }
+  }
+}
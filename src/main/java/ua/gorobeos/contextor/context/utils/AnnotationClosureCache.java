@@ -0,0 +1,72 @@
+package ua.gorobeos.contextor.context.utils;
+
+import java.lang.annotation.Annotation;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import lombok.experimental.UtilityClass;
+
+// Annotation closure of a class (direct, inherited and meta-annotations, as org.reflections collects them), computed
+// once per class. Every annotation type gets a global bit index, so a presence check is a single word lookup.
+@UtilityClass
+class AnnotationClosureCache {
+
+  private static final AtomicInteger NEXT_ANNOTATION_INDEX = new AtomicInteger();
+
+  private static final ClassValue<Integer> ANNOTATION_INDEXES = new ClassValue<>() {
+    @Override
+    protected Integer computeValue(Class<?> annotationType) {
+      return NEXT_ANNOTATION_INDEX.getAndIncrement();
+    }
+  };
+
+  private static final ClassValue<AnnotationClosure> CLOSURES = new ClassValue<>() {
+    @Override
+    protected AnnotationClosure computeValue(Class<?> type) {
+      return AnnotationClosure.of(type);
+    }
+  };
+
+  static boolean isPresent(Class<?> clazz, Class<? extends Annotation> annotationType) {
+    return CLOSURES.get(clazz).contains(ANNOTATION_INDEXES.get(annotationType));
+  }
+
+  static Set<Class<? extends Annotation>> getAnnotationTypes(Class<?> clazz) {
+    return CLOSURES.get(clazz).annotationTypes;
+  }
+
+  private static final class AnnotationClosure {
+
+    private final Set<Class<? extends Annotation>> annotationTypes;
+    private final long[] annotationBits;
+
+    private AnnotationClosure(Set<Class<? extends Annotation>> annotationTypes, long[] annotationBits) {
+      this.annotationTypes = annotationTypes;
+      this.annotationBits = annotationBits;
+    }
+
+    private static AnnotationClosure of(Class<?> type) {
+      Set<Class<? extends Annotation>> annotationTypes = org.reflections.ReflectionUtils.getAllAnnotations(type)
+          .stream()
+          .map(Annotation::annotationType)
+          .collect(Collectors.toUnmodifiableSet());
+      int[] indexes = annotationTypes.stream()
+          .mapToInt(ANNOTATION_INDEXES::get)
+          .toArray();
+      int maxIndex = -1;
+      for (int index : indexes) {
+        maxIndex = Math.max(maxIndex, index);
+      }
+      var annotationBits = new long[(maxIndex >> 6) + 1];
+      for (int index : indexes) {
+        annotationBits[index >> 6] |= 1L << index;
+      }
+      return new AnnotationClosure(annotationTypes, annotationBits);
+    }
+
+    private boolean contains(int index) {
+      int word = index >> 6;
+      return word < annotationBits.length && (annotationBits[word] & 1L << index) != 0;
+    }
+  }
+}
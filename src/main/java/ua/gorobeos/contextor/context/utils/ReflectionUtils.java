@@ -7,6 +7,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -23,17 +24,13 @@ public class ReflectionUtils {
   private static final Logger log = LoggerFactory.getLogger(ReflectionUtils.class);
 
   public static boolean isAnnotationPresentFullCheck(Class<?> clazz, Class<? extends Annotation> targerAnnotation) {
-    return getAnnotationsFromClassFullCheck(clazz)
-        .stream()
-        .anyMatch(annotation -> annotation.equals(targerAnnotation));
+    return AnnotationClosureCache.isPresent(clazz, targerAnnotation);
   }
 
+  // Cached per class and unmodifiable
   public static Set<Class<? extends Annotation>> getAnnotationsFromClassFullCheck(@Nonnull Class<?> targetClazz) {
     log.trace("Getting annotations from class: {}", targetClazz.getName());
-    return org.reflections.ReflectionUtils.getAllAnnotations(targetClazz)
-        .stream()
-        .map(Annotation::annotationType)
-        .collect(Collectors.toSet());
+    return AnnotationClosureCache.getAnnotationTypes(targetClazz);
   }
   public static Set<Class<? extends Annotation>> getAnnotationsFromClass(@Nonnull Class<?> targetClazz) {
     log.trace("Getting annotations from class: {}", targetClazz.getName());
@@ -54,11 +51,12 @@ public class ReflectionUtils {
     return Optional.ofNullable(targetClazz.getAnnotation(targetAnnotation));
   }
 
+  // Array values are the cached snapshot itself, shared with every other caller: read them, never write to them
   public static <T> Optional<T> getValueFromAnnotation(Class<?> targetClazz, Class<? extends Annotation> annotation, String fieldName,
       Class<T> type) {
     log.trace("Getting value from annotation: {} for field: {} in class: {}", annotation.getName(), fieldName, targetClazz.getName());
-    return getSingleAnnotationFromClass(targetClazz, annotation)
-        .map(an -> extractValue(an, fieldName))
+    return AnnotationAttributeCache.getAttributes(targetClazz, annotation)
+        .map(attributes -> extractValue(attributes, annotation, fieldName))
         .map(val -> castToType(val, type));
   }
 
@@ -96,11 +94,16 @@ public class ReflectionUtils {
   }
 
   private static Object extractValue(Annotation annotation, String fieldName) {
-    try {
-      return annotation.annotationType().getMethod(fieldName).invoke(annotation);
-    } catch (Exception e) {
-      throw new IllegalArgumentException("Error getting value from annotation", e);
+    return AnnotationAttributeCache.getAttribute(annotation, fieldName);
+  }
+
+  private static Object extractValue(Map<String, Object> attributes, Class<? extends Annotation> annotation, String fieldName) {
+    var value = attributes.get(fieldName);
+    if (value == null) {
+      throw new IllegalArgumentException("Error getting value from annotation",
+          new NoSuchMethodException(annotation.getName() + "." + fieldName));
     }
+    return value;
   }
 
   public static Collection<Method> getMethodsAnnotatedBy(Class<?> clazz, Class<? extends Annotation> annotation) {
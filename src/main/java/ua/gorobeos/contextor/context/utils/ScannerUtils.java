@@ -1,26 +1,91 @@
 package ua.gorobeos.contextor.context.utils;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.function.Predicate;
 import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
 import org.reflections.Reflections;
 import org.reflections.scanners.Scanners;
+import org.reflections.util.ConfigurationBuilder;
+import org.reflections.util.FilterBuilder;
+import ua.gorobeos.contextor.context.exceptions.ClasspathScanException;
+import ua.gorobeos.contextor.context.scanner.ClasspathRoot;
 
 @UtilityClass
 @Slf4j
 public class ScannerUtils {
 
   public Set<Class<?>> scanPackage(String packageToScan) {
+    return scanPackage(packageToScan, resourcePath -> true);
+  }
+
+  // inputFilter sees class file paths (com/acme/Service.class) before Reflections reads or loads them
+  public Set<Class<?>> scanPackage(String packageToScan, Predicate<String> inputFilter) {
     log.info("Scanning classes in package: {}", packageToScan);
     validatePackageBasePath(packageToScan);
-    var foundClasses = new Reflections(packageToScan, Scanners.SubTypes.filterResultsBy(c -> true))
-        .getSubTypesOf(Object.class);
+    var configuration = new ConfigurationBuilder()
+        .forPackage(packageToScan)
+        .filterInputsBy(new FilterBuilder().includePackage(packageToScan).and(inputFilter))
+        .setScanners(Scanners.SubTypes.filterResultsBy(c -> true));
+    var foundClasses = new Reflections(configuration).getSubTypesOf(Object.class);
 
     log.trace("Found {} classes in package: {}", foundClasses.size(), packageToScan);
     return foundClasses;
   }
 
-  private void validatePackageBasePath(String packagePath) {
+  public Set<ClasspathRoot> resolveRoots(ClassLoader classLoader, String packageToScan) {
+    validatePackageBasePath(packageToScan);
+    var resourceName = toResourcePath(packageToScan);
+    Set<ClasspathRoot> roots = new LinkedHashSet<>();
+    try {
+      var resources = classLoader.getResources(resourceName);
+      for (var resource : Collections.list(resources)) {
+        ClasspathRoot.fromResource(resource, resourceName)
+            .ifPresentOrElse(roots::add, () -> log.warn("Unsupported classpath resource location: {}", resource));
+      }
+    } catch (IOException e) {
+      throw new ClasspathScanException("Failed to resolve classpath roots for package: " + packageToScan, e);
+    }
+    log.trace("Resolved roots {} for package: {}", roots, packageToScan);
+    return roots;
+  }
+
+  // Drops duplicates and packages nested in another requested package: [a.b, a, a.b.c, x] -> [a, x]
+  public List<String> collapsePackages(Collection<String> packages) {
+    List<String> collapsed = new ArrayList<>();
+    packages.stream()
+        .distinct()
+        .sorted()
+        .forEach(packageName -> collapsed.stream()
+            .filter(parent -> packageName.startsWith(parent + "."))
+            .findFirst()
+            .ifPresentOrElse(
+                parent -> log.debug("Package '{}' is already covered by '{}'", packageName, parent),
+                () -> collapsed.add(packageName)));
+    return collapsed;
+  }
+
+  public boolean isInPackages(String className, Collection<String> packages) {
+    for (String packageName : packages) {
+      if (className.startsWith(packageName) && className.length() > packageName.length()
+          && className.charAt(packageName.length()) == '.') {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public String toResourcePath(String packageName) {
+    return packageName.replace('.', '/');
+  }
+
+  public void validatePackageBasePath(String packagePath) {
     if (packagePath == null || packagePath.isEmpty()) {
       String errorMessage = "Package path cannot be null or empty.";
       log.error(errorMessage);
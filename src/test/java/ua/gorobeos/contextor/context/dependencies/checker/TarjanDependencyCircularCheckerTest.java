@@ -0,0 +1,115 @@
+package ua.gorobeos.contextor.context.dependencies.checker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static ua.gorobeos.contextor.context.element.ElementDefinition.SINGLETON_SCOPE;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import ua.gorobeos.contextor.context.dependencies.DependencyDefinition;
+import ua.gorobeos.contextor.context.dependencies.SimpleDependencyResolver;
+import ua.gorobeos.contextor.context.element.AnnotationElementDefinition;
+import ua.gorobeos.contextor.context.element.ElementDefinition;
+import ua.gorobeos.contextor.context.exceptions.CircularDependencyException;
+import ua.gorobeos.contextor.context.storage.DefaultElementDefinitionHolder;
+
+class TarjanDependencyCircularCheckerTest {
+
+  DefaultElementDefinitionHolder holder = new DefaultElementDefinitionHolder();
+  SimpleDependencyResolver dependencyResolver = spy(new SimpleDependencyResolver(holder));
+  TarjanDependencyCircularChecker checker = new TarjanDependencyCircularChecker(dependencyResolver);
+
+  @Test
+  void shouldOrderDependenciesBeforeDependents() {
+    register("service", "repository", "clock");
+    register("repository", "dataSource");
+    register("dataSource");
+    register("clock");
+    register("controller", "service");
+
+    var ordered = checker.checkForCircularDependencies(holder.getElementDefinitions())
+        .stream()
+        .map(ElementDefinition::getName)
+        .toList();
+
+    assertThat(ordered).containsExactlyInAnyOrder("service", "repository", "clock", "dataSource", "controller");
+    assertThat(ordered.indexOf("dataSource")).isLessThan(ordered.indexOf("repository"));
+    assertThat(ordered.indexOf("repository")).isLessThan(ordered.indexOf("service"));
+    assertThat(ordered.indexOf("clock")).isLessThan(ordered.indexOf("service"));
+    assertThat(ordered.indexOf("service")).isLessThan(ordered.indexOf("controller"));
+  }
+
+  @Test
+  void shouldResolveEveryDependencyOnce() {
+    register("first", "shared");
+    register("second", "shared");
+    register("third", "first", "second");
+    register("shared");
+
+    checker.checkForCircularDependencies(holder.getElementDefinitions());
+
+    verify(dependencyResolver, times(4)).retrieveDependency(any());
+  }
+
+  @Test
+  void shouldReportEveryCycleWithItsPath() {
+    register("a", "b");
+    register("b", "c");
+    register("c", "a");
+    register("self", "self");
+    register("x", "y");
+    register("y", "x");
+    register("standalone");
+
+    assertThatThrownBy(() -> checker.checkForCircularDependencies(holder.getElementDefinitions()))
+        .isInstanceOf(CircularDependencyException.class)
+        .hasMessageContainingAll("'self' -> 'self'", "'a' -> 'b' -> 'c' -> 'a'")
+        .message()
+        .satisfiesAnyOf(
+            message -> assertThat(message).contains("'x' -> 'y' -> 'x'"),
+            message -> assertThat(message).contains("'y' -> 'x' -> 'y'"))
+        .doesNotContain("standalone");
+  }
+
+  @Test
+  void shouldFindCycleReachableFromSingleDefinition() {
+    register("entry", "a");
+    register("a", "b");
+    register("b", "a");
+
+    assertThatThrownBy(() -> checker.checkForCircularDependencies(holder.getElementDefinition("entry").orElseThrow()))
+        .isInstanceOf(CircularDependencyException.class)
+        .hasMessageContaining("'a' -> 'b' -> 'a'")
+        .message()
+        .doesNotContain("entry");
+  }
+
+  @Test
+  void shouldCheckLongChainsWithoutRecursion() {
+    int length = 100_000;
+    IntStream.range(0, length).forEach(i -> register("element" + i, i + 1 < length ? new String[] {"element" + (i + 1)} : new String[0]));
+
+    var ordered = checker.checkForCircularDependencies(holder.getElementDefinition("element0").stream().toList());
+
+    assertThat(ordered).hasSize(length);
+    assertThat(ordered.get(0).getName()).isEqualTo("element" + (length - 1));
+    assertThat(ordered.get(length - 1).getName()).isEqualTo("element0");
+  }
+
+  private void register(String name, String... dependencies) {
+    holder.addElementDefinition(AnnotationElementDefinition.builder()
+        .name(name)
+        .isPrimary(false)
+        .type(Object.class)
+        .scope(SINGLETON_SCOPE)
+        .dependencies(Arrays.stream(dependencies)
+            .map(dependency -> DependencyDefinition.builder().name(dependency).clazz(Object.class).build())
+            .toList())
+        .build());
+  }
+}
@@ -0,0 +1,146 @@
+package ua.gorobeos.contextor.context.element.instantiation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import ua.gorobeos.contextor.context.element.AnnotationElementDefinition;
+import ua.gorobeos.contextor.context.element.ElementDefinition;
+import ua.gorobeos.contextor.context.element.MethodDefinedElementDefinition;
+import ua.gorobeos.contextor.context.exceptions.ElementCreationException;
+
+class ElementInstantiatorTest {
+
+  @ParameterizedTest
+  @EnumSource(InstantiationStrategy.class)
+  void shouldCreateElementThroughPrivateConstructor(InstantiationStrategy strategy) throws Exception {
+    var definition = constructorDefinition(Service.class.getDeclaredConstructor(Repository.class, String.class));
+    var repository = new Repository();
+
+    var created = strategy.createInstantiator().instantiate(definition, null, new Object[]{repository, "orders"});
+
+    assertThat(created).isInstanceOf(Service.class);
+    assertThat(((Service) created).repository).isSameAs(repository);
+    assertThat(((Service) created).name).isEqualTo("orders");
+  }
+
+  @ParameterizedTest
+  @EnumSource(InstantiationStrategy.class)
+  void shouldInvokeInitMethodOnConfigElement(InstantiationStrategy strategy) throws Exception {
+    var definition = methodDefinition(Config.class.getDeclaredMethod("service", Repository.class));
+
+    var created = strategy.createInstantiator().instantiate(definition, new Config("billing"), new Object[]{new Repository()});
+
+    assertThat(((Service) created).name).isEqualTo("billing");
+  }
+
+  @ParameterizedTest
+  @EnumSource(InstantiationStrategy.class)
+  void shouldWrapFailuresOfInitConstructor(InstantiationStrategy strategy) throws Exception {
+    var definition = constructorDefinition(FailingElement.class.getDeclaredConstructor());
+    var instantiator = strategy.createInstantiator();
+
+    assertThatThrownBy(() -> instantiator.instantiate(definition, null, new Object[0]))
+        .isInstanceOf(ElementCreationException.class)
+        .hasRootCauseMessage("boom");
+  }
+
+  @Test
+  void shouldCreateWithoutReflection() throws Exception {
+    var definition = constructorDefinition(CallerRecordingElement.class.getDeclaredConstructor());
+    var instantiator = InstantiationStrategy.LAMBDA.createInstantiator();
+
+    var created = (CallerRecordingElement) instantiator.instantiate(definition, null, new Object[0]);
+
+    assertThat(created.createdReflectively).isFalse();
+  }
+
+  @Test
+  void shouldFallBackToReflectionForLongParameterLists() throws Exception {
+    var definition = constructorDefinition(WideElement.class.getDeclaredConstructors()[0]);
+    var arguments = new Object[7];
+    Arrays.fill(arguments, "x");
+
+    var created = (WideElement) InstantiationStrategy.LAMBDA.createInstantiator().instantiate(definition, null, arguments);
+
+    assertThat(created.createdReflectively).isTrue();
+  }
+
+  private static ElementDefinition constructorDefinition(Constructor<?> constructor) {
+    return AnnotationElementDefinition.builder()
+        .name(constructor.getDeclaringClass().getSimpleName())
+        .type(constructor.getDeclaringClass())
+        .initConstructor(constructor)
+        .dependencies(List.of())
+        .build();
+  }
+
+  private static ElementDefinition methodDefinition(Method method) {
+    return MethodDefinedElementDefinition.builder()
+        .name(method.getName())
+        .type(method.getReturnType())
+        .configClass(method.getDeclaringClass())
+        .initMethod(method)
+        .dependencies(List.of())
+        .build();
+  }
+
+  private static boolean isReflectiveCall() {
+    return Arrays.stream(new Throwable().getStackTrace())
+        .anyMatch(frame -> frame.getClassName().equals("java.lang.reflect.Constructor"));
+  }
+
+  static class Repository {
+
+  }
+
+  static class Service {
+
+    private final Repository repository;
+    private final String name;
+
+    private Service(Repository repository, String name) {
+      this.repository = repository;
+      this.name = name;
+    }
+  }
+
+  static class Config {
+
+    private final String name;
+
+    Config(String name) {
+      this.name = name;
+    }
+
+    Service service(Repository repository) {
+      return new Service(repository, name);
+    }
+  }
+
+  static class FailingElement {
+
+    FailingElement() {
+      throw new IllegalStateException("boom");
+    }
+  }
+
+  static class CallerRecordingElement {
+
+    private final boolean createdReflectively = isReflectiveCall();
+  }
+
+  static class WideElement {
+
+    private final boolean createdReflectively = isReflectiveCall();
+
+    WideElement(String a, String b, String c, String d, String e, String f, String g) {
+    }
+  }
+}
@@ -0,0 +1,135 @@
+package ua.gorobeos.contextor.context.element.instantiation.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+import ua.gorobeos.contextor.context.element.AnnotationElementDefinition;
+import ua.gorobeos.contextor.context.element.ElementDefinition;
+import ua.gorobeos.contextor.context.element.instantiation.ElementInstantiator;
+import ua.gorobeos.contextor.context.element.instantiation.InstantiationStrategy;
+
+// Creates elements with two dependencies through each instantiation strategy: one element type, and several types
+// through the same call site as ContextHolder does.
+// Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=<this class>
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InstantiationBenchmark {
+
+  ElementDefinition definition;
+  ElementDefinition[] definitions;
+  Object[] dependencies;
+  int next;
+  ElementInstantiator reflective;
+  ElementInstantiator lambda;
+
+  @Setup
+  public void setUp() throws NoSuchMethodException {
+    // the bundled logback.xml logs at trace, which would dominate every measurement
+    ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+    definitions = new ElementDefinition[]{definition(OrderService.class), definition(BillingService.class),
+        definition(ShippingService.class), definition(AuditService.class)};
+    definition = definitions[0];
+    dependencies = new Object[]{new Repository(), new Clock()};
+    reflective = InstantiationStrategy.REFLECTION.createInstantiator();
+    lambda = InstantiationStrategy.LAMBDA.createInstantiator();
+  }
+
+  @Benchmark
+  public Object reflection() {
+    return reflective.instantiate(definition, null, dependencies);
+  }
+
+  @Benchmark
+  public Object lambdaFactory() {
+    return lambda.instantiate(definition, null, dependencies);
+  }
+
+  @Benchmark
+  public Object reflectionMixedTypes() {
+    return reflective.instantiate(nextDefinition(), null, dependencies);
+  }
+
+  @Benchmark
+  public Object lambdaFactoryMixedTypes() {
+    return lambda.instantiate(nextDefinition(), null, dependencies);
+  }
+
+  private ElementDefinition nextDefinition() {
+    return definitions[next++ & (definitions.length - 1)];
+  }
+
+  private static ElementDefinition definition(Class<?> type) throws NoSuchMethodException {
+    return AnnotationElementDefinition.builder()
+        .name(type.getSimpleName())
+        .type(type)
+        .initConstructor(type.getDeclaredConstructor(Repository.class, Clock.class))
+        .dependencies(List.of())
+        .build();
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(InstantiationBenchmark.class.getSimpleName())
+        .build())
+        .run();
+  }
+
+  static class Repository {
+
+  }
+
+  static class Clock {
+
+  }
+
+  static class OrderService {
+
+    private final Repository repository;
+    private final Clock clock;
+
+    OrderService(Repository repository, Clock clock) {
+      this.repository = repository;
+      this.clock = clock;
+    }
+  }
+
+  static class BillingService extends OrderService {
+
+    BillingService(Repository repository, Clock clock) {
+      super(repository, clock);
+    }
+  }
+
+  static class ShippingService extends OrderService {
+
+    ShippingService(Repository repository, Clock clock) {
+      super(repository, clock);
+    }
+  }
+
+  static class AuditService extends OrderService {
+
+    AuditService(Repository repository, Clock clock) {
+      super(repository, clock);
+    }
+  }
+}
@@ -0,0 +1,119 @@
+package ua.gorobeos.contextor.context.scanner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ua.gorobeos.contextor.context.annotations.ContextConfig;
+import ua.gorobeos.contextor.context.annotations.Profile;
+import ua.gorobeos.contextor.context.scanner.bytecode.ClassMetadataRepository;
+import ua.gorobeos.contextor.context.storage.context_full_load.with_config.ConfigClass;
+
+class BytecodeClasspathScannerTest {
+
+  private static final String PROFILES_PACKAGE = "ua.gorobeos.contextor.scanner.test.packs.profiles";
+  private static final String WITH_CONFIG_PACKAGE = "ua.gorobeos.contextor.context.storage.context_full_load.with_config";
+
+  TrackingClassLoader classLoader;
+  ClasspathRoot testClassesRoot;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    var testClasses = Path.of(ConfigClass.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+    testClassesRoot = ClasspathRoot.of(testClasses);
+    classLoader = new TrackingClassLoader(testClasses.toUri().toURL());
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    classLoader.close();
+  }
+
+  @Test
+  void shouldFindDirectAndMetaAnnotatedElementsWithoutLoadingAnyClass() {
+    var request = ScanRequest.builder()
+        .basePackages(List.of(WITH_CONFIG_PACKAGE))
+        .classLoader(classLoader)
+        .build();
+
+    var candidates = new BytecodeClasspathScanner().scan(testClassesRoot, request);
+
+    assertThat(candidates)
+        .extracting(ElementCandidate::getClassName)
+        .containsExactlyInAnyOrder(
+        WITH_CONFIG_PACKAGE + ".BookRepository",
+        WITH_CONFIG_PACKAGE + ".BookServiceImpl",
+        WITH_CONFIG_PACKAGE + ".ConfigClass");
+    assertThat(candidates)
+        .filteredOn(candidate -> candidate.getClassName().endsWith("ConfigClass"))
+        .singleElement()
+        .satisfies(candidate -> assertThat(candidate.getAnnotationNames())
+            .contains(ContextConfig.class.getName(), "ua.gorobeos.contextor.context.annotations.Element"));
+    assertThat(classLoader.isLoaded(WITH_CONFIG_PACKAGE + ".BookService")).isFalse();
+    assertThat(classLoader.isLoaded(WITH_CONFIG_PACKAGE + ".ConfigClass")).isFalse();
+  }
+
+  @Test
+  void shouldResolveMetaAnnotationsFromClassFiles() {
+    var repository = new ClassMetadataRepository(classLoader);
+    var metadata = repository.getMetadata(ConfigClass.class.getName()).orElseThrow();
+
+    assertThat(metadata.getAnnotationNames()).contains(ContextConfig.class.getName());
+    assertThat(metadata.getSuperClassName()).isEqualTo(Object.class.getName());
+    assertThat(repository.isAnnotationPresentFullCheck(metadata, "ua.gorobeos.contextor.context.annotations.Element")).isTrue();
+  }
+
+  @Test
+  void shouldDropInactiveProfilesFromClassFileMetadata() {
+    var request = ScanRequest.builder()
+        .basePackages(List.of(PROFILES_PACKAGE))
+        .classLoader(classLoader)
+        .filter(ScanFilter.builder().activeProfiles(Set.of("dev")).build())
+        .build();
+
+    var candidates = new BytecodeClasspathScanner().scan(testClassesRoot, request);
+
+    assertThat(candidates)
+        .extracting(ElementCandidate::getClassName)
+        .containsExactlyInAnyOrder(PROFILES_PACKAGE + ".AlwaysElement", PROFILES_PACKAGE + ".DevElement");
+    assertThat(request.getFilter().getPrunedByProfile()).isEqualTo(2);
+  }
+
+  @Test
+  void shouldReadStringValuesOfAnnotations() {
+    var metadata = new ClassMetadataRepository(classLoader).getMetadata(PROFILES_PACKAGE + ".ProductionElement").orElseThrow();
+
+    assertThat(metadata.getAnnotationValues(Profile.class.getName(), "value")).containsExactly("prod", "staging");
+    assertThat(metadata.getAnnotationValues(Profile.class.getName(), "other")).isEmpty();
+  }
+
+  // Defines classes of the scanned test package itself, so that loading them is observable
+  private static class TrackingClassLoader extends URLClassLoader {
+
+    TrackingClassLoader(URL testClasses) {
+      super(new URL[]{testClasses}, BytecodeClasspathScannerTest.class.getClassLoader());
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+      if (!name.startsWith(WITH_CONFIG_PACKAGE)) {
+        return super.loadClass(name, resolve);
+      }
+      synchronized (getClassLoadingLock(name)) {
+        var loaded = findLoadedClass(name);
+        return loaded != null ? loaded : findClass(name);
+      }
+    }
+
+    boolean isLoaded(String name) {
+      return findLoadedClass(name) != null;
+    }
+  }
+}
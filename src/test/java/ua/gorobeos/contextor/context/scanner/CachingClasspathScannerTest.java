@@ -0,0 +1,69 @@
+package ua.gorobeos.contextor.context.scanner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CachingClasspathScannerTest {
+
+  private static final ElementCandidate CANDIDATE = ElementCandidate.builder()
+      .className("com.acme.Service")
+      .annotationNames(Set.of("ua.gorobeos.contextor.context.annotations.Element"))
+      .metadataResolved(true)
+      .build();
+
+  @TempDir
+  Path rootDirectory;
+
+  @TempDir
+  Path cacheDirectory;
+
+  ClasspathScanner delegate;
+  ClasspathRoot root;
+  ScanRequest request;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    Files.createDirectories(rootDirectory.resolve("com/acme"));
+    Files.write(rootDirectory.resolve("com/acme/Service.class"), new byte[]{1, 2, 3});
+    delegate = mock(ClasspathScanner.class);
+    when(delegate.scan(any(), any())).thenReturn(Set.of(CANDIDATE));
+    root = ClasspathRoot.of(rootDirectory);
+    request = ScanRequest.builder()
+        .basePackages(List.of("com.acme"))
+        .classLoader(getClass().getClassLoader())
+        .build();
+  }
+
+  @Test
+  void shouldServeUnchangedRootFromCacheAcrossScannerInstances() {
+    var firstResult = new CachingClasspathScanner(delegate, new ScanCache(cacheDirectory)).scan(root, request);
+    var secondResult = new CachingClasspathScanner(delegate, new ScanCache(cacheDirectory)).scan(root, request);
+
+    verify(delegate, times(1)).scan(any(), any());
+    assertThat(secondResult).isEqualTo(firstResult).containsExactly(CANDIDATE);
+  }
+
+  @Test
+  void shouldRescanRootWhenClassFilesChange() throws IOException {
+    var scanner = new CachingClasspathScanner(delegate, new ScanCache(cacheDirectory));
+    scanner.scan(root, request);
+
+    Files.write(rootDirectory.resolve("com/acme/Repository.class"), new byte[]{4, 5});
+    scanner.scan(root, request);
+
+    verify(delegate, times(2)).scan(any(), any());
+  }
+}
@@ -0,0 +1,104 @@
+package ua.gorobeos.contextor.context.scanner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.jupiter.api.Test;
+import ua.gorobeos.contextor.context.annotations.ElementScan;
+import ua.gorobeos.contextor.context.config.ConfigurationReader;
+import ua.gorobeos.contextor.context.storage.context_full_load.with_config.ConfigClass;
+
+class ClassPreloaderTest {
+
+  private static final String WITH_CONFIG_PACKAGE = "ua.gorobeos.contextor.context.storage.context_full_load.with_config";
+
+  @Test
+  void shouldLoadCandidatesAndTheirConstructorParameterTypesInBackground() throws Exception {
+    var testClasses = Path.of(ConfigClass.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+    try (var classLoader = new ChildFirstClassLoader(testClasses.toUri().toURL())) {
+      var preloader = new ClassPreloader(classLoader, 2);
+
+      preloader.accept(ElementCandidate.ofName(WITH_CONFIG_PACKAGE + ".BookServiceImpl"));
+      preloader.accept(ElementCandidate.ofName(WITH_CONFIG_PACKAGE + ".BookServiceImpl"));
+      preloader.accept(ElementCandidate.ofName(WITH_CONFIG_PACKAGE + ".Missing"));
+      preloader.close();
+      preloader.accept(ElementCandidate.ofName(WITH_CONFIG_PACKAGE + ".ConfigClass"));
+
+      assertThat(preloader.awaitTermination(Duration.ofSeconds(10))).isTrue();
+      assertThat(preloader.getPreloadedClasses()).isEqualTo(1);
+      assertThat(classLoader.loadedNames()).contains(
+          WITH_CONFIG_PACKAGE + ".BookServiceImpl",
+          WITH_CONFIG_PACKAGE + ".BookRepository");
+      assertThat(classLoader.loadedNames()).doesNotContain(WITH_CONFIG_PACKAGE + ".ConfigClass");
+    }
+  }
+
+  @Test
+  void shouldPreloadCandidatesOfStreamingScan() {
+    var preloader = spy(new ClassPreloader(getClass().getClassLoader(), 1));
+    var elements = ConcurrentHashMap.<Class<?>>newKeySet();
+    try (var configurationReader = mockStatic(ConfigurationReader.class, CALLS_REAL_METHODS);
+        var preloaders = mockStatic(ClassPreloader.class, CALLS_REAL_METHODS)) {
+      configurationReader.when(() -> ConfigurationReader.getOrDefault(eq(ScanMode.SCAN_MODE_PROPERTY), any(), any()))
+          .thenReturn(ScanMode.BYTECODE);
+      preloaders.when(() -> ClassPreloader.fromProperties(any())).thenReturn(Optional.of(preloader));
+
+      ClasspathElementScanner.scanPackages(MainClass.class, elements::add);
+    }
+
+    assertThat(elements).isNotEmpty();
+    verify(preloader, atLeastOnce()).accept(any());
+    verify(preloader).close();
+  }
+
+  @Test
+  void shouldStayDisabledUnlessConfigured() {
+    assertThat(ClassPreloader.fromProperties(getClass().getClassLoader())).isEmpty();
+  }
+
+  @ElementScan(basePackages = WITH_CONFIG_PACKAGE)
+  private static class MainClass {
+
+  }
+
+  private static class ChildFirstClassLoader extends URLClassLoader {
+
+    ChildFirstClassLoader(URL testClasses) {
+      super(new URL[]{testClasses}, ClassPreloaderTest.class.getClassLoader());
+    }
+
+    List<String> loadedNames() {
+      return List.of(
+              WITH_CONFIG_PACKAGE + ".BookServiceImpl",
+              WITH_CONFIG_PACKAGE + ".BookRepository",
+              WITH_CONFIG_PACKAGE + ".ConfigClass")
+          .stream()
+          .filter(name -> findLoadedClass(name) != null)
+          .toList();
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+      if (!name.startsWith(WITH_CONFIG_PACKAGE)) {
+        return super.loadClass(name, resolve);
+      }
+      synchronized (getClassLoadingLock(name)) {
+        var loaded = findLoadedClass(name);
+        return loaded != null ? loaded : findClass(name);
+      }
+    }
+  }
+}
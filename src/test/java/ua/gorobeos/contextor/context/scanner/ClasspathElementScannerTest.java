@@ -2,11 +2,31 @@ package ua.gorobeos.contextor.context.scanner;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mockStatic;
 
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.mockito.MockedStatic;
 import ua.gorobeos.contextor.context.annotations.ElementScan;
+import ua.gorobeos.contextor.context.config.ConfigurationReader;
 import ua.gorobeos.contextor.context.exceptions.ContainerInitException;
+import ua.gorobeos.contextor.scanner.test.packs.filtered.MarkedElement;
+import ua.gorobeos.contextor.scanner.test.packs.filtered.Marker;
+import ua.gorobeos.contextor.scanner.test.packs.profiles.AlwaysElement;
+import ua.gorobeos.contextor.scanner.test.packs.profiles.DevElement;
+import ua.gorobeos.contextor.scanner.test.packs.profiles.NotDevElement;
+import ua.gorobeos.contextor.scanner.test.packs.profiles.ProductionElement;
 import ua.gorobeos.contextor.scanner.test.packs.one_lvl_deep.ClassA;
 import ua.gorobeos.contextor.scanner.test.packs.one_lvl_deep.ClassB;
 import ua.gorobeos.contextor.scanner.test.packs.two_lvl_deep.ClassC;
@@ -15,6 +35,8 @@ import ua.gorobeos.contextor.scanner.test.packs.two_lvl_deep.second_lvl.ClassE;
 
 class ClasspathElementScannerTest {
 
+  private static final String PROFILES_PACKAGE = "ua.gorobeos.contextor.scanner.test.packs.profiles";
+
   @Test
   @DisplayName("Test scanning of classpath elements with multiple packages")
   void shouldScanPackagesCorrectly() {
@@ -29,6 +51,91 @@ class ClasspathElementScannerTest {
         );
   }
 
+  @ParameterizedTest
+  @EnumSource(ScanMode.class)
+  @DisplayName("Every scan mode should find the same elements")
+  void shouldScanPackagesCorrectlyInEveryMode(ScanMode scanMode) {
+    try (MockedStatic<ConfigurationReader> configurationReader = mockStatic(ConfigurationReader.class, CALLS_REAL_METHODS)) {
+      configurationReader.when(() -> ConfigurationReader.getOrDefault(eq(ScanMode.SCAN_MODE_PROPERTY), any(), any()))
+          .thenReturn(scanMode);
+
+      var scannedClasses = ClasspathElementScanner.scanPackages(InitClass.class);
+
+      assertThat(scannedClasses)
+          .containsExactlyInAnyOrder(ClassA.class, ClassB.class, ClassC.class, ClassD.class, ClassE.class);
+    }
+  }
+
+  @ParameterizedTest
+  @EnumSource(ScanMode.class)
+  @DisplayName("Every scan mode should apply ElementScan include and exclude filters")
+  void shouldApplyScanFiltersInEveryMode(ScanMode scanMode) {
+    try (MockedStatic<ConfigurationReader> configurationReader = mockStatic(ConfigurationReader.class, CALLS_REAL_METHODS)) {
+      configurationReader.when(() -> ConfigurationReader.getOrDefault(eq(ScanMode.SCAN_MODE_PROPERTY), any(), any()))
+          .thenReturn(scanMode);
+
+      var scannedClasses = ClasspathElementScanner.scanPackages(FilteredInitClass.class);
+
+      assertThat(scannedClasses).containsExactly(MarkedElement.class);
+    }
+  }
+
+  @ParameterizedTest
+  @EnumSource(ScanMode.class)
+  @DisplayName("Every scan mode should drop elements of inactive profiles")
+  void shouldDropElementsOfInactiveProfilesInEveryMode(ScanMode scanMode) {
+    try (MockedStatic<ConfigurationReader> configurationReader = mockStatic(ConfigurationReader.class, CALLS_REAL_METHODS)) {
+      configurationReader.when(() -> ConfigurationReader.getOrDefault(eq(ScanMode.SCAN_MODE_PROPERTY), any(), any()))
+          .thenReturn(scanMode);
+      configurationReader.when(() -> ConfigurationReader.getOrDefault(eq(ScanFilter.ACTIVE_PROFILES_PROPERTY), any(), any()))
+          .thenReturn(Set.of("staging"));
+
+      var scannedClasses = ClasspathElementScanner.scanPackages(ProfilesInitClass.class);
+
+      assertThat(scannedClasses).containsExactlyInAnyOrder(AlwaysElement.class, NotDevElement.class, ProductionElement.class);
+    }
+  }
+
+  @ParameterizedTest
+  @EnumSource(value = ScanMode.class, names = {"REFLECTIONS", "INDEX", "BYTECODE"})
+  @DisplayName("Elements of inactive profiles should never be loaded, also without any active profile")
+  void shouldNotLoadElementsOfInactiveProfilesWithoutActiveProfiles(ScanMode scanMode) throws Exception {
+    var testClasses = Path.of(DevElement.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+    try (MockedStatic<ConfigurationReader> configurationReader = mockStatic(ConfigurationReader.class, CALLS_REAL_METHODS);
+        var classLoader = new ChildFirstClassLoader(testClasses.toUri().toURL())) {
+      configurationReader.when(() -> ConfigurationReader.getOrDefault(eq(ScanMode.SCAN_MODE_PROPERTY), any(), any()))
+          .thenReturn(scanMode);
+      configurationReader.when(() -> ConfigurationReader.getOrDefault(eq(ScanFilter.ACTIVE_PROFILES_PROPERTY), any(), any()))
+          .thenReturn(Set.of());
+      var initClass = classLoader.loadClass(PROFILES_PACKAGE + ".ProfilesInitClass");
+
+      var scannedClasses = ClasspathElementScanner.scanPackages(initClass);
+
+      assertThat(scannedClasses)
+          .extracting(Class::getSimpleName)
+          .containsExactlyInAnyOrder("AlwaysElement", "NotDevElement");
+      assertThat(classLoader.isLoaded(DevElement.class.getName())).isFalse();
+      assertThat(classLoader.isLoaded(ProductionElement.class.getName())).isFalse();
+    }
+  }
+
+  @ParameterizedTest
+  @EnumSource(ScanMode.class)
+  @DisplayName("Streaming scan should hand over the same elements once each")
+  void shouldStreamSameElementsInEveryMode(ScanMode scanMode) {
+    try (MockedStatic<ConfigurationReader> configurationReader = mockStatic(ConfigurationReader.class, CALLS_REAL_METHODS)) {
+      configurationReader.when(() -> ConfigurationReader.getOrDefault(eq(ScanMode.SCAN_MODE_PROPERTY), any(), any()))
+          .thenReturn(scanMode);
+      Queue<Class<?>> streamedClasses = new ConcurrentLinkedQueue<>();
+
+      ClasspathElementScanner.scanPackages(InitClass.class, streamedClasses::add);
+      ClasspathElementScanner.scanPackages(FilteredInitClass.class, streamedClasses::add);
+
+      assertThat(streamedClasses)
+          .containsExactlyInAnyOrder(ClassA.class, ClassB.class, ClassC.class, ClassD.class, ClassE.class, MarkedElement.class);
+    }
+  }
+
   @Test
   @DisplayName("Should throw ContainerInitException when no packages specified")
   void shouldThrowExceptionWhenNoPackagesSpecified() {
@@ -57,6 +164,19 @@ class ClasspathElementScannerTest {
 
   }
 
+  @ElementScan(basePackages = "ua.gorobeos.contextor.scanner.test.packs.filtered",
+      excludePackages = "ua.gorobeos.contextor.scanner.test.packs.filtered.generated",
+      excludeClassNamePatterns = ".*Fixture",
+      includeAnnotations = Marker.class)
+  class FilteredInitClass {
+
+  }
+
+  @ElementScan(basePackages = "ua.gorobeos.contextor.scanner.test.packs.profiles")
+  class ProfilesInitClass {
+
+  }
+
   @ElementScan(basePackages = {})
   class InitClassWithoutPackages {
 
@@ -66,4 +186,27 @@ class ClasspathElementScannerTest {
   class InvalidPackagesInitClass {
 
   }
-}
\ No newline at end of file
+
+  // defines the profiles fixtures itself, so the test can tell which of them were loaded
+  private static class ChildFirstClassLoader extends URLClassLoader {
+
+    ChildFirstClassLoader(URL testClasses) {
+      super(new URL[]{testClasses}, ClasspathElementScannerTest.class.getClassLoader());
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+      if (!name.startsWith(PROFILES_PACKAGE)) {
+        return super.loadClass(name, resolve);
+      }
+      synchronized (getClassLoadingLock(name)) {
+        var loaded = findLoadedClass(name);
+        return loaded != null ? loaded : findClass(name);
+      }
+    }
+
+    boolean isLoaded(String name) {
+      return findLoadedClass(name) != null;
+    }
+  }
+}
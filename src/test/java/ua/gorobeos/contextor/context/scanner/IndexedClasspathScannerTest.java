@@ -0,0 +1,83 @@
+package ua.gorobeos.contextor.context.scanner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class IndexedClasspathScannerTest {
+
+  @TempDir
+  Path indexedRootDir;
+
+  @TempDir
+  Path plainRootDir;
+
+  ClasspathScanner fallbackScanner;
+  URLClassLoader classLoader;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    var index = indexedRootDir.resolve(IndexedClasspathScanner.INDEX_LOCATION);
+    Files.createDirectories(index.getParent());
+    Files.write(index, List.of(
+        "# generated",
+        "com.acme.ElementA",
+        "com.acme.billing.ElementB",
+        "com.acmeother.ElementC"));
+    fallbackScanner = mock(ClasspathScanner.class);
+    classLoader = new URLClassLoader(new URL[]{
+        indexedRootDir.toUri().toURL(), plainRootDir.toUri().toURL()}, null);
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    classLoader.close();
+  }
+
+  @Test
+  void shouldReadIndexedElementsOfRequestedPackages() {
+    var scanner = new IndexedClasspathScanner(classLoader, fallbackScanner);
+
+    var result = scanner.scan(ClasspathRoot.of(indexedRootDir), request("com.acme"));
+
+    assertThat(result)
+        .extracting(ElementCandidate::getClassName)
+        .containsExactlyInAnyOrder("com.acme.ElementA", "com.acme.billing.ElementB");
+    verify(fallbackScanner, never()).scan(any(), any());
+  }
+
+  @Test
+  void shouldFallbackForRootsWithoutIndex() {
+    var scanner = new IndexedClasspathScanner(classLoader, fallbackScanner);
+    var plainRoot = ClasspathRoot.of(plainRootDir);
+    var request = request("com.acme");
+    when(fallbackScanner.scan(plainRoot, request)).thenReturn(Set.of(ElementCandidate.ofName("com.acme.Fallback")));
+
+    var result = scanner.scan(plainRoot, request);
+
+    assertThat(scanner.isIndexed(plainRoot)).isFalse();
+    assertThat(result).containsExactly(ElementCandidate.ofName("com.acme.Fallback"));
+  }
+
+  private ScanRequest request(String... packages) {
+    return ScanRequest.builder()
+        .basePackages(List.of(packages))
+        .classLoader(classLoader)
+        .build();
+  }
+}
@@ -0,0 +1,113 @@
+package ua.gorobeos.contextor.context.scanner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ua.gorobeos.contextor.context.exceptions.ClasspathScanException;
+
+class MappedJarReaderTest {
+
+  private static final Map<String, byte[]> LIBRARY_ENTRIES = Map.of(
+      "com/acme/Service.class", new byte[]{1, 2, 3},
+      "com/acme/billing/Invoice.class", "invoice".repeat(100).getBytes(),
+      "com/acme/package-info.class", new byte[]{4},
+      "com/acme/application.properties", new byte[]{5},
+      "com/acmeware/Other.class", new byte[]{6},
+      "org/other/Other.class", new byte[]{7});
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void shouldReadOnlyClassFilesOfRequestedPackages() throws IOException {
+    var jarPath = Files.write(directory.resolve("library.jar"), jar(LIBRARY_ENTRIES, ZipEntry.DEFLATED));
+
+    var classFiles = readClassFiles(MappedJarReader.open(jarPath));
+
+    assertThat(classFiles).containsOnlyKeys("com.acme.Service", "com.acme.billing.Invoice");
+    assertThat(classFiles.get("com.acme.billing.Invoice")).isEqualTo(LIBRARY_ENTRIES.get("com/acme/billing/Invoice.class"));
+    assertThat(classFiles.get("com.acme.Service")).isEqualTo(LIBRARY_ENTRIES.get("com/acme/Service.class"));
+  }
+
+  @Test
+  void shouldReadStoredAndDeflatedNestedJars() throws IOException {
+    var nestedEntries = new LinkedHashMap<String, byte[]>();
+    nestedEntries.put("BOOT-INF/lib/stored.jar", jar(LIBRARY_ENTRIES, ZipEntry.DEFLATED));
+    nestedEntries.put("BOOT-INF/lib/deflated.jar", jar(LIBRARY_ENTRIES, ZipEntry.DEFLATED));
+    var outerJar = Files.write(directory.resolve("application.jar"),
+        jarWithMethods(nestedEntries, List.of(ZipEntry.STORED, ZipEntry.DEFLATED)));
+
+    assertThat(readClassFiles(MappedJarReader.openNested(outerJar, "BOOT-INF/lib/stored.jar")))
+        .containsOnlyKeys("com.acme.Service", "com.acme.billing.Invoice");
+    assertThat(readClassFiles(MappedJarReader.openNested(outerJar, "BOOT-INF/lib/deflated.jar")))
+        .containsOnlyKeys("com.acme.Service", "com.acme.billing.Invoice");
+  }
+
+  @Test
+  void shouldWalkNestedJarRoot() throws IOException {
+    var outerJar = Files.write(directory.resolve("application.jar"), jarWithMethods(
+        Map.of("BOOT-INF/lib/library.jar", jar(LIBRARY_ENTRIES, ZipEntry.DEFLATED)), List.of(ZipEntry.STORED)));
+    var root = ClasspathRoot.fromResource(
+        new URL("jar:" + ClasspathRoot.of(outerJar).getLocation() + "!/BOOT-INF/lib/library.jar!/com/acme"),
+        "com/acme").orElseThrow();
+    Map<String, byte[]> classFiles = new LinkedHashMap<>();
+
+    ClassFileWalker.walk(root, List.of("com.acme.billing"), classFiles::put);
+
+    assertThat(root.isNested()).isTrue();
+    assertThat(classFiles).containsOnlyKeys("com.acme.billing.Invoice");
+  }
+
+  @Test
+  void shouldRejectFilesThatAreNotJars() throws IOException {
+    var notAJar = Files.write(directory.resolve("broken.jar"), new byte[64]);
+
+    assertThatThrownBy(() -> MappedJarReader.open(notAJar))
+        .isInstanceOf(ClasspathScanException.class)
+        .hasMessageContaining("end of central directory");
+  }
+
+  private static Map<String, byte[]> readClassFiles(MappedJarReader reader) {
+    Map<String, byte[]> classFiles = new LinkedHashMap<>();
+    reader.forEachClassFile(List.of("com.acme"), classFiles::put);
+    return classFiles;
+  }
+
+  private static byte[] jar(Map<String, byte[]> entries, int method) throws IOException {
+    return jarWithMethods(entries, entries.keySet().stream().map(entry -> method).toList());
+  }
+
+  private static byte[] jarWithMethods(Map<String, byte[]> entries, List<Integer> methods) throws IOException {
+    var jar = new ByteArrayOutputStream();
+    try (var zip = new ZipOutputStream(jar)) {
+      int index = 0;
+      for (var entry : entries.entrySet()) {
+        var zipEntry = new ZipEntry(entry.getKey());
+        zipEntry.setMethod(methods.get(index++));
+        if (zipEntry.getMethod() == ZipEntry.STORED) {
+          var crc = new CRC32();
+          crc.update(entry.getValue());
+          zipEntry.setSize(entry.getValue().length);
+          zipEntry.setCrc(crc.getValue());
+        }
+        zip.putNextEntry(zipEntry);
+        zip.write(entry.getValue());
+        zip.closeEntry();
+      }
+    }
+    return jar.toByteArray();
+  }
+}
@@ -0,0 +1,88 @@
+package ua.gorobeos.contextor.context.scanner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.module.Configuration;
+import java.lang.module.ModuleDescriptor;
+import java.lang.module.ModuleFinder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ua.gorobeos.contextor.scanner.test.packs.one_lvl_deep.ClassA;
+
+class ModuleLayerScannerTest {
+
+  private static final String FIXTURES_PACKAGE = "ua.gorobeos.contextor.scanner.test.packs";
+
+  @TempDir
+  Path directory;
+
+  ModuleLayer layer;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    var fixturesJar = directory.resolve("fixtures.jar");
+    writeFixturesJar(fixturesJar);
+    var configuration = Configuration.resolve(ModuleFinder.of(fixturesJar), List.of(ModuleLayer.boot().configuration()),
+        ModuleFinder.of(), Set.of("fixtures"));
+    layer = ModuleLayer.defineModulesWithOneLoader(configuration, List.of(ModuleLayer.boot()), getClass().getClassLoader())
+        .layer();
+  }
+
+  @Test
+  void shouldFindElementsOfModuleLayerAndLoadThemFromTheirModule() {
+    var scanner = new ModuleLayerScanner(layer);
+    var request = ScanRequest.builder()
+        .basePackages(List.of(FIXTURES_PACKAGE + ".two_lvl_deep", FIXTURES_PACKAGE + ".one_lvl_deep"))
+        .build();
+
+    var candidates = scanner.scan(request);
+
+    assertThat(candidates)
+        .extracting(ElementCandidate::getClassName)
+        .containsExactlyInAnyOrder(
+            FIXTURES_PACKAGE + ".one_lvl_deep.ClassA",
+            FIXTURES_PACKAGE + ".one_lvl_deep.ClassB",
+            FIXTURES_PACKAGE + ".two_lvl_deep.ClassC",
+            FIXTURES_PACKAGE + ".two_lvl_deep.ClassD",
+            FIXTURES_PACKAGE + ".two_lvl_deep.second_lvl.ClassE");
+    var loadedClass = scanner.loadClass(ClassA.class.getName()).orElseThrow();
+    assertThat(loadedClass).isNotEqualTo(ClassA.class);
+    assertThat(loadedClass.getModule().getName()).isEqualTo("fixtures");
+  }
+
+  @Test
+  void shouldOnlyScanExportedOrOpenedPackagesOfExplicitModules() {
+    var descriptor = ModuleDescriptor.newModule("com.acme")
+        .exports("com.acme.api")
+        .opens("com.acme.impl")
+        .packages(Set.of("com.acme.internal", "org.other"))
+        .build();
+
+    assertThat(ModuleLayerScanner.scannablePackages(descriptor, List.of("com.acme")))
+        .containsExactlyInAnyOrder("com.acme.api", "com.acme.impl");
+    assertThat(ModuleLayerScanner.scannablePackages(descriptor, List.of("com.acme.api")))
+        .containsExactly("com.acme.api");
+    assertThat(ModuleLayerScanner.scannablePackages(descriptor, List.of("org"))).isEmpty();
+  }
+
+  private static void writeFixturesJar(Path jar) throws Exception {
+    var testClasses = Path.of(ClassA.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+    var fixturesDirectory = testClasses.resolve(FIXTURES_PACKAGE.replace('.', '/'));
+    try (var output = new JarOutputStream(Files.newOutputStream(jar));
+        Stream<Path> classFiles = Files.walk(fixturesDirectory)) {
+      for (Path classFile : classFiles.filter(Files::isRegularFile).toList()) {
+        output.putNextEntry(new ZipEntry(testClasses.relativize(classFile).toString().replace('\\', '/')));
+        output.write(Files.readAllBytes(classFile));
+        output.closeEntry();
+      }
+    }
+  }
+}
@@ -0,0 +1,54 @@
+package ua.gorobeos.contextor.context.scanner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import ua.gorobeos.contextor.context.exceptions.ClasspathScanException;
+
+class ParallelScanEngineTest {
+
+  private static final String BASE_PACKAGE = "ua.gorobeos.contextor.scanner.test.packs";
+
+  @Test
+  void shouldScanEachRootOnceWithCollapsedPackages() {
+    var scanner = mock(ClasspathScanner.class);
+    when(scanner.scan(any(), any())).thenReturn(Set.of(ElementCandidate.ofName("a.First"), ElementCandidate.ofName("a.Second")));
+
+    var result = new ParallelScanEngine(scanner, 4).scan(ScanRequest.builder()
+        .basePackages(List.of(BASE_PACKAGE + ".one_lvl_deep", BASE_PACKAGE, BASE_PACKAGE + ".two_lvl_deep"))
+        .classLoader(getClass().getClassLoader())
+        .build());
+
+    var requestCaptor = ArgumentCaptor.forClass(ScanRequest.class);
+    verify(scanner, times(1)).scan(any(), requestCaptor.capture());
+    assertThat(requestCaptor.getValue().getBasePackages()).containsExactly(BASE_PACKAGE);
+    assertThat(result)
+        .extracting(ElementCandidate::getClassName)
+        .containsExactlyInAnyOrder("a.First", "a.Second");
+  }
+
+  @Test
+  void shouldPropagateRootScanFailure() {
+    var scanner = mock(ClasspathScanner.class);
+    when(scanner.scan(any(), any())).thenThrow(new ClasspathScanException("broken root"));
+
+    var engine = new ParallelScanEngine(scanner, 2);
+    var request = ScanRequest.builder()
+        .basePackages(List.of(BASE_PACKAGE))
+        .classLoader(getClass().getClassLoader())
+        .build();
+
+    assertThatThrownBy(() -> engine.scan(request))
+        .isInstanceOf(ClasspathScanException.class)
+        .hasMessage("broken root");
+  }
+}
@@ -0,0 +1,62 @@
+package ua.gorobeos.contextor.context.scanner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import ua.gorobeos.contextor.scanner.test.packs.filtered.MarkedElement;
+import ua.gorobeos.contextor.scanner.test.packs.filtered.Marker;
+import ua.gorobeos.contextor.scanner.test.packs.filtered.PlainElement;
+
+class ScanFilterTest {
+
+  ScanFilter scanFilter = ScanFilter.builder()
+      .excludePackage("com.acme.generated")
+      .excludeClassNamePattern(".*Test")
+      .includeAnnotation(Marker.class)
+      .build();
+
+  @Test
+  void shouldPruneClassNamesAndCountEveryFilter() {
+    var accepted = List.of("com.acme.Service", "com.acme.generated.Dto", "com.acme.generatedx.Dto", "com.acme.ServiceTest")
+        .stream()
+        .filter(scanFilter::acceptsClassName)
+        .toList();
+
+    assertThat(accepted).containsExactly("com.acme.Service", "com.acme.generatedx.Dto");
+    assertThat(scanFilter.acceptsClassFile("com/acme/generated/Dto.class")).isFalse();
+    assertThat(scanFilter.getPrunedByExcludedPackage()).isEqualTo(2);
+    assertThat(scanFilter.getPrunedByClassNamePattern()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldRequireOneOfIncludedAnnotations() {
+    assertThat(scanFilter.acceptsAnnotationNames(Set.of(Marker.class.getName()))).isTrue();
+    assertThat(scanFilter.acceptsAnnotationNames(Set.of("com.acme.Other"))).isFalse();
+    assertThat(scanFilter.acceptsClass(MarkedElement.class)).isTrue();
+    assertThat(scanFilter.acceptsClass(PlainElement.class)).isFalse();
+    assertThat(scanFilter.getPrunedByIncludeAnnotations()).isEqualTo(2);
+  }
+
+  @Test
+  void shouldAcceptEverythingWithoutRules() {
+    assertThat(ScanFilter.NONE.isEmpty()).isTrue();
+    assertThat(ScanFilter.NONE.acceptsClassName("com.acme.ServiceTest")).isTrue();
+    assertThat(ScanFilter.NONE.acceptsAnnotationNames(Set.of())).isTrue();
+  }
+
+  @Test
+  void shouldBeEmptyWithoutActiveProfilesButStillRejectProfiledClasses() {
+    var withoutProfiles = ScanFilter.builder()
+        .activeProfiles(Set.of())
+        .build();
+
+    assertThat(withoutProfiles.isEmpty()).isTrue();
+    assertThat(withoutProfiles.isProfileAware()).isTrue();
+    assertThat(ScanFilter.NONE.isProfileAware()).isFalse();
+    assertThat(withoutProfiles.acceptsProfiles(List.of("dev"))).isFalse();
+    assertThat(withoutProfiles.acceptsProfiles(List.of("!dev"))).isTrue();
+    assertThat(ScanFilter.builder().activeProfiles(Set.of("dev")).build().isEmpty()).isFalse();
+  }
+}
@@ -0,0 +1,95 @@
+package ua.gorobeos.contextor.context.scanner.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarFile;
+import net.bytebuddy.ByteBuddy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ua.gorobeos.contextor.context.scanner.BytecodeClasspathScanner;
+import ua.gorobeos.contextor.context.scanner.ClassFileWalker;
+import ua.gorobeos.contextor.context.scanner.ClasspathRoot;
+import ua.gorobeos.contextor.context.scanner.MappedJarReader;
+import ua.gorobeos.contextor.context.scanner.ReflectionsClasspathScanner;
+import ua.gorobeos.contextor.context.scanner.ScanRequest;
+
+// Scans one package of the byte-buddy jar (~6k entries) from the test classpath.
+// Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=<this class>
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JarScanBenchmark {
+
+  private static final String PACKAGE = "net.bytebuddy.description";
+
+  Path jarPath;
+  ClasspathRoot jarRoot;
+  ScanRequest request;
+
+  @Setup
+  public void setUp() throws URISyntaxException {
+    jarPath = Path.of(ByteBuddy.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+    jarRoot = ClasspathRoot.of(jarPath);
+    request = ScanRequest.builder()
+        .basePackages(List.of(PACKAGE))
+        .classLoader(JarScanBenchmark.class.getClassLoader())
+        .build();
+  }
+
+  @Benchmark
+  public void mappedCentralDirectory(Blackhole blackhole) {
+    MappedJarReader.open(jarPath).forEachClassFile(request.getBasePackages(), (name, classFile) -> blackhole.consume(classFile));
+  }
+
+  // The reading strategy used before the mapped reader
+  @Benchmark
+  public void jarFileEntries(Blackhole blackhole) throws IOException {
+    try (var jarFile = new JarFile(jarPath.toFile(), false)) {
+      var entries = jarFile.entries();
+      while (entries.hasMoreElements()) {
+        var entry = entries.nextElement();
+        if (!entry.isDirectory() && ClassFileWalker.isClassEntry(entry.getName(), request.getBasePackages())) {
+          try (InputStream classFile = jarFile.getInputStream(entry)) {
+            blackhole.consume(classFile.readAllBytes());
+          }
+        }
+      }
+    }
+  }
+
+  @Benchmark
+  public void bytecodeScanner(Blackhole blackhole) {
+    blackhole.consume(new BytecodeClasspathScanner().scan(jarRoot, request));
+  }
+
+  @Benchmark
+  public void reflectionsScanner(Blackhole blackhole) {
+    blackhole.consume(new ReflectionsClasspathScanner().scan(jarRoot, request));
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(JarScanBenchmark.class.getSimpleName())
+        .build())
+        .run();
+  }
+}
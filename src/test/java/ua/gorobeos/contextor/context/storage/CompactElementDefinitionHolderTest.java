@@ -0,0 +1,152 @@
+package ua.gorobeos.contextor.context.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static ua.gorobeos.contextor.context.element.ElementDefinition.SINGLETON_SCOPE;
+
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import ua.gorobeos.contextor.context.annotations.ElementScan;
+import ua.gorobeos.contextor.context.dependencies.DependencyDefinition;
+import ua.gorobeos.contextor.context.element.AnnotationElementDefinition;
+import ua.gorobeos.contextor.context.element.ConfigElementDefinition;
+import ua.gorobeos.contextor.context.element.ElementDefinition;
+import ua.gorobeos.contextor.context.exceptions.ElementNameConflictException;
+import ua.gorobeos.contextor.context.readers.ElementDefinitionReaderFacadeImpl;
+import ua.gorobeos.contextor.context.scanner.ClasspathElementScanner;
+import ua.gorobeos.contextor.context.storage.context_full_load.with_config.BookRepository;
+
+class CompactElementDefinitionHolderTest {
+
+  CompactElementDefinitionHolder holder = new CompactElementDefinitionHolder();
+
+  @Test
+  void shouldReturnSameDefinitionsAsDefaultHolder() {
+    var defaultHolder = new DefaultElementDefinitionHolder();
+    var defaultReader = new ElementDefinitionReaderFacadeImpl(defaultHolder);
+    var compactReader = new ElementDefinitionReaderFacadeImpl(holder);
+    ClasspathElementScanner.scanPackages(MainClass.class).forEach(clazz -> {
+      defaultReader.addElementDefinition(clazz);
+      compactReader.addElementDefinition(clazz);
+    });
+
+    var expected = defaultHolder.getElementDefinitionMap();
+    assertThat(holder.getElementDefinitions()).hasSameSizeAs(expected.values());
+    for (ElementDefinition definition : holder.getElementDefinitions()) {
+      var original = expected.get(definition.getName());
+      assertThat(definition)
+          .hasSameClassAs(original)
+          .usingRecursiveComparison()
+          .ignoringFields("methodDefinedElements")
+          .isEqualTo(original);
+    }
+    var config = (ConfigElementDefinition) holder.getElementDefinition("configClass").orElseThrow();
+    assertThat(config.getMethodDefinedElements())
+        .extracting(ElementDefinition::getName)
+        .containsExactlyInAnyOrder("noDependencyExternalElement", "singleDependencyExternalElement");
+    assertThat(holder.getElementDefinitionsByType(CharSequence.class))
+        .extracting(ElementDefinition::getName)
+        .containsExactlyInAnyOrder("noDependencyExternalElement", "singleDependencyExternalElement");
+  }
+
+  @Test
+  void shouldStoreEqualDependencyDefinitionsOnce() {
+    holder.addElementDefinition(definition("first", List.of(dependency("bookRepository"))));
+    holder.addElementDefinition(definition("second", List.of(dependency("bookRepository"))));
+    holder.addElementDefinition(definition("third", List.of()));
+
+    var firstDependency = holder.getElementDefinition("first").orElseThrow().getDependencies().iterator().next();
+    var secondDependency = holder.getElementDefinition("second").orElseThrow().getDependencies().iterator().next();
+    assertThat(firstDependency).isSameAs(secondDependency).isEqualTo(dependency("bookRepository"));
+    assertThat(holder.getElementDefinition("third").orElseThrow().getDependencies()).isSameAs(List.of());
+  }
+
+  @Test
+  void shouldReuseIdsOfRemovedDefinitions() {
+    for (int round = 0; round < 10; round++) {
+      IntStream.range(0, 100).forEach(i -> holder.addElementDefinition(definition("element" + i, List.of())));
+      IntStream.range(0, 100).forEach(i -> holder.removeElementDefinition("element" + i));
+    }
+    holder.addElementDefinition(definition("last", List.of()));
+
+    assertThat(holder).extracting("nextId").isEqualTo(100);
+    assertThat(holder.getElementDefinitionsByType(BookRepository.class))
+        .extracting(ElementDefinition::getName)
+        .containsExactly("last");
+  }
+
+  @Test
+  void shouldKeepDefinitionsWithUnknownScopeAsTheyAre() {
+    var definition = AnnotationElementDefinition.builder()
+        .name("custom")
+        .type(BookRepository.class)
+        .scope("request")
+        .dependencies(List.of())
+        .build();
+
+    holder.addElementDefinition(definition);
+
+    assertThat(holder.getElementDefinition("custom")).containsSame(definition);
+  }
+
+  @Test
+  void shouldRejectConflictingNamesAndForgetRemovedDefinitions() {
+    holder.addElementDefinition(definition("first", List.of()));
+
+    assertThatThrownBy(() -> holder.addElementDefinition(definition("first", List.of())))
+        .isInstanceOf(ElementNameConflictException.class)
+        .hasMessageContaining("Element definition with name 'first' already exists");
+
+    assertThat(holder.removeElementDefinition("first")).hasValueSatisfying(removed -> assertThat(removed.getName()).isEqualTo("first"));
+    assertThat(holder.getElementDefinition("first")).isEmpty();
+    assertThat(holder.getElementDefinitions()).isEmpty();
+    assertThat(holder.getElementDefinitionsByType(BookRepository.class)).isEmpty();
+  }
+
+  @Test
+  void shouldFindRemainingDefinitionsAfterRemovals() {
+    IntStream.range(0, 500).forEach(i -> holder.addElementDefinition(definition("element" + i, List.of())));
+
+    IntStream.range(0, 500).filter(i -> i % 3 == 0).forEach(i -> holder.removeElementDefinition("element" + i));
+
+    assertThat(IntStream.range(0, 500))
+        .allSatisfy(i -> assertThat(holder.getElementDefinition("element" + i).isPresent()).isEqualTo(i % 3 != 0));
+    assertThat(holder.getElementDefinitions()).hasSize(333);
+  }
+
+  @Test
+  void shouldInitializeContextWithCompactStore() {
+    var contextHolder = ContextHolder.initializeContext(MainClass.class,
+        ContextOptions.builder().definitionStore(DefinitionStore.COMPACT).build());
+
+    assertThat(contextHolder.getElementDefinitionHolder()).isInstanceOf(CompactElementDefinitionHolder.class);
+    assertThat(contextHolder.getNameToElementMap())
+        .containsKeys("aFirst", "aSecondImpl", "bookRepository", "configClass", "noDependencyExternalElement");
+  }
+
+  private static ElementDefinition definition(String name, List<DependencyDefinition> dependencies) {
+    return AnnotationElementDefinition.builder()
+        .name(name)
+        .isPrimary(false)
+        .type(BookRepository.class)
+        .scope(SINGLETON_SCOPE)
+        .dependencies(dependencies)
+        .build();
+  }
+
+  private static DependencyDefinition dependency(String name) {
+    return DependencyDefinition.builder()
+        .name(new String(name))
+        .clazz(BookRepository.class)
+        .build();
+  }
+
+  @ElementScan(basePackages = {
+      "ua.gorobeos.contextor.context.storage.context_full_load.lvl_one",
+      "ua.gorobeos.contextor.context.storage.context_full_load.with_config"
+  })
+  private static class MainClass {
+
+  }
+}
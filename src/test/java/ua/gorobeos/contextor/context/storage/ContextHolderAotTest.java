@@ -0,0 +1,190 @@
+package ua.gorobeos.contextor.context.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import javax.tools.ToolProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.MockedStatic;
+import ua.gorobeos.contextor.context.aot.AotContextGenerator;
+import ua.gorobeos.contextor.context.config.ConfigurationReader;
+import ua.gorobeos.contextor.context.element.AotElementDefinition;
+import ua.gorobeos.contextor.context.scanner.ClasspathElementScanner;
+import ua.gorobeos.contextor.context.scanner.ScanMode;
+
+class ContextHolderAotTest {
+
+  private static final Map<String, String> APPLICATION = Map.of(
+      "com/acme/aot/Application.java", """
+          package com.acme.aot;
+          @ua.gorobeos.contextor.context.annotations.ElementScan(basePackages = "com.acme.aot")
+          public class Application {
+          }
+          """,
+      "com/acme/aot/Repository.java", """
+          package com.acme.aot;
+          @ua.gorobeos.contextor.context.annotations.Element
+          class Repository {
+          }
+          """,
+      "com/acme/aot/Greeter.java", """
+          package com.acme.aot;
+          @ua.gorobeos.contextor.context.annotations.Element
+          public class Greeter {
+            final Repository repository;
+            public Greeter(Repository repository) { this.repository = repository; }
+          }
+          """,
+      "com/acme/aot/AppConfig.java", """
+          package com.acme.aot;
+          @ua.gorobeos.contextor.context.annotations.ContextConfig
+          public class AppConfig {
+            @ua.gorobeos.contextor.context.annotations.ExternalElement
+            public StringBuilder banner(Greeter greeter) { return new StringBuilder("hello"); }
+          }
+          """,
+      "com/acme/aot/Secret.java", """
+          package com.acme.aot;
+          @ua.gorobeos.contextor.context.annotations.Element
+          public class Secret {
+            final Greeter greeter;
+            private Secret(Greeter greeter) { this.greeter = greeter; }
+          }
+          """,
+      "com/acme/aot/internal/Hidden.java", """
+          package com.acme.aot.internal;
+          @ua.gorobeos.contextor.context.annotations.Element
+          class Hidden {
+            Hidden(com.acme.aot.Greeter greeter) { }
+          }
+          """,
+      "com/acme/aot/Request.java", """
+          package com.acme.aot;
+          @ua.gorobeos.contextor.context.annotations.Element
+          @ua.gorobeos.contextor.context.annotations.Scope("prototype")
+          public class Request {
+          }
+          """);
+
+  @TempDir
+  Path directory;
+
+  Path classesDirectory;
+  URLClassLoader classLoader;
+  Class<?> applicationClass;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    classesDirectory = Files.createDirectories(directory.resolve("classes"));
+    compile(APPLICATION);
+    classLoader = new URLClassLoader(new URL[]{classesDirectory.toUri().toURL()}, getClass().getClassLoader());
+    applicationClass = classLoader.loadClass("com.acme.aot.Application");
+    try (MockedStatic<ConfigurationReader> configurationReader = mockStatic(ConfigurationReader.class, CALLS_REAL_METHODS)) {
+      configurationReader.when(() -> ConfigurationReader.getOrDefault(eq(ScanMode.SCAN_MODE_PROPERTY), any(), any()))
+          .thenReturn(ScanMode.BYTECODE);
+      AotContextGenerator.generate(applicationClass, classesDirectory, directory.resolve("generated"));
+    }
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    classLoader.close();
+  }
+
+  @Test
+  void shouldGenerateInitializerSource() throws IOException {
+    var source = Files.readString(directory.resolve("generated/com/acme/aot/Application__ContextorAot.java"));
+
+    assertThat(source)
+        .contains("new com.acme.aot.Greeter((com.acme.aot.Repository) dependencies[0])")
+        .contains("((com.acme.aot.AppConfig) dependencies[0]).banner((com.acme.aot.Greeter) dependencies[1])")
+        .contains("registry.type(\"com.acme.aot.internal.Hidden\")");
+  }
+
+  @Test
+  void shouldInitializeContextFromGeneratedInitializerWithoutScanning() throws Exception {
+    ContextHolder contextHolder;
+    try (var scanner = mockStatic(ClasspathElementScanner.class, CALLS_REAL_METHODS)) {
+      contextHolder = ContextHolder.initializeContext(applicationClass);
+      scanner.verify(() -> ClasspathElementScanner.scanPackages(any()), never());
+      scanner.verify(() -> ClasspathElementScanner.scanPackages(any(), any()), never());
+    }
+
+    assertThat(contextHolder.getElementDefinitionHolder().getElementDefinitions())
+        .hasSize(7)
+        .allMatch(AotElementDefinition.class::isInstance);
+    var greeter = contextHolder.getElement("greeter").orElseThrow();
+    assertThat(field(greeter, "repository")).isSameAs(contextHolder.getElement("repository").orElseThrow());
+    assertThat(field(contextHolder.getElement("secret").orElseThrow(), "greeter")).isSameAs(greeter);
+    assertThat(contextHolder.getElement("banner")).hasValueSatisfying(banner -> assertThat(banner).hasToString("hello"));
+    assertThat(contextHolder.getElement("hidden")).isPresent();
+    assertThat(contextHolder.getElement("request").orElseThrow())
+        .isNotSameAs(contextHolder.getElement("request").orElseThrow());
+  }
+
+  @Test
+  void shouldCreateGeneratedElementsInParallel() throws Exception {
+    var contextHolder = ContextHolder.initializeContext(applicationClass, ContextOptions.builder()
+        .instantiationParallelism(4)
+        .build());
+
+    assertThat(contextHolder.getNameToElementMap())
+        .containsOnlyKeys("repository", "greeter", "appConfig", "banner", "secret", "hidden");
+    var greeter = contextHolder.getNameToElementMap().get("greeter");
+    assertThat(field(greeter, "repository")).isSameAs(contextHolder.getNameToElementMap().get("repository"));
+    assertThat(field(contextHolder.getNameToElementMap().get("secret"), "greeter")).isSameAs(greeter);
+  }
+
+  @Test
+  void shouldScanWhenGeneratedInitializerIsDisabled() {
+    try (MockedStatic<ConfigurationReader> configurationReader = mockStatic(ConfigurationReader.class, CALLS_REAL_METHODS)) {
+      configurationReader.when(() -> ConfigurationReader.getOrDefault(eq(ScanMode.SCAN_MODE_PROPERTY), any(), any()))
+          .thenReturn(ScanMode.BYTECODE);
+      configurationReader.when(() -> ConfigurationReader.getOrDefault(eq("contextor.aot.enabled"), any(), any()))
+          .thenReturn(false);
+      var contextHolder = ContextHolder.initializeContext(applicationClass);
+
+      assertThat(contextHolder.getElementDefinitionHolder().getElementDefinitions())
+          .hasSize(7)
+          .noneMatch(AotElementDefinition.class::isInstance);
+    }
+  }
+
+  private static Object field(Object target, String name) throws ReflectiveOperationException {
+    var field = target.getClass().getDeclaredField(name);
+    field.setAccessible(true);
+    return field.get(target);
+  }
+
+  private void compile(Map<String, String> sources) throws IOException {
+    var sourceDirectory = Files.createTempDirectory(directory, "sources");
+    for (var source : sources.entrySet()) {
+      var sourceFile = sourceDirectory.resolve(source.getKey());
+      Files.createDirectories(sourceFile.getParent());
+      Files.writeString(sourceFile, source.getValue());
+    }
+    var compiler = ToolProvider.getSystemJavaCompiler();
+    try (var fileManager = compiler.getStandardFileManager(null, null, null);
+        var sourceFiles = Files.walk(sourceDirectory)) {
+      var compilationUnits = fileManager.getJavaFileObjectsFromPaths(sourceFiles.filter(Files::isRegularFile).toList());
+      var classPath = classesDirectory + File.pathSeparator + System.getProperty("java.class.path");
+      var options = List.of("-proc:none", "-d", classesDirectory.toString(), "-classpath", classPath);
+      assertThat(compiler.getTask(null, fileManager, null, options, null, compilationUnits).call()).isTrue();
+    }
+  }
+}
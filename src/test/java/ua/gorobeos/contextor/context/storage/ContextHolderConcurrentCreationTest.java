@@ -0,0 +1,146 @@
+package ua.gorobeos.contextor.context.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ua.gorobeos.contextor.context.annotations.ElementScan;
+import ua.gorobeos.contextor.context.dependencies.SimpleDependencyResolver;
+import ua.gorobeos.contextor.context.exceptions.CircularDependencyException;
+import ua.gorobeos.contextor.context.readers.ElementDefinitionReaderFacadeImpl;
+import ua.gorobeos.contextor.context.scanner.ClasspathElementScanner;
+import ua.gorobeos.contextor.context.storage.context_full_load.concurrent.Constructions;
+import ua.gorobeos.contextor.context.storage.context_full_load.concurrent.PooledRepository;
+
+class ContextHolderConcurrentCreationTest {
+
+  private static final int THREADS = 8;
+  private static final int ROUNDS = 50;
+
+  ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+  @BeforeEach
+  void setUp() {
+    Constructions.reset();
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void shouldConstructEverySingletonOnceUnderContention() throws Exception {
+    for (int round = 0; round < ROUNDS; round++) {
+      Constructions.reset();
+      var contextHolder = lazyContext(MainClass.class);
+
+      var elements = concurrently(() -> contextHolder.getElement("pooledRepository").orElseThrow());
+
+      assertThat(Constructions.REPOSITORIES).hasValue(1);
+      assertThat(Constructions.POOLS).hasValue(1);
+      var repository = (PooledRepository) elements.get(0);
+      assertThat(elements).allSatisfy(element -> assertThat(element).isSameAs(repository));
+      assertThat(repository.getConnectionPool()).isSameAs(contextHolder.getElement("connectionPool").orElseThrow());
+    }
+  }
+
+  @Test
+  void shouldConstructOnceThroughHandlesAndNamesMixed() throws Exception {
+    for (int round = 0; round < ROUNDS; round++) {
+      Constructions.reset();
+      var contextHolder = lazyContext(MainClass.class);
+      var handle = contextHolder.getHandle("connectionPool", Object.class);
+
+      var elements = concurrently(() -> Thread.currentThread().getId() % 2 == 0
+          ? contextHolder.get(handle)
+          : contextHolder.getElement("connectionPool").orElseThrow());
+
+      assertThat(Constructions.POOLS).hasValue(1);
+      assertThat(elements).allSatisfy(element -> assertThat(element).isSameAs(elements.get(0)));
+    }
+  }
+
+  @Test
+  void shouldShareFailureWithWaitersAndRetryLater() throws Exception {
+    Constructions.FAILURES_LEFT.set(1);
+    var contextHolder = lazyContext(MainClass.class);
+
+    var barrier = new CyclicBarrier(THREADS);
+    List<Future<Object>> results = new ArrayList<>();
+    for (int i = 0; i < THREADS; i++) {
+      results.add(executor.submit(() -> {
+        barrier.await();
+        return contextHolder.getElement("connectionPool").orElseThrow();
+      }));
+    }
+    int failed = 0;
+    for (Future<Object> result : results) {
+      try {
+        result.get(10, TimeUnit.SECONDS);
+      } catch (ExecutionException e) {
+        assertThat(e).hasRootCauseMessage("connection refused");
+        failed++;
+      }
+    }
+
+    // one construction failed, and every thread either shared that failure or came after it and created the pool
+    assertThat(failed).isPositive();
+    assertThat(Constructions.POOLS.get()).isLessThanOrEqualTo(2);
+    assertThat(contextHolder.getElement("connectionPool")).isPresent();
+  }
+
+  @Test
+  void shouldReportCycleInsteadOfWaitingForItself() {
+    var contextHolder = lazyContext(CircularMainClass.class);
+
+    assertThatThrownBy(() -> contextHolder.getElement("a"))
+        .isInstanceOf(CircularDependencyException.class)
+        .hasMessage("Element 'a' depends on itself while being created");
+  }
+
+  private List<Object> concurrently(Callable<Object> task) throws Exception {
+    var barrier = new CyclicBarrier(THREADS);
+    List<Future<Object>> results = new ArrayList<>();
+    for (int i = 0; i < THREADS; i++) {
+      results.add(executor.submit(() -> {
+        barrier.await();
+        return task.call();
+      }));
+    }
+    List<Object> elements = new ArrayList<>();
+    for (Future<Object> result : results) {
+      elements.add(result.get(10, TimeUnit.SECONDS));
+    }
+    return elements;
+  }
+
+  // definitions only, every element is created on first access
+  private static ContextHolder lazyContext(Class<?> mainClass) {
+    var holder = new DefaultElementDefinitionHolder();
+    var readerFacade = new ElementDefinitionReaderFacadeImpl(holder);
+    ClasspathElementScanner.scanPackages(mainClass).forEach(readerFacade::addElementDefinition);
+    return new ContextHolder(holder, readerFacade, new SimpleDependencyResolver(holder));
+  }
+
+  @ElementScan(basePackages = "ua.gorobeos.contextor.context.storage.context_full_load.concurrent")
+  private static class MainClass {
+
+  }
+
+  @ElementScan(basePackages = "ua.gorobeos.contextor.context.storage.context_full_load.circular_dependency.simple_circ_dependency")
+  private static class CircularMainClass {
+
+  }
+}
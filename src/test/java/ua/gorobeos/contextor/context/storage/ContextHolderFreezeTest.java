@@ -0,0 +1,118 @@
+package ua.gorobeos.contextor.context.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import ua.gorobeos.contextor.context.annotations.ElementScan;
+import ua.gorobeos.contextor.context.dependencies.SimpleDependencyResolver;
+import ua.gorobeos.contextor.context.element.ElementDefinition;
+import ua.gorobeos.contextor.context.exceptions.ContextFrozenException;
+import ua.gorobeos.contextor.context.readers.ElementDefinitionReaderFacadeImpl;
+import ua.gorobeos.contextor.context.scanner.ClasspathElementScanner;
+import ua.gorobeos.contextor.context.storage.context_full_load.concurrent.Constructions;
+
+class ContextHolderFreezeTest {
+
+  ContextHolder contextHolder = ContextHolder.initializeContext(MainClass.class,
+      ContextOptions.builder().frozen(true).build());
+
+  @Test
+  void shouldReturnSameElementsAfterFreeze() {
+    var unfrozenContext = ContextHolder.initializeContext(MainClass.class);
+
+    assertThat(contextHolder.isFrozen()).isTrue();
+    assertThat(unfrozenContext.isFrozen()).isFalse();
+    for (String name : unfrozenContext.getNameToElementMap().keySet()) {
+      assertThat(contextHolder.getElement(name))
+          .containsSame(contextHolder.getNameToElementMap().get(name))
+          .isSameAs(contextHolder.getElement(name));
+    }
+    assertThat(contextHolder.getNameToElementMap().keySet()).isEqualTo(unfrozenContext.getNameToElementMap().keySet());
+    assertThat(contextHolder.getElement("missingElement")).isEmpty();
+  }
+
+  @Test
+  void shouldCreateNewPrototypeOnEveryLookupAfterFreeze() {
+    var first = contextHolder.getElement("singleDependencyExternalElement").orElseThrow();
+    var second = contextHolder.getElement("singleDependencyExternalElement").orElseThrow();
+
+    assertThat(first).isEqualTo(second).isNotSameAs(second);
+  }
+
+  @Test
+  void shouldCreateOnlySingletonsWhenFreezing() {
+    var holder = new DefaultElementDefinitionHolder();
+    var readerFacade = new ElementDefinitionReaderFacadeImpl(holder);
+    ClasspathElementScanner.scanPackages(ConcurrentMainClass.class).forEach(readerFacade::addElementDefinition);
+    var lazyContext = new ContextHolder(holder, readerFacade, new SimpleDependencyResolver(holder));
+    Constructions.reset();
+
+    lazyContext.freeze();
+
+    assertThat(Constructions.POOLS).hasValue(1);
+    assertThat(Constructions.REPOSITORIES).hasValue(1);
+    assertThat(Constructions.LEASES).hasValue(0);
+    assertThat(lazyContext.getElement("poolLease")).isPresent();
+    assertThat(Constructions.LEASES).hasValue(1);
+  }
+
+  @Test
+  void shouldServeDefinitionsFromFrozenHolder() {
+    var definitionHolder = contextHolder.getElementDefinitionHolder();
+
+    assertThat(definitionHolder.getElementDefinition("bookRepository"))
+        .isSameAs(definitionHolder.getElementDefinition("bookRepository"))
+        .hasValueSatisfying(definition -> assertThat(definition.getName()).isEqualTo("bookRepository"));
+    assertThat(definitionHolder.getElementDefinitions()).isSameAs(definitionHolder.getElementDefinitions());
+    assertThat(definitionHolder.getElementDefinition("missingElement")).isEmpty();
+  }
+
+  @Test
+  void shouldFailMutationsAfterFreeze() {
+    var definitionHolder = contextHolder.getElementDefinitionHolder();
+    var definition = definitionHolder.getElementDefinition("bookRepository").orElseThrow();
+
+    assertThatThrownBy(() -> definitionHolder.addElementDefinition(definition))
+        .isInstanceOf(ContextFrozenException.class)
+        .hasMessageContaining("bookRepository");
+    assertThatThrownBy(() -> definitionHolder.removeElementDefinition("bookRepository"))
+        .isInstanceOf(ContextFrozenException.class);
+    assertThatThrownBy(() -> contextHolder.applyDelta(ElementDefinitionDelta.builder()
+        .removedNames(Set.of("bookRepository"))
+        .build()))
+        .isInstanceOf(ContextFrozenException.class);
+    assertThatThrownBy(() -> contextHolder.loadPlugins(Set.of()))
+        .isInstanceOf(ContextFrozenException.class);
+    assertThat(definitionHolder.getElementDefinitions())
+        .extracting(ElementDefinition::getName)
+        .contains("bookRepository");
+  }
+
+  @Test
+  void shouldFreezeCompactStore() {
+    var compactContext = ContextHolder.initializeContext(MainClass.class,
+        ContextOptions.builder().definitionStore(DefinitionStore.COMPACT).frozen(true).build());
+
+    assertThat(compactContext.getElementDefinitionHolder().getElementDefinition("configClass")).isPresent();
+    assertThatThrownBy(() -> compactContext.getElementDefinitionHolder().removeElementDefinition("configClass"))
+        .isInstanceOf(ContextFrozenException.class);
+    assertThat(compactContext.getElement("aFirst")).isPresent();
+    assertThat(List.copyOf(compactContext.getElementDefinitionHolder().getElementDefinitions())).isNotEmpty();
+  }
+
+  @ElementScan(basePackages = {
+      "ua.gorobeos.contextor.context.storage.context_full_load.lvl_one",
+      "ua.gorobeos.contextor.context.storage.context_full_load.with_config"
+  })
+  private static class MainClass {
+
+  }
+
+  @ElementScan(basePackages = "ua.gorobeos.contextor.context.storage.context_full_load.concurrent")
+  private static class ConcurrentMainClass {
+
+  }
+}
@@ -0,0 +1,78 @@
+package ua.gorobeos.contextor.context.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.NoSuchElementException;
+import org.junit.jupiter.api.Test;
+import ua.gorobeos.contextor.context.annotations.ElementScan;
+import ua.gorobeos.contextor.context.exceptions.UnresolvableDependencyException;
+import ua.gorobeos.contextor.context.storage.context_full_load.lvl_one.AFirstImpl;
+import ua.gorobeos.contextor.context.storage.context_full_load.lvl_one.DependencyForAFirst;
+import ua.gorobeos.contextor.context.storage.context_full_load.with_config.BookRepository;
+
+class ContextHolderHandleTest {
+
+  ContextHolder contextHolder = ContextHolder.initializeContext(MainClass.class);
+
+  @Test
+  void shouldReadSameSingletonsAsGetElement() {
+    var byName = contextHolder.getHandle("aFirst", AFirstImpl.class);
+    var byType = contextHolder.getHandle(DependencyForAFirst.class);
+
+    assertThat(contextHolder.get(byName))
+        .isSameAs(contextHolder.get(byName))
+        .isSameAs(contextHolder.getElement("aFirst").orElseThrow());
+    assertThat(byType.getName()).isEqualTo("dependencyForAFirstImpl");
+    assertThat(contextHolder.get(byType)).isSameAs(contextHolder.getElement("dependencyForAFirstImpl").orElseThrow());
+  }
+
+  @Test
+  void shouldCreatePrototypeOnEveryRead() {
+    var handle = contextHolder.getHandle("singleDependencyExternalElement", String.class);
+
+    assertThat(contextHolder.get(handle)).isEqualTo(contextHolder.get(handle)).isNotSameAs(contextHolder.get(handle));
+  }
+
+  @Test
+  void shouldReadReplacedSingletonAfterDelta() {
+    var handle = contextHolder.getHandle("bookRepository", BookRepository.class);
+    var previous = contextHolder.get(handle);
+    var definition = contextHolder.getElementDefinitionHolder().getElementDefinition("bookRepository").orElseThrow();
+
+    contextHolder.applyDelta(ElementDefinitionDelta.builder().modifiedDefinition(definition).build());
+
+    assertThat(contextHolder.get(handle))
+        .isNotSameAs(previous)
+        .isSameAs(contextHolder.getElement("bookRepository").orElseThrow());
+  }
+
+  @Test
+  void shouldRejectUnknownNamesMismatchedTypesAndForeignHandles() {
+    assertThatThrownBy(() -> contextHolder.getHandle("missingElement", Object.class))
+        .isInstanceOf(NoSuchElementException.class)
+        .hasMessageContaining("missingElement");
+    assertThatThrownBy(() -> contextHolder.getHandle("aFirst", BookRepository.class))
+        .isInstanceOf(UnresolvableDependencyException.class);
+
+    var foreignHandle = ContextHolder.initializeContext(MainClass.class).getHandle("aFirst", AFirstImpl.class);
+    assertThatThrownBy(() -> contextHolder.get(foreignHandle))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void shouldReadThroughHandlesInFrozenContext() {
+    var frozenContext = ContextHolder.initializeContext(MainClass.class, ContextOptions.builder().frozen(true).build());
+    var handle = frozenContext.getHandle("aFirst", AFirstImpl.class);
+
+    assertThat(frozenContext.get(handle)).isSameAs(frozenContext.getElement("aFirst").orElseThrow());
+  }
+
+  @ElementScan(basePackages = {
+      "ua.gorobeos.contextor.context.storage.context_full_load.lvl_one",
+      "ua.gorobeos.contextor.context.storage.context_full_load.with_config"
+  })
+  private static class MainClass {
+
+  }
+}
@@ -0,0 +1,56 @@
+package ua.gorobeos.contextor.context.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import ua.gorobeos.contextor.context.annotations.ElementScan;
+import ua.gorobeos.contextor.context.element.MethodDefinedElementDefinition;
+
+class ContextHolderInjectionPlanTest {
+
+  ContextHolder contextHolder = ContextHolder.initializeContext(MainClass.class);
+
+  @Test
+  void shouldReuseCompiledPlanForPrototypes() {
+    var first = contextHolder.getElement("singleDependencyExternalElement").orElseThrow();
+    var plan = contextHolder.getInjectionPlans().get("singleDependencyExternalElement", name -> null);
+
+    var second = contextHolder.getElement("singleDependencyExternalElement").orElseThrow();
+
+    assertThat(second).isEqualTo(first).isNotSameAs(first);
+    assertThat(plan).isNotNull();
+    assertThat(plan.getOwner().getName()).isEqualTo("configClass");
+    assertThat(plan.getDependencies()).extracting(ElementHandle::getName).containsExactly("noDependencyExternalElement");
+    assertThat(contextHolder.getInjectionPlans().get("singleDependencyExternalElement", name -> null)).isSameAs(plan);
+  }
+
+  @Test
+  void shouldRecompilePlanAfterDelta() {
+    contextHolder.getElement("singleDependencyExternalElement").orElseThrow();
+    var plan = contextHolder.getInjectionPlans().get("singleDependencyExternalElement", name -> null);
+    var definition = (MethodDefinedElementDefinition) contextHolder.getElementDefinitionHolder()
+        .getElementDefinition("singleDependencyExternalElement")
+        .orElseThrow();
+
+    contextHolder.applyDelta(ElementDefinitionDelta.builder().modifiedDefinition(definition).build());
+
+    // applying the delta creates the modified element again, compiling its plan from the new definition
+    assertThat(contextHolder.getInjectionPlans().get("singleDependencyExternalElement", name -> null))
+        .isNotNull()
+        .isNotSameAs(plan);
+  }
+
+  @Test
+  void shouldNotCompilePlanForUnknownElement() {
+    assertThat(contextHolder.getElement("missingElement")).isEmpty();
+    assertThat(contextHolder.getInjectionPlans().get("missingElement", name -> null)).isNull();
+  }
+
+  @ElementScan(basePackages = {
+      "ua.gorobeos.contextor.context.storage.context_full_load.lvl_one",
+      "ua.gorobeos.contextor.context.storage.context_full_load.with_config"
+  })
+  private static class MainClass {
+
+  }
+}
@@ -0,0 +1,86 @@
+package ua.gorobeos.contextor.context.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ua.gorobeos.contextor.context.annotations.ElementScan;
+import ua.gorobeos.contextor.context.exceptions.ElementCreationException;
+import ua.gorobeos.contextor.context.storage.context_full_load.parallel.independent.Rendezvous;
+import ua.gorobeos.contextor.context.storage.context_full_load.parallel.independent.SlowService;
+
+class ContextHolderParallelCreationTest {
+
+  @BeforeEach
+  void setUp() {
+    Rendezvous.BARRIER.reset();
+  }
+
+  @Test
+  void shouldCreateIndependentElementsAtTheSameTime() {
+    var contextHolder = ContextHolder.initializeContext(IndependentMainClass.class, ContextOptions.builder()
+        .instantiationParallelism(4)
+        .build());
+
+    var slowService = (SlowService) contextHolder.getElement("slowService").orElseThrow();
+    assertThat(slowService.getSlowCache()).isSameAs(contextHolder.getElement("slowCache").orElseThrow());
+    assertThat(slowService.getSlowPool()).isSameAs(contextHolder.getElement("slowPool").orElseThrow());
+  }
+
+  @Test
+  void shouldCreateSameContextAsSequentialCreation() {
+    var sequential = ContextHolder.initializeContext(MainClass.class);
+    var parallel = ContextHolder.initializeContext(MainClass.class, ContextOptions.builder()
+        .instantiationParallelism(4)
+        .build());
+
+    assertThat(parallel.getNameToElementMap().keySet()).isEqualTo(sequential.getNameToElementMap().keySet());
+  }
+
+  @Test
+  void shouldPropagateFirstFailureWithoutCreatingDependents() {
+    assertThatThrownBy(() -> ContextHolder.initializeContext(FailingMainClass.class, ContextOptions.builder()
+        .instantiationParallelism(4)
+        .build()))
+        .hasRootCauseInstanceOf(IllegalStateException.class)
+        .hasRootCauseMessage("connection refused");
+  }
+
+  @Test
+  void shouldFailElementRunningOverTimeout() {
+    long started = System.nanoTime();
+
+    assertThatThrownBy(() -> ContextHolder.initializeContext(HangingMainClass.class, ContextOptions.builder()
+        .instantiationParallelism(2)
+        .instantiationTimeout(Duration.ofMillis(200))
+        .build()))
+        .isInstanceOf(ElementCreationException.class)
+        .hasMessage("Element 'hangingElement' was not created within 200 ms");
+    assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(10));
+  }
+
+  @ElementScan(basePackages = "ua.gorobeos.contextor.context.storage.context_full_load.parallel.independent")
+  private static class IndependentMainClass {
+
+  }
+
+  @ElementScan(basePackages = "ua.gorobeos.contextor.context.storage.context_full_load.parallel.failing")
+  private static class FailingMainClass {
+
+  }
+
+  @ElementScan(basePackages = "ua.gorobeos.contextor.context.storage.context_full_load.parallel.hanging")
+  private static class HangingMainClass {
+
+  }
+
+  @ElementScan(basePackages = {
+      "ua.gorobeos.contextor.context.storage.context_full_load.lvl_one",
+      "ua.gorobeos.contextor.context.storage.context_full_load.with_config"
+  })
+  private static class MainClass {
+
+  }
+}
@@ -0,0 +1,169 @@
+package ua.gorobeos.contextor.context.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import javax.tools.ToolProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ua.gorobeos.contextor.context.dependencies.SimpleDependencyResolver;
+import ua.gorobeos.contextor.context.exceptions.ContainerInitException;
+import ua.gorobeos.contextor.context.readers.ElementDefinitionReaderFacadeImpl;
+
+class ContextHolderPluginTest {
+
+  private static final Map<String, String> GREETING_PLUGIN = Map.of(
+      "com/acme/greeting/GreetingService.java", """
+          package com.acme.greeting;
+          @ua.gorobeos.contextor.context.annotations.Element
+          public class GreetingService {
+            public String greet() { return "hello"; }
+          }
+          """);
+
+  private static final Map<String, String> AUDIT_PLUGIN = Map.of(
+      "com/acme/audit/AuditLog.java", """
+          package com.acme.audit;
+          @ua.gorobeos.contextor.context.annotations.Element
+          public class AuditLog {
+          }
+          """,
+      "com/acme/audit/AuditService.java", """
+          package com.acme.audit;
+          @ua.gorobeos.contextor.context.annotations.Element
+          public class AuditService {
+            private final AuditLog auditLog;
+            public AuditService(AuditLog auditLog) { this.auditLog = auditLog; }
+          }
+          """);
+
+  private static final Map<String, String> CONFLICTING_PLUGIN = Map.of(
+      "com/other/greeting/GreetingService.java", """
+          package com.other.greeting;
+          @ua.gorobeos.contextor.context.annotations.Element
+          public class GreetingService {
+          }
+          """);
+
+  private static final Map<String, String> FAILING_PLUGIN = Map.of(
+      "com/acme/failing/FailingService.java", """
+          package com.acme.failing;
+          @ua.gorobeos.contextor.context.annotations.Element
+          public class FailingService {
+            public FailingService() { throw new IllegalStateException("broken plugin"); }
+          }
+          """);
+
+  @TempDir
+  Path directory;
+
+  ContextHolder contextHolder;
+
+  @BeforeEach
+  void setUp() {
+    var elementDefinitionHolder = new DefaultElementDefinitionHolder();
+    contextHolder = new ContextHolder(elementDefinitionHolder, new ElementDefinitionReaderFacadeImpl(elementDefinitionHolder),
+        new SimpleDependencyResolver(elementDefinitionHolder));
+  }
+
+  @Test
+  void shouldLoadEveryPluginWithItsOwnClassLoader() throws IOException {
+    var greetingJar = pluginJar("greeting", GREETING_PLUGIN);
+    var auditJar = pluginJar("audit", AUDIT_PLUGIN);
+
+    var plugins = contextHolder.loadPlugins(Set.of(greetingJar, auditJar));
+
+    assertThat(plugins).hasSize(2);
+    assertThat(contextHolder.getPlugins()).containsOnlyKeys(greetingJar, auditJar);
+    var greetingService = contextHolder.getElement("greetingService").orElseThrow();
+    var auditService = contextHolder.getElement("auditService").orElseThrow();
+    assertThat(contextHolder.getElement("auditLog")).isPresent();
+    assertThat(greetingService.getClass().getClassLoader())
+        .isSameAs(contextHolder.getPlugins().get(greetingJar).getClassLoader())
+        .isNotSameAs(auditService.getClass().getClassLoader());
+  }
+
+  @Test
+  void shouldDropDefinitionsSingletonsAndClassLoaderOnUnload() throws Exception {
+    var greetingJar = pluginJar("greeting", GREETING_PLUGIN);
+    contextHolder.loadPlugins(Set.of(greetingJar));
+    var classLoader = new WeakReference<ClassLoader>(contextHolder.getPlugins().get(greetingJar).getClassLoader());
+
+    assertThat(contextHolder.unloadPlugin(greetingJar)).isTrue();
+
+    assertThat(contextHolder.getElementDefinitionHolder().getElementDefinition("greetingService")).isEmpty();
+    assertThat(contextHolder.getNameToElementMap()).doesNotContainKey("greetingService");
+    assertThat(contextHolder.getPlugins()).isEmpty();
+    for (int attempt = 0; attempt < 20 && classLoader.get() != null; attempt++) {
+      System.gc();
+      Thread.sleep(50);
+    }
+    assertThat(classLoader.get()).isNull();
+    assertThat(contextHolder.unloadPlugin(greetingJar)).isFalse();
+  }
+
+  @Test
+  void shouldRegisterNothingWhenPluginsConflict() throws IOException {
+    var greetingJar = pluginJar("greeting", GREETING_PLUGIN);
+    var conflictingJar = pluginJar("conflicting", CONFLICTING_PLUGIN);
+
+    assertThatThrownBy(() -> contextHolder.loadPlugins(Set.of(greetingJar, conflictingJar)))
+        .isInstanceOf(ContainerInitException.class);
+
+    assertThat(contextHolder.getPlugins()).isEmpty();
+    assertThat(contextHolder.getElementDefinitionHolder().getElementDefinitions()).isEmpty();
+  }
+
+  @Test
+  void shouldUnloadPluginsWhoseElementsCanNotBeCreated() throws IOException {
+    var greetingJar = pluginJar("greeting", GREETING_PLUGIN);
+    var failingJar = pluginJar("failing", FAILING_PLUGIN);
+
+    assertThatThrownBy(() -> contextHolder.loadPlugins(Set.of(greetingJar, failingJar)))
+        .hasRootCauseMessage("broken plugin");
+
+    assertThat(contextHolder.getPlugins()).isEmpty();
+    assertThat(contextHolder.getElementDefinitionHolder().getElementDefinitions()).isEmpty();
+    assertThat(contextHolder.getNameToElementMap()).isEmpty();
+  }
+
+  private Path pluginJar(String name, Map<String, String> sources) throws IOException {
+    var sourceDirectory = Files.createDirectories(directory.resolve(name + "-sources"));
+    var classesDirectory = Files.createDirectories(directory.resolve(name + "-classes"));
+    for (var source : sources.entrySet()) {
+      var sourceFile = sourceDirectory.resolve(source.getKey());
+      Files.createDirectories(sourceFile.getParent());
+      Files.writeString(sourceFile, source.getValue());
+    }
+
+    var compiler = ToolProvider.getSystemJavaCompiler();
+    try (var fileManager = compiler.getStandardFileManager(null, null, null);
+        Stream<Path> sourceFiles = Files.walk(sourceDirectory)) {
+      var compilationUnits = fileManager.getJavaFileObjectsFromPaths(sourceFiles.filter(Files::isRegularFile).toList());
+      var options = List.of("-proc:none", "-d", classesDirectory.toString(), "-classpath", System.getProperty("java.class.path"));
+      assertThat(compiler.getTask(null, fileManager, null, options, null, compilationUnits).call()).isTrue();
+    }
+
+    var jar = directory.resolve(name + ".jar");
+    try (var output = new JarOutputStream(Files.newOutputStream(jar));
+        Stream<Path> classFiles = Files.walk(classesDirectory)) {
+      for (Path classFile : classFiles.filter(Files::isRegularFile).toList()) {
+        output.putNextEntry(new ZipEntry(classesDirectory.relativize(classFile).toString().replace('\\', '/')));
+        output.write(Files.readAllBytes(classFile));
+        output.closeEntry();
+      }
+    }
+    return jar.toAbsolutePath().normalize();
+  }
+}
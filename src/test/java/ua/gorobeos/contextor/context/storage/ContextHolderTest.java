@@ -3,12 +3,18 @@ package ua.gorobeos.contextor.context.storage;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.util.List;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import ua.gorobeos.contextor.context.annotations.ElementScan;
+import ua.gorobeos.contextor.context.dependencies.DependencyDefinition;
+import ua.gorobeos.contextor.context.element.AnnotationElementDefinition;
+import ua.gorobeos.contextor.context.element.ElementDefinition;
 import ua.gorobeos.contextor.context.exceptions.CircularDependencyException;
+import ua.gorobeos.contextor.context.exceptions.UnresolvableDependencyException;
 import ua.gorobeos.contextor.context.storage.context_full_load.conditional.file.DependentClass;
 import ua.gorobeos.contextor.context.storage.context_full_load.conditional.file.SecondOnFileCondition;
+import ua.gorobeos.contextor.context.storage.context_full_load.with_config.BookRepository;
 
 class ContextHolderTest {
 
@@ -102,13 +108,50 @@ class ContextHolderTest {
   }
 
 
+  @Nested
+  class ApplyDeltaTest {
+
+    @Test
+    void shouldRestorePreviousDefinitionsWhenDeltaCanNotBeApplied() {
+      var context = ContextHolder.initializeContext(ContextWithConfigClass.class);
+      var definition = context.getElementDefinitionHolder().getElementDefinition("bookRepository").orElseThrow();
+      var element = context.getElement("bookRepository").orElseThrow();
+      var unresolvable = AnnotationElementDefinition.builder()
+          .name("bookRepository")
+          .isPrimary(false)
+          .type(BookRepository.class)
+          .scope(ElementDefinition.SINGLETON_SCOPE)
+          .dependencies(List.of(DependencyDefinition.builder().name("missing").clazz(Runnable.class).build()))
+          .build();
+      var added = AnnotationElementDefinition.builder()
+          .name("addedElement")
+          .isPrimary(false)
+          .type(Object.class)
+          .scope(ElementDefinition.SINGLETON_SCOPE)
+          .dependencies(List.of())
+          .build();
+
+      assertThatThrownBy(() -> context.applyDelta(ElementDefinitionDelta.builder()
+          .modifiedDefinition(unresolvable)
+          .addedDefinition(added)
+          .build()))
+          .isInstanceOf(UnresolvableDependencyException.class);
+
+      assertThat(context.getElementDefinitionHolder().getElementDefinition("bookRepository")).containsSame(definition);
+      assertThat(context.getElementDefinitionHolder().getElementDefinition("addedElement")).isEmpty();
+      assertThat(context.getElement("bookRepository")).containsSame(element);
+    }
+  }
+
   @Nested
   class CircularDependenciesTest {
 
     @Test
     void shouldThrowExceptionWhenCircularDependencyFoundForPlainClasses() {
       assertThatThrownBy(() -> ContextHolder.initializeContext(PlainClassCircularDependencyTestMain.class))
-          .isInstanceOf(CircularDependencyException.class);
+          .isInstanceOf(CircularDependencyException.class)
+          .message()
+          .containsAnyOf("'a' -> 'b' -> 'a'", "'b' -> 'a' -> 'b'");
     }
 
     @Test
@@ -0,0 +1,154 @@
+package ua.gorobeos.contextor.context.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mockStatic;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import javax.tools.ToolProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.MockedStatic;
+import ua.gorobeos.contextor.context.config.ConfigurationReader;
+import ua.gorobeos.contextor.context.element.ElementDefinition;
+import ua.gorobeos.contextor.context.scanner.ScanMode;
+
+class ContextWatcherTest {
+
+  private static final Map<String, String> APPLICATION = Map.of(
+      "com/acme/app/Application.java", """
+          package com.acme.app;
+          @ua.gorobeos.contextor.context.annotations.ElementScan(basePackages = "com.acme.app")
+          public class Application {
+          }
+          """,
+      "com/acme/app/Greeter.java", greeter("v1"),
+      "com/acme/app/GreetingPrinter.java", """
+          package com.acme.app;
+          @ua.gorobeos.contextor.context.annotations.Element
+          public class GreetingPrinter {
+            private final Greeter greeter;
+            public GreetingPrinter(Greeter greeter) { this.greeter = greeter; }
+            public Greeter getGreeter() { return greeter; }
+          }
+          """,
+      "com/acme/app/Clock.java", """
+          package com.acme.app;
+          @ua.gorobeos.contextor.context.annotations.Element
+          public class Clock {
+          }
+          """);
+
+  @TempDir
+  Path directory;
+
+  Path classesDirectory;
+  URLClassLoader classLoader;
+  ContextHolder contextHolder;
+  ContextWatcher contextWatcher;
+  BlockingQueue<ElementDefinitionDelta> deltas = new LinkedBlockingQueue<>();
+
+  @BeforeEach
+  void setUp() throws Exception {
+    classesDirectory = Files.createDirectories(directory.resolve("classes"));
+    compile(APPLICATION);
+    classLoader = new URLClassLoader(new URL[]{classesDirectory.toUri().toURL()}, getClass().getClassLoader());
+    var applicationClass = classLoader.loadClass("com.acme.app.Application");
+    try (MockedStatic<ConfigurationReader> configurationReader = mockStatic(ConfigurationReader.class, CALLS_REAL_METHODS)) {
+      configurationReader.when(() -> ConfigurationReader.getOrDefault(eq(ScanMode.SCAN_MODE_PROPERTY), any(), any()))
+          .thenReturn(ScanMode.BYTECODE);
+      contextHolder = ContextHolder.initializeContext(applicationClass);
+    }
+    contextWatcher = ContextWatcher.start(contextHolder, applicationClass, deltas::add);
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    contextWatcher.close();
+    classLoader.close();
+  }
+
+  @Test
+  void shouldReloadModifiedElementAndItsDependents() throws Exception {
+    var clock = contextHolder.getElement("clock").orElseThrow();
+
+    compile(Map.of("com/acme/app/Greeter.java", greeter("v2")));
+
+    var delta = deltas.poll(10, TimeUnit.SECONDS);
+    assertThat(delta).isNotNull();
+    assertThat(delta.getModifiedDefinitions()).extracting(ElementDefinition::getName)
+        .containsExactlyInAnyOrder("greeter", "greetingPrinter");
+    assertThat(delta.getAddedDefinitions()).isEmpty();
+    assertThat(delta.getRemovedNames()).isEmpty();
+
+    var greeter = contextHolder.getElement("greeter").orElseThrow();
+    var printer = contextHolder.getElement("greetingPrinter").orElseThrow();
+    assertThat(greeter.getClass().getMethod("greet").invoke(greeter)).isEqualTo("v2");
+    assertThat(printer.getClass().getMethod("getGreeter").invoke(printer)).isSameAs(greeter);
+    assertThat(contextHolder.getElement("clock")).containsSame(clock);
+  }
+
+  @Test
+  void shouldRegisterAddedAndDropRemovedElements() throws Exception {
+    compile(Map.of("com/acme/app/feature/Feature.java", """
+        package com.acme.app.feature;
+        @ua.gorobeos.contextor.context.annotations.Element
+        public class Feature {
+        }
+        """));
+
+    var addDelta = deltas.poll(10, TimeUnit.SECONDS);
+    assertThat(addDelta).isNotNull();
+    assertThat(addDelta.getAddedDefinitions()).extracting(ElementDefinition::getName).containsExactly("feature");
+    assertThat(contextHolder.getNameToElementMap()).containsKey("feature");
+
+    Files.delete(classesDirectory.resolve("com/acme/app/Clock.class"));
+
+    var removeDelta = deltas.poll(10, TimeUnit.SECONDS);
+    assertThat(removeDelta).isNotNull();
+    assertThat(removeDelta.getRemovedNames()).containsExactly("clock");
+    assertThat(contextHolder.getElementDefinitionHolder().getElementDefinition("clock")).isEmpty();
+    assertThat(contextHolder.getNameToElementMap()).doesNotContainKey("clock");
+  }
+
+  private static String greeter(String greeting) {
+    return """
+        package com.acme.app;
+        @ua.gorobeos.contextor.context.annotations.Element
+        public class Greeter {
+          public String greet() { return "%s"; }
+        }
+        """.formatted(greeting);
+  }
+
+  private void compile(Map<String, String> sources) throws IOException {
+    var sourceDirectory = Files.createTempDirectory(directory, "sources");
+    for (var source : sources.entrySet()) {
+      var sourceFile = sourceDirectory.resolve(source.getKey());
+      Files.createDirectories(sourceFile.getParent());
+      Files.writeString(sourceFile, source.getValue());
+    }
+    var compiler = ToolProvider.getSystemJavaCompiler();
+    try (var fileManager = compiler.getStandardFileManager(null, null, null);
+        var sourceFiles = Files.walk(sourceDirectory)) {
+      var compilationUnits = fileManager.getJavaFileObjectsFromPaths(sourceFiles.filter(Files::isRegularFile).toList());
+      var classPath = classesDirectory + File.pathSeparator + System.getProperty("java.class.path");
+      var options = List.of("-proc:none", "-d", classesDirectory.toString(), "-classpath", classPath);
+      assertThat(compiler.getTask(null, fileManager, null, options, null, compilationUnits).call()).isTrue();
+    }
+  }
+}
@@ -5,6 +5,10 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static ua.gorobeos.contextor.context.element.ElementDefinition.SINGLETON_SCOPE;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -12,6 +16,9 @@ import org.junit.jupiter.api.Test;
 import ua.gorobeos.contextor.context.element.AnnotationElementDefinition;
 import ua.gorobeos.contextor.context.element.ElementDefinition;
 import ua.gorobeos.contextor.context.exceptions.ElementNameConflictException;
+import ua.gorobeos.contextor.context.storage.context_full_load.lvl_one.AFirstImpl;
+import ua.gorobeos.contextor.context.storage.context_full_load.lvl_one.ASecondImpl;
+import ua.gorobeos.contextor.context.storage.context_full_load.lvl_one.InterfaceA;
 
 class DefaultElementDefinitionHolderTest {
 
@@ -42,6 +49,20 @@ class DefaultElementDefinitionHolderTest {
           .containsValue(definition);
     }
 
+    @Test
+    void shouldReturnReadOnlyViewOfDefinitions() {
+      var definitions = holder.getElementDefinitionMap();
+      ElementDefinition definition = AnnotationElementDefinition.builder()
+          .name("testElement")
+          .scope(SINGLETON_SCOPE)
+          .build();
+
+      holder.addElementDefinition(definition);
+
+      assertThat(definitions).isSameAs(holder.getElementDefinitionMap()).containsValue(definition);
+      assertThatThrownBy(() -> definitions.remove("testElement")).isInstanceOf(UnsupportedOperationException.class);
+    }
+
     @Test
     void shouldThrowExceptionIfSuchElementNameAlreadyExists() {
       ElementDefinition definition = AnnotationElementDefinition.builder()
@@ -61,4 +82,76 @@ class DefaultElementDefinitionHolderTest {
           .hasMessageContaining("Element definition with name 'testElement' already exists");
     }
   }
-}
\ No newline at end of file
+
+  @Nested
+  @DisplayName("Retrieving Element Definitions By Type")
+  class GetDefinitionsByTypeTest {
+
+    @Test
+    void shouldFindDefinitionsBySuperclassesAndInterfaces() {
+      var firstImpl = definition("aFirst", AFirstImpl.class);
+      var secondImpl = definition("aSecondImpl", ASecondImpl.class);
+      var arrayElement = definition("strings", String[].class);
+      holder.addElementDefinition(firstImpl);
+      holder.addElementDefinition(secondImpl);
+      holder.addElementDefinition(arrayElement);
+
+      assertThat(holder.getElementDefinitionsByType(InterfaceA.class)).containsExactlyInAnyOrder(firstImpl, secondImpl);
+      assertThat(holder.getElementDefinitionsByType(AFirstImpl.class)).containsExactly(firstImpl);
+      assertThat(holder.getElementDefinitionsByType(Object.class)).containsExactlyInAnyOrder(firstImpl, secondImpl, arrayElement);
+      assertThat(holder.getElementDefinitionsByType(CharSequence[].class)).containsExactly(arrayElement);
+      assertThat(holder.getElementDefinitionsByType(Runnable.class)).isEmpty();
+    }
+
+    @Test
+    void shouldReturnCachedListUntilDefinitionsChange() {
+      holder.addElementDefinition(definition("aFirst", AFirstImpl.class));
+
+      var definitions = holder.getElementDefinitionsByType(InterfaceA.class);
+      assertThat(holder.getElementDefinitionsByType(InterfaceA.class)).isSameAs(definitions);
+      assertThatThrownBy(definitions::clear).isInstanceOf(UnsupportedOperationException.class);
+
+      holder.removeElementDefinition("aFirst");
+      assertThat(holder.getElementDefinitionsByType(InterfaceA.class)).isEmpty();
+      assertThat(definitions).hasSize(1);
+    }
+
+    @Test
+    void shouldIndexDefinitionsAddedConcurrently() throws InterruptedException {
+      int threads = 8;
+      int definitionsPerThread = 250;
+      var start = new CountDownLatch(1);
+      var executor = Executors.newFixedThreadPool(threads);
+      for (int thread = 0; thread < threads; thread++) {
+        int firstIndex = thread * definitionsPerThread;
+        executor.execute(() -> {
+          awaitQuietly(start);
+          IntStream.range(firstIndex, firstIndex + definitionsPerThread)
+              .forEach(i -> holder.addElementDefinition(definition("element" + i, i % 2 == 0 ? AFirstImpl.class : ASecondImpl.class)));
+        });
+      }
+      start.countDown();
+      executor.shutdown();
+      assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+      assertThat(holder.getElementDefinitionsByType(InterfaceA.class)).hasSize(threads * definitionsPerThread);
+      assertThat(holder.getElementDefinitionsByType(AFirstImpl.class)).hasSize(threads * definitionsPerThread / 2);
+    }
+
+    private static ElementDefinition definition(String name, Class<?> type) {
+      return AnnotationElementDefinition.builder()
+          .name(name)
+          .type(type)
+          .scope(SINGLETON_SCOPE)
+          .build();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+      try {
+        latch.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+}
@@ -0,0 +1,143 @@
+package ua.gorobeos.contextor.context.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.MockedStatic;
+import ua.gorobeos.contextor.context.annotations.ElementScan;
+import ua.gorobeos.contextor.context.config.ConfigurationReader;
+import ua.gorobeos.contextor.context.element.ConfigElementDefinition;
+import ua.gorobeos.contextor.context.element.ElementDefinition;
+import ua.gorobeos.contextor.context.element.MethodDefinedElementDefinition;
+import ua.gorobeos.contextor.context.readers.ElementDefinitionReaderFacadeImpl;
+import ua.gorobeos.contextor.context.scanner.ClasspathElementScanner;
+import ua.gorobeos.contextor.context.scanner.ScanFilter;
+import ua.gorobeos.contextor.context.storage.context_full_load.conditional.web.WebDependentElement;
+
+class DefinitionSnapshotTest {
+
+  @TempDir
+  Path snapshotDirectory;
+
+  @Test
+  void shouldRestoreDefinitionsAsRead() {
+    var snapshot = new DefinitionSnapshot(snapshotDirectory);
+    var holder = readAndWrite(snapshot, MainClass.class);
+
+    var restored = snapshot.read(MainClass.class).orElseThrow();
+
+    var expected = holder.getElementDefinitionMap();
+    assertThat(restored).hasSameSizeAs(expected.values());
+    for (ElementDefinition definition : restored) {
+      var original = expected.get(definition.getName());
+      assertThat(definition)
+          .hasSameClassAs(original)
+          .usingRecursiveComparison()
+          .ignoringFields("methodDefinedElements")
+          .isEqualTo(original);
+      if (definition instanceof ConfigElementDefinition config) {
+        assertThat(config.getMethodDefinedElements())
+            .extracting(ElementDefinition::getName)
+            .containsExactlyElementsOf(((ConfigElementDefinition) original).getMethodDefinedElements().stream()
+                .map(ElementDefinition::getName)
+                .toList());
+      }
+    }
+    // a registered method defined element is the same instance its config definition holds
+    var config = (ConfigElementDefinition) restored.stream().filter(ConfigElementDefinition.class::isInstance).findFirst().orElseThrow();
+    assertThat(config.getMethodDefinedElements())
+        .filteredOn(methodDefined -> methodDefined.getName().equals("noDependencyExternalElement"))
+        .singleElement()
+        .isIn(restored)
+        .isInstanceOf(MethodDefinedElementDefinition.class);
+  }
+
+  @Test
+  void shouldRejectSnapshotWhenValuesReadByConditionsChange() {
+    var snapshot = new DefinitionSnapshot(snapshotDirectory);
+    try (MockedStatic<ConfigurationReader> configurationReader = mockStatic(ConfigurationReader.class, CALLS_REAL_METHODS)) {
+      configurationReader.when(() -> ConfigurationReader.getOrDefault("snapshot.feature", null)).thenReturn("on");
+      readAndWrite(snapshot, ConditionalMainClass.class);
+
+      assertThat(snapshot.read(ConditionalMainClass.class)).hasValueSatisfying(definitions -> assertThat(definitions)
+          .extracting(ElementDefinition::getName)
+          .containsExactlyInAnyOrder("featureElement", "plainElement"));
+
+      configurationReader.when(() -> ConfigurationReader.getOrDefault("snapshot.feature", null)).thenReturn(null);
+      assertThat(snapshot.read(ConditionalMainClass.class)).isEmpty();
+    }
+  }
+
+  @Test
+  void shouldRejectSnapshotTakenWithOtherProfiles() {
+    var snapshot = new DefinitionSnapshot(snapshotDirectory);
+    readAndWrite(snapshot, MainClass.class);
+
+    try (MockedStatic<ConfigurationReader> configurationReader = mockStatic(ConfigurationReader.class, CALLS_REAL_METHODS)) {
+      configurationReader.when(() -> ConfigurationReader.getOrDefault(eq(ScanFilter.ACTIVE_PROFILES_PROPERTY), any(), any()))
+          .thenReturn(Set.of("staging"));
+
+      assertThat(snapshot.read(MainClass.class)).isEmpty();
+    }
+  }
+
+  @Test
+  void shouldNotWriteSnapshotWhenConditionsCanNotBeReproduced() {
+    var snapshot = new DefinitionSnapshot(snapshotDirectory);
+
+    snapshot.write(MainClass.class, new DefaultElementDefinitionHolder().getElementDefinitions(),
+        Set.of(WebDependentElement.class));
+
+    assertThat(snapshotDirectory).isEmptyDirectory();
+  }
+
+  @Test
+  void shouldInitializeContextFromSnapshotWithoutScanning() {
+    try (MockedStatic<ConfigurationReader> configurationReader = mockStatic(ConfigurationReader.class, CALLS_REAL_METHODS)) {
+      configurationReader.when(() -> ConfigurationReader.getOrDefault(DefinitionSnapshot.SNAPSHOT_DIR_PROPERTY, null))
+          .thenReturn(snapshotDirectory.toString());
+      var coldContext = ContextHolder.initializeContext(MainClass.class);
+      assertThat(Files.exists(snapshotDirectory.resolve(MainClass.class.getName() + ".definitions"))).isTrue();
+
+      ContextHolder warmContext;
+      try (var scanner = mockStatic(ClasspathElementScanner.class, CALLS_REAL_METHODS)) {
+        warmContext = ContextHolder.initializeContext(MainClass.class);
+        scanner.verify(() -> ClasspathElementScanner.scanPackages(any()), never());
+        scanner.verify(() -> ClasspathElementScanner.scanPackages(any(), any()), never());
+      }
+
+      assertThat(warmContext.getNameToElementMap().keySet()).isEqualTo(coldContext.getNameToElementMap().keySet());
+    }
+  }
+
+  private static DefaultElementDefinitionHolder readAndWrite(DefinitionSnapshot snapshot, Class<?> initClazz) {
+    var holder = new DefaultElementDefinitionHolder();
+    var readerFacade = new ConditionRecordingReaderFacade(new ElementDefinitionReaderFacadeImpl(holder), holder);
+    ClasspathElementScanner.scanPackages(initClazz).forEach(readerFacade::addElementDefinition);
+    snapshot.write(initClazz, holder.getElementDefinitions(), readerFacade.getEvaluatedTypes());
+    assertThat(holder.getElementDefinitions()).isNotEmpty();
+    return holder;
+  }
+
+  @ElementScan(basePackages = {
+      "ua.gorobeos.contextor.context.storage.context_full_load.lvl_one",
+      "ua.gorobeos.contextor.context.storage.context_full_load.with_config"
+  })
+  private static class MainClass {
+
+  }
+
+  @ElementScan(basePackages = "ua.gorobeos.contextor.context.storage.context_full_load.snapshot")
+  private static class ConditionalMainClass {
+
+  }
+}
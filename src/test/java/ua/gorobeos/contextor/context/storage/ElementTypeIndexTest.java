@@ -0,0 +1,46 @@
+package ua.gorobeos.contextor.context.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.time.Duration;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class ElementTypeIndexTest {
+
+  ElementTypeIndex<Integer> index = new ElementTypeIndex<>();
+
+  @Test
+  void shouldRegisterManyEntriesOfSharedTypesInLinearTime() {
+    int entries = 200_000;
+
+    // copying the entry lists of Object and the shared interfaces on every add would take minutes here
+    assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+      IntStream.range(0, entries).forEach(id -> index.add(StringBuilder.class, id));
+      IntStream.range(0, entries).filter(id -> id % 2 == 0).forEach(id -> index.remove(StringBuilder.class, id));
+    });
+
+    assertThat(index.get(CharSequence.class)).hasSize(entries / 2).startsWith(1, 3, 5);
+    assertThat(index.get(Object.class)).hasSize(entries / 2);
+  }
+
+  @Test
+  void shouldCacheSnapshotUntilTypeChanges() {
+    index.add(StringBuilder.class, 1);
+    var snapshot = index.get(CharSequence.class);
+
+    assertThat(index.get(CharSequence.class)).isSameAs(snapshot);
+
+    index.add(String.class, 2);
+
+    assertThat(index.get(CharSequence.class)).containsExactly(1, 2);
+    assertThat(snapshot).containsExactly(1);
+    assertThat(index.get(StringBuilder.class)).containsExactly(1);
+
+    index.remove(StringBuilder.class, 1);
+    index.remove(String.class, 2);
+
+    assertThat(index.get(CharSequence.class)).isEmpty();
+  }
+}
@@ -0,0 +1,36 @@
+package ua.gorobeos.contextor.context.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class FrozenNameTableTest {
+
+  @Test
+  void shouldGiveEveryNameASlotOfItsOwn() {
+    var names = IntStream.range(0, 20_000).mapToObj(i -> "element" + i).toList();
+
+    var table = FrozenNameTable.of(names);
+
+    assertThat(names.stream().mapToInt(table::slotOf).distinct().count()).isEqualTo(names.size());
+    assertThat(names.stream().mapToInt(table::slotOf)).allMatch(slot -> slot >= 0 && slot < table.capacity());
+    assertThat(table.slotOf("element20000")).isEqualTo(-1);
+  }
+
+  @Test
+  void shouldSeparateNamesWithEqualHashCodes() {
+    assertThat("Aa".hashCode()).isEqualTo("BB".hashCode());
+
+    var table = FrozenNameTable.of(List.of("Aa", "BB", "AaBB", "BBAa"));
+
+    assertThat(table.slotOf("Aa")).isNotEqualTo(table.slotOf("BB")).isNotNegative();
+    assertThat(table.slotOf("AaBB")).isNotEqualTo(table.slotOf("BBAa")).isNotNegative();
+  }
+
+  @Test
+  void shouldFindNothingInEmptyTable() {
+    assertThat(FrozenNameTable.of(List.of()).slotOf("element")).isEqualTo(-1);
+  }
+}
@@ -0,0 +1,107 @@
+package ua.gorobeos.contextor.context.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import org.junit.jupiter.api.Test;
+import ua.gorobeos.contextor.context.annotations.ElementScan;
+import ua.gorobeos.contextor.context.element.ElementDefinition;
+import ua.gorobeos.contextor.context.exceptions.ElementNameConflictException;
+import ua.gorobeos.contextor.context.readers.ElementDefinitionReaderFacadeImpl;
+import ua.gorobeos.contextor.context.scanner.ClasspathElementScanner;
+import ua.gorobeos.contextor.context.storage.context_full_load.lvl_one.AFirstImpl;
+import ua.gorobeos.contextor.context.storage.context_full_load.lvl_one.ASecondImpl;
+import ua.gorobeos.contextor.context.storage.context_full_load.with_config.BookRepository;
+import ua.gorobeos.contextor.context.storage.context_full_load.with_config.ConfigClass;
+
+class PipelinedDefinitionLoaderTest {
+
+  DefaultElementDefinitionHolder elementDefinitionHolder = new DefaultElementDefinitionHolder();
+  // a single slot per queue, so submitting threads keep running work themselves
+  PipelinedDefinitionLoader loader = new PipelinedDefinitionLoader(
+      new ElementDefinitionReaderFacadeImpl(elementDefinitionHolder), elementDefinitionHolder, 4, 1);
+
+  @Test
+  void shouldRegisterSameDefinitionsAsSequentialReading() {
+    var sequentialHolder = new DefaultElementDefinitionHolder();
+    var sequentialReader = new ElementDefinitionReaderFacadeImpl(sequentialHolder);
+    ClasspathElementScanner.scanPackages(MainClass.class).forEach(sequentialReader::addElementDefinition);
+
+    loader.load(MainClass.class);
+
+    assertThat(elementDefinitionHolder.getElementDefinitions())
+        .extracting(ElementDefinition::getName)
+        .containsExactlyInAnyOrderElementsOf(sequentialHolder.getElementDefinitions().stream()
+            .map(ElementDefinition::getName)
+            .toList())
+        .contains("configClass", "noDependencyExternalElement");
+  }
+
+  @Test
+  void shouldAcceptClassesFromManyScanningThreads() {
+    List<Class<?>> classes = List.of(AFirstImpl.class, ASecondImpl.class, BookRepository.class, ConfigClass.class);
+    var barrier = new CyclicBarrier(classes.size());
+
+    loader.load(elementConsumer -> {
+      List<Thread> scanningThreads = new ArrayList<>();
+      for (Class<?> clazz : classes) {
+        scanningThreads.add(new Thread(() -> {
+          await(barrier);
+          elementConsumer.accept(clazz);
+        }));
+      }
+      scanningThreads.forEach(Thread::start);
+      scanningThreads.forEach(PipelinedDefinitionLoaderTest::join);
+    });
+
+    assertThat(elementDefinitionHolder.getElementDefinitionMap())
+        .containsKeys("aFirst", "aSecondImpl", "bookRepository", "configClass", "noDependencyExternalElement");
+  }
+
+  @Test
+  void shouldFailOnConflictingNames() {
+    assertThatThrownBy(() -> loader.load(elementConsumer -> {
+      elementConsumer.accept(BookRepository.class);
+      elementConsumer.accept(BookRepository.class);
+    }))
+        .isInstanceOf(ElementNameConflictException.class)
+        .hasMessageContaining("bookRepository");
+  }
+
+  @Test
+  void shouldRethrowScanFailure() {
+    assertThatThrownBy(() -> loader.load(elementConsumer -> {
+      elementConsumer.accept(BookRepository.class);
+      throw new IllegalStateException("scan failed");
+    }))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("scan failed");
+  }
+
+  private static void await(CyclicBarrier barrier) {
+    try {
+      barrier.await();
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static void join(Thread thread) {
+    try {
+      thread.join();
+    } catch (InterruptedException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @ElementScan(basePackages = {
+      "ua.gorobeos.contextor.context.storage.context_full_load.lvl_one",
+      "ua.gorobeos.contextor.context.storage.context_full_load.with_config"
+  })
+  private static class MainClass {
+
+  }
+}
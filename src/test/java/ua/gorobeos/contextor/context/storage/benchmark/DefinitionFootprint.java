@@ -0,0 +1,81 @@
+package ua.gorobeos.contextor.context.storage.benchmark;
+
+import static ua.gorobeos.contextor.context.element.ElementDefinition.SINGLETON_SCOPE;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import java.util.ArrayList;
+import java.util.List;
+import org.openjdk.jol.info.GraphLayout;
+import org.slf4j.LoggerFactory;
+import ua.gorobeos.contextor.context.element.AnnotationElementDefinition;
+import ua.gorobeos.contextor.context.storage.CompactElementDefinitionHolder;
+import ua.gorobeos.contextor.context.storage.DefaultElementDefinitionHolder;
+import ua.gorobeos.contextor.context.storage.ElementDefinitionHolder;
+import ua.gorobeos.contextor.context.utils.ReflectionUtils;
+
+// Retained size of each definition store holding the same definitions, read the way the annotation reader reads them:
+// a Constructor copy and fresh dependency definitions per element. Sizes are measured by JOL, once in total and once
+// without the reflection objects both stores have to keep.
+// Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=<this class>
+public class DefinitionFootprint {
+
+  private static final List<Class<?>> ELEMENT_TYPES = List.of(OrderService.class, BillingService.class, AuditService.class);
+
+  public static void main(String[] args) {
+    ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+    for (int elements : new int[]{1_000, 10_000, 50_000}) {
+      var defaultLayout = footprint(new DefaultElementDefinitionHolder(), elements);
+      var compactLayout = footprint(new CompactElementDefinitionHolder(), elements);
+      System.out.printf("%,7d elements: default %,6d bytes per element (%,d without reflection), compact %,6d (%,d)%n",
+          elements, defaultLayout[0] / elements, defaultLayout[1] / elements,
+          compactLayout[0] / elements, compactLayout[1] / elements);
+    }
+  }
+
+  // total size and size without the constructors and their parameters
+  private static long[] footprint(ElementDefinitionHolder holder, int elements) {
+    List<Object> reflection = new ArrayList<>();
+    for (int i = 0; i < elements; i++) {
+      var type = ELEMENT_TYPES.get(i % ELEMENT_TYPES.size());
+      var constructor = type.getDeclaredConstructors()[0];
+      reflection.add(constructor);
+      holder.addElementDefinition(AnnotationElementDefinition.builder()
+          .name("element" + i)
+          .isPrimary(false)
+          .type(type)
+          .initConstructor(constructor)
+          .scope(SINGLETON_SCOPE)
+          .dependencies(ReflectionUtils.mapParametersToDependencyDefinitions(constructor.getParameters()))
+          .build());
+    }
+    var layout = GraphLayout.parseInstance(holder);
+    return new long[]{layout.totalSize(), layout.subtract(GraphLayout.parseInstance(reflection.toArray())).totalSize()};
+  }
+
+  public static class Repository {
+
+  }
+
+  public static class Clock {
+
+  }
+
+  public static class OrderService {
+
+    public OrderService(Repository repository, Clock clock) {
+    }
+  }
+
+  public static class BillingService {
+
+    public BillingService(Repository repository) {
+    }
+  }
+
+  public static class AuditService {
+
+    public AuditService() {
+    }
+  }
+}
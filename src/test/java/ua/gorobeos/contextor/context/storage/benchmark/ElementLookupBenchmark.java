@@ -0,0 +1,104 @@
+package ua.gorobeos.contextor.context.storage.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+import ua.gorobeos.contextor.context.annotations.ElementScan;
+import ua.gorobeos.contextor.context.storage.ContextHolder;
+import ua.gorobeos.contextor.context.storage.ContextOptions;
+import ua.gorobeos.contextor.context.storage.ElementHandle;
+
+// Singleton and definition lookups by name, cycling through every element, in a regular and in a frozen context,
+// and singleton reads through element handles.
+// Run with -prof gc to see the allocation difference.
+// Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=<this class>
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ElementLookupBenchmark {
+
+  ContextHolder context;
+  ContextHolder frozenContext;
+  String[] names;
+  ElementHandle<?>[] handles;
+  int next;
+
+  @Setup
+  public void setUp() {
+    // the bundled logback.xml logs at trace, which would dominate every measurement
+    ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+    context = ContextHolder.initializeContext(MainClass.class, ContextOptions.builder().frozen(false).build());
+    frozenContext = ContextHolder.initializeContext(MainClass.class, ContextOptions.builder().frozen(true).build());
+    // copies, as a caller's names are rarely the instances the context holds
+    names = context.getNameToElementMap().keySet().stream()
+        .map(String::new)
+        .toArray(String[]::new);
+    handles = Arrays.stream(names)
+        .map(name -> context.getHandle(name, Object.class))
+        .toArray(ElementHandle<?>[]::new);
+  }
+
+  @Benchmark
+  public Object element() {
+    return context.getElement(nextName());
+  }
+
+  @Benchmark
+  public Object frozenElement() {
+    return frozenContext.getElement(nextName());
+  }
+
+  @Benchmark
+  public Object definition() {
+    return context.getElementDefinitionHolder().getElementDefinition(nextName());
+  }
+
+  @Benchmark
+  public Object frozenDefinition() {
+    return frozenContext.getElementDefinitionHolder().getElementDefinition(nextName());
+  }
+
+  @Benchmark
+  public Object handle() {
+    next = next + 1 == handles.length ? 0 : next + 1;
+    return context.get(handles[next]);
+  }
+
+  private String nextName() {
+    next = next + 1 == names.length ? 0 : next + 1;
+    return names[next];
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(ElementLookupBenchmark.class.getSimpleName())
+        .build())
+        .run();
+  }
+
+  @ElementScan(basePackages = {
+      "ua.gorobeos.contextor.context.storage.context_full_load.lvl_one",
+      "ua.gorobeos.contextor.context.storage.context_full_load.with_config"
+  })
+  public static class MainClass {
+
+  }
+}
@@ -0,0 +1,15 @@
+package ua.gorobeos.contextor.context.storage.context_full_load.concurrent;
+
+import ua.gorobeos.contextor.context.annotations.Element;
+
+@Element
+public class ConnectionPool {
+
+  public ConnectionPool() {
+    Constructions.POOLS.incrementAndGet();
+    Constructions.slowDown();
+    if (Constructions.FAILURES_LEFT.getAndDecrement() > 0) {
+      throw new IllegalStateException("connection refused");
+    }
+  }
+}
@@ -0,0 +1,30 @@
+package ua.gorobeos.contextor.context.storage.context_full_load.concurrent;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class Constructions {
+
+  public static final AtomicInteger POOLS = new AtomicInteger();
+  public static final AtomicInteger REPOSITORIES = new AtomicInteger();
+  public static final AtomicInteger LEASES = new AtomicInteger();
+  public static final AtomicInteger FAILURES_LEFT = new AtomicInteger();
+
+  private Constructions() {
+  }
+
+  public static void reset() {
+    POOLS.set(0);
+    REPOSITORIES.set(0);
+    LEASES.set(0);
+    FAILURES_LEFT.set(0);
+  }
+
+  // keeps a construction running long enough for other threads to ask for the same element
+  static void slowDown() {
+    try {
+      Thread.sleep(5);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,15 @@
+package ua.gorobeos.contextor.context.storage.context_full_load.concurrent;
+
+import static ua.gorobeos.contextor.context.element.ElementDefinition.PROTOTYPE_SCOPE;
+
+import ua.gorobeos.contextor.context.annotations.Element;
+import ua.gorobeos.contextor.context.annotations.Scope;
+
+@Element
+@Scope(PROTOTYPE_SCOPE)
+public class PoolLease {
+
+  public PoolLease(ConnectionPool connectionPool) {
+    Constructions.LEASES.incrementAndGet();
+  }
+}
@@ -0,0 +1,17 @@
+package ua.gorobeos.contextor.context.storage.context_full_load.concurrent;
+
+import lombok.Getter;
+import ua.gorobeos.contextor.context.annotations.Element;
+
+@Getter
+@Element
+public class PooledRepository {
+
+  ConnectionPool connectionPool;
+
+  public PooledRepository(ConnectionPool connectionPool) {
+    Constructions.REPOSITORIES.incrementAndGet();
+    Constructions.slowDown();
+    this.connectionPool = connectionPool;
+  }
+}
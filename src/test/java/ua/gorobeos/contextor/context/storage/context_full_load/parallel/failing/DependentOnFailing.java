@@ -0,0 +1,11 @@
+package ua.gorobeos.contextor.context.storage.context_full_load.parallel.failing;
+
+import ua.gorobeos.contextor.context.annotations.Element;
+
+@Element
+public class DependentOnFailing {
+
+  public DependentOnFailing(FailingElement failingElement) {
+    throw new AssertionError("created although its dependency failed");
+  }
+}
@@ -0,0 +1,11 @@
+package ua.gorobeos.contextor.context.storage.context_full_load.parallel.hanging;
+
+import ua.gorobeos.contextor.context.annotations.Element;
+
+@Element
+public class HangingElement {
+
+  public HangingElement() throws InterruptedException {
+    Thread.sleep(30_000);
+  }
+}
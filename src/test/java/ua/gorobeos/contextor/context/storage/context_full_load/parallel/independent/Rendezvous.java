@@ -0,0 +1,17 @@
+package ua.gorobeos.contextor.context.storage.context_full_load.parallel.independent;
+
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+// Both slow elements wait here for each other, so they can only be created when created at the same time
+public final class Rendezvous {
+
+  public static final CyclicBarrier BARRIER = new CyclicBarrier(2);
+
+  private Rendezvous() {
+  }
+
+  static void await() throws Exception {
+    BARRIER.await(5, TimeUnit.SECONDS);
+  }
+}
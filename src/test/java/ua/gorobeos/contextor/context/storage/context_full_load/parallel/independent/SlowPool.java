@@ -0,0 +1,11 @@
+package ua.gorobeos.contextor.context.storage.context_full_load.parallel.independent;
+
+import ua.gorobeos.contextor.context.annotations.Element;
+
+@Element
+public class SlowPool {
+
+  public SlowPool() throws Exception {
+    Rendezvous.await();
+  }
+}
@@ -0,0 +1,17 @@
+package ua.gorobeos.contextor.context.storage.context_full_load.parallel.independent;
+
+import lombok.Getter;
+import ua.gorobeos.contextor.context.annotations.Element;
+
+@Getter
+@Element
+public class SlowService {
+
+  SlowCache slowCache;
+  SlowPool slowPool;
+
+  public SlowService(SlowCache slowCache, SlowPool slowPool) {
+    this.slowCache = slowCache;
+    this.slowPool = slowPool;
+  }
+}
@@ -0,0 +1,10 @@
+package ua.gorobeos.contextor.context.storage.context_full_load.snapshot;
+
+import ua.gorobeos.contextor.context.annotations.Element;
+import ua.gorobeos.contextor.context.annotations.conditions.ConditionalOnProperty;
+
+@Element
+@ConditionalOnProperty(name = "snapshot.feature", value = "on")
+public class FeatureElement {
+
+}
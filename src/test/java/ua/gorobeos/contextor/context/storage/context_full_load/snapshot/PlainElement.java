@@ -0,0 +1,8 @@
+package ua.gorobeos.contextor.context.storage.context_full_load.snapshot;
+
+import ua.gorobeos.contextor.context.annotations.Element;
+
+@Element
+public class PlainElement {
+
+}
@@ -39,6 +39,21 @@ class ReflectionUtilsTest {
       var res = ReflectionUtils.isAnnotationPresentFullCheck(NonAnnotatedClass.class, Element.class);
       assertThat(res).isFalse();
     }
+
+    @Test
+    void shouldFindMetaAnnotationAndInterfaceAnnotation() {
+      assertThat(ReflectionUtils.isAnnotationPresentFullCheck(ConfigElement.class, Element.class)).isTrue();
+      assertThat(ReflectionUtils.isAnnotationPresentFullCheck(ConcreteElementLvlTwo.class, ElementScan.class)).isTrue();
+      assertThat(ReflectionUtils.isAnnotationPresentFullCheck(ConcreteElementLvlTwo.class, Scope.class)).isFalse();
+    }
+
+    @Test
+    void shouldReuseCachedAnnotationClosure() {
+      var annotations = ReflectionUtils.getAnnotationsFromClassFullCheck(ConfigElement.class);
+
+      assertThat(ReflectionUtils.getAnnotationsFromClassFullCheck(ConfigElement.class)).isSameAs(annotations);
+      assertThat(annotations).contains(ContextConfig.class, Element.class).isUnmodifiable();
+    }
   }
 
   @Nested
@@ -87,6 +102,23 @@ class ReflectionUtilsTest {
       assertThat(res.get()).containsExactly("ua.gorobeos.contextor.scanner.test.packs.one_lvl_deep",
           "ua.gorobeos.contextor.scanner.test.packs.two_lvl_deep");
     }
+
+    @Test
+    void shouldHandOutSnapshotArraysWithoutCopying() {
+      var first = ReflectionUtils.getValueFromAnnotation(ElementInterface.class, ElementScan.class, "basePackages", String[].class);
+
+      var second = ReflectionUtils.getValueFromAnnotation(ElementInterface.class, ElementScan.class, "basePackages", String[].class);
+
+      assertThat(second.orElseThrow()).isSameAs(first.orElseThrow())
+          .containsExactly("ua.gorobeos.contextor.scanner.test.packs.one_lvl_deep",
+              "ua.gorobeos.contextor.scanner.test.packs.two_lvl_deep");
+    }
+
+    @Test
+    void shouldRejectUnknownAttribute() {
+      assertThatThrownBy(() -> ReflectionUtils.getValueFromAnnotation(ElementInterface.class, ElementScan.class, "missing", String.class))
+          .isInstanceOf(IllegalArgumentException.class);
+    }
   }
 
   @Nested
@@ -191,4 +223,9 @@ class ReflectionUtilsTest {
   static class NonAnnotatedClass {
 
   }
+
+  @ContextConfig
+  static class ConfigElement {
+
+  }
 }
\ No newline at end of file
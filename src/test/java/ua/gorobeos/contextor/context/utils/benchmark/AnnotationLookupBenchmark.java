@@ -0,0 +1,101 @@
+package ua.gorobeos.contextor.context.utils.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import java.lang.annotation.Annotation;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+import ua.gorobeos.contextor.context.annotations.ContextConfig;
+import ua.gorobeos.contextor.context.annotations.Element;
+import ua.gorobeos.contextor.context.annotations.ElementScan;
+import ua.gorobeos.contextor.context.annotations.Primary;
+import ua.gorobeos.contextor.context.annotations.conditions.ConditionalOnProperty;
+import ua.gorobeos.contextor.context.utils.ReflectionUtils;
+
+// Annotation presence checks on an element with a supertype and a meta-annotation, and attribute reads, as the readers
+// and condition evaluators do them. Run with -prof gc to see the allocation difference.
+// Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=<this class>
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnnotationLookupBenchmark {
+
+  @Setup
+  public void setUp() {
+    // the bundled logback.xml logs at trace, which would dominate every measurement
+    ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+  }
+
+  @Benchmark
+  public boolean reflectionsFullCheck() {
+    // ReflectionUtils.isAnnotationPresentFullCheck before the per-class cache
+    return org.reflections.ReflectionUtils.getAllAnnotations(ConfigElement.class)
+        .stream()
+        .map(Annotation::annotationType)
+        .collect(Collectors.toSet())
+        .stream()
+        .anyMatch(annotation -> annotation.equals(ConditionalOnProperty.class));
+  }
+
+  @Benchmark
+  public boolean cachedFullCheck() {
+    return ReflectionUtils.isAnnotationPresentFullCheck(ConfigElement.class, ConditionalOnProperty.class);
+  }
+
+  @Benchmark
+  public Object reflectiveAttributeRead() throws ReflectiveOperationException {
+    // ReflectionUtils.getValueFromAnnotation before the attribute snapshots
+    var annotation = ScannedConfig.class.getAnnotation(ElementScan.class);
+    return annotation.annotationType().getMethod("basePackages").invoke(annotation);
+  }
+
+  @Benchmark
+  public Object cachedAttributeRead() {
+    // expected to allocate nothing per call: the array comes from the snapshot as it is, not as a copy
+    return ReflectionUtils.getValueFromAnnotation(ScannedConfig.class, ElementScan.class, "basePackages", String[].class);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+        .include(AnnotationLookupBenchmark.class.getSimpleName())
+        .build())
+        .run();
+  }
+
+  interface Service {
+
+  }
+
+  @Element
+  static class BaseElement implements Service {
+
+  }
+
+  @Primary
+  @ContextConfig
+  static class ConfigElement extends BaseElement {
+
+  }
+
+  @ElementScan(basePackages = {"com.acme.orders", "com.acme.billing", "com.acme.shipping"})
+  static class ScannedConfig {
+
+  }
+}
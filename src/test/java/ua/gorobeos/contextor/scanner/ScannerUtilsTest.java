@@ -3,6 +3,7 @@ package ua.gorobeos.contextor.scanner;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.util.List;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -49,4 +50,23 @@ public class ScannerUtilsTest {
     }
   }
 
+  @Nested
+  @DisplayName("Tests base packages collapsing")
+  class CollapsePackagesTest {
+
+    @Test
+    void shouldDropDuplicateAndNestedPackages() {
+      var res = ScannerUtils.collapsePackages(List.of("com.acme.billing", "com.acme", "com.acme.billing.api", "com.acme", "org.other"));
+
+      assertThat(res).containsExactly("com.acme", "org.other");
+    }
+
+    @Test
+    void shouldKeepPackagesSharingOnlyNamePrefix() {
+      var res = ScannerUtils.collapsePackages(List.of("com.acme", "com.acmecorp", "com.acme$x.y"));
+
+      assertThat(res).containsExactly("com.acme", "com.acme$x.y", "com.acmecorp");
+    }
+  }
+
 }
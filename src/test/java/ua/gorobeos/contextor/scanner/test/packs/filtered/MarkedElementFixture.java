@@ -0,0 +1,9 @@
+package ua.gorobeos.contextor.scanner.test.packs.filtered;
+
+import ua.gorobeos.contextor.context.annotations.Element;
+
+@Marker
+@Element
+public class MarkedElementFixture {
+
+}
@@ -0,0 +1,8 @@
+package ua.gorobeos.contextor.scanner.test.packs.filtered;
+
+import ua.gorobeos.contextor.context.annotations.Element;
+
+@Element
+public class PlainElement {
+
+}
@@ -0,0 +1,10 @@
+package ua.gorobeos.contextor.scanner.test.packs.filtered.generated;
+
+import ua.gorobeos.contextor.context.annotations.Element;
+import ua.gorobeos.contextor.scanner.test.packs.filtered.Marker;
+
+@Marker
+@Element
+public class GeneratedElement {
+
+}
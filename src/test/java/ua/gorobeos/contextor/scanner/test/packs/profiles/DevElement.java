@@ -0,0 +1,10 @@
+package ua.gorobeos.contextor.scanner.test.packs.profiles;
+
+import ua.gorobeos.contextor.context.annotations.Element;
+import ua.gorobeos.contextor.context.annotations.Profile;
+
+@Profile("dev")
+@Element
+public class DevElement {
+
+}
@@ -0,0 +1,9 @@
+package ua.gorobeos.contextor.scanner.test.packs.profiles;
+
+import ua.gorobeos.contextor.context.annotations.ElementScan;
+
+// init class next to the fixtures, so a class loader defining the fixtures can define it as well
+@ElementScan(basePackages = "ua.gorobeos.contextor.scanner.test.packs.profiles")
+public class ProfilesInitClass {
+
+}